@@ -0,0 +1,44 @@
+package core;
+
+import fetch.HtmlDocument;
+import fetch.JsoupHtmlDocument;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+import support.HtmlCorpus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Heading and link extraction on already parsed canned pages, so the numbers exclude
+    parsing and only cover the analyzer's own work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrawlPageAnalyzerBenchmark {
+    @Param({"ARTICLE", "NAVIGATION", "DOCUMENTATION"})
+    private HtmlCorpus corpus;
+
+    private HtmlDocument document;
+    private CrawlPageAnalyzer analyzer;
+
+    @Setup
+    public void parseCorpus() {
+        document = new JsoupHtmlDocument(Jsoup.parse(corpus.html(), "https://www.example.com/"));
+        analyzer = new CrawlPageAnalyzer(url -> document);
+    }
+
+    @Benchmark
+    public List<String> extractFormattedHeadings() {
+        return analyzer.extractFormattedHeadings(document);
+    }
+
+    @Benchmark
+    public List<String> extractValidLinks() {
+        return analyzer.extractValidLinks(document);
+    }
+}
@@ -0,0 +1,62 @@
+package core;
+
+import config.CrawlConfiguration;
+import config.CrawlerSettings;
+import config.ExecutorMode;
+import frontier.PolitenessPolicy;
+import model.CrawlResult;
+import org.openjdk.jmh.annotations.*;
+import support.SyntheticSite;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+    End-to-end crawl of an in-memory site graph. Politeness limits are lifted because every
+    synthetic page lives on the same host and the delays would dominate the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class WebCrawlerBenchmark {
+    private static final int MAX_DEPTH = 20;
+
+    @Param({"2000"})
+    private int pageCount;
+
+    @Param({"8"})
+    private int extraLinksPerPage;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutorMode executorMode;
+
+    private SyntheticSite site;
+    private CrawlConfiguration config;
+    private CrawlerSettings settings;
+
+    @Setup
+    public void createSite() throws MalformedURLException {
+        site = new SyntheticSite(pageCount, extraLinksPerPage);
+        config = new CrawlConfiguration(new URL(site.rootUrl()), Optional.of(MAX_DEPTH), Set.of(SyntheticSite.ROOT));
+        CrawlerSettings defaults = CrawlerSettings.defaults().withExecutorMode(executorMode);
+        settings = defaults
+                .withThreadPoolSize(executorMode == ExecutorMode.VIRTUAL ? 200 : defaults.threadPoolSize())
+                .withPoliteness(PolitenessPolicy.unrestricted());
+    }
+
+    @Benchmark
+    public List<CrawlResult> crawl() {
+        List<CrawlResult> results = new WebCrawler(config, new CrawlPageAnalyzer(site), settings).crawl();
+        if (results.size() < site.pageCount()) {
+            throw new IllegalStateException("Crawl reached only " + results.size() + " of " + site.pageCount() + " pages");
+        }
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+package fetch;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import support.SyntheticHtml;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Compares the former extraction path (one select() per heading level plus a separate
+    link query, i.e. seven traversals of the DOM) with the single-pass extractContent(), and
+    parsing into a full DOM with the streaming loader, which discards markup as it goes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentExtractionBenchmark {
+    @Param({"50", "500"})
+    private int sections;
+
+    private JsoupHtmlDocument document;
+    private RawPage rawPage;
+    private HttpClientPageLoader domLoader;
+    private StreamingPageLoader streamingLoader;
+
+    @Setup
+    public void parseDocument() {
+        String html = SyntheticHtml.sectionedPage(sections);
+        document = new JsoupHtmlDocument(Jsoup.parse(html, "https://www.example.com/"));
+        rawPage = new RawPage("https://www.example.com/", html.getBytes(StandardCharsets.UTF_8), "UTF-8");
+        domLoader = new HttpClientPageLoader(Duration.ofSeconds(1), Duration.ofSeconds(1));
+        streamingLoader = new StreamingPageLoader(Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @Benchmark
+    public void selectPerHeadingLevel(Blackhole blackhole) {
+        for (int level = 1; level <= 6; level++) {
+            blackhole.consume(document.select("h" + level));
+        }
+        blackhole.consume(document.getLinks());
+    }
+
+    @Benchmark
+    public PageContent singlePassExtraction() {
+        return document.extractContent();
+    }
+
+    @Benchmark
+    public PageContent parseDomAndExtract() {
+        return domLoader.parse(rawPage).extractContent();
+    }
+
+    @Benchmark
+    public PageContent parseStreaming() {
+        return streamingLoader.parse(rawPage).extractContent();
+    }
+}
@@ -0,0 +1,81 @@
+package fetch;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Compares JsoupPageLoader (new connection handling per Jsoup.connect call) with
+    HttpClientPageLoader (one pooled HttpClient) against an in-process HTTP server,
+    so the numbers reflect client overhead rather than network latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class PageLoaderBenchmark {
+    private static final int LINKS_PER_PAGE = 200;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String pageUrl;
+    private JsoupPageLoader jsoupLoader;
+    private HttpClientPageLoader httpClientLoader;
+
+    @Setup
+    public void startServer() throws IOException {
+        byte[] page = createPage().getBytes(StandardCharsets.UTF_8);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/page", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page);
+            }
+        });
+        server.start();
+
+        pageUrl = "http://localhost:" + server.getAddress().getPort() + "/page";
+        jsoupLoader = new JsoupPageLoader();
+        httpClientLoader = new HttpClientPageLoader(Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public HtmlDocument jsoupPageLoader() {
+        return jsoupLoader.loadPage(pageUrl);
+    }
+
+    @Benchmark
+    public HtmlDocument httpClientPageLoader() {
+        return httpClientLoader.loadPage(pageUrl);
+    }
+
+    private static String createPage() {
+        StringBuilder html = new StringBuilder("<html><head><title>Benchmark</title></head><body>");
+        for (int i = 0; i < LINKS_PER_PAGE; i++) {
+            html.append("<h2>Section ").append(i).append("</h2>")
+                    .append("<p>Some filler text for section ").append(i).append(".</p>")
+                    .append("<a href=\"/page/").append(i).append("\">link ").append(i).append("</a>");
+        }
+        return html.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,50 @@
+package metrics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Cost of recording one fetch latency from four threads at once, spread over 500 hosts, and
+    of recording a parse time that has no host. Run with -prof gc: recording must not allocate
+    once a host has its histogram, so gc.alloc.rate.norm should stay at 0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class CrawlMetricsBenchmark {
+    private final CrawlMetrics metrics = new CrawlMetrics();
+    private final String[] urls = new String[500];
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        private long latency = 1_000;
+    }
+
+    @Setup
+    public void createUrls() {
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = "https://www.host-" + i + ".example.com/section/article-" + i;
+            metrics.recordFetch(urls[i], 1_000);
+        }
+    }
+
+    @Benchmark
+    public void recordFetch(Cursor cursor) {
+        String url = urls[cursor.next];
+        cursor.next = cursor.next + 1 == urls.length ? 0 : cursor.next + 1;
+        cursor.latency = cursor.latency * 31 % 50_000_000 + 1;
+        metrics.recordFetch(url, cursor.latency);
+    }
+
+    @Benchmark
+    public void recordParse(Cursor cursor) {
+        cursor.latency = cursor.latency * 31 % 5_000_000 + 1;
+        metrics.recordParse(cursor.latency);
+    }
+}
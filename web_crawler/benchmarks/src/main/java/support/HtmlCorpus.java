@@ -0,0 +1,52 @@
+package support;
+
+/*
+    Canned pages with different shapes, generated deterministically so every run parses the
+    same input: a text-heavy article, a page dominated by navigation links and a long
+    documentation page with many nested headings.
+ */
+public enum HtmlCorpus {
+    ARTICLE {
+        @Override
+        public String html() {
+            StringBuilder body = new StringBuilder("<h1>Article title</h1>");
+            for (int paragraph = 0; paragraph < 40; paragraph++) {
+                if (paragraph % 8 == 0) body.append("<h2>Part ").append(paragraph / 8).append("</h2>");
+                body.append("<p>").append(LOREM).append(" <a href=\"/article/").append(paragraph)
+                        .append("\">read more</a> ").append(LOREM).append("</p>");
+            }
+            return page(body);
+        }
+    },
+    NAVIGATION {
+        @Override
+        public String html() {
+            StringBuilder body = new StringBuilder("<h1>Shop</h1><nav><ul>");
+            for (int category = 0; category < 50; category++) {
+                body.append("<li><a href=\"/category/").append(category).append("\">Category ").append(category)
+                        .append("</a><ul>");
+                for (int item = 0; item < 20; item++) {
+                    body.append("<li><a href=\"https://shop.example.com/category/").append(category)
+                            .append("/item/").append(item).append("?ref=nav\">Item ").append(item).append("</a></li>");
+                }
+                body.append("</ul></li>");
+            }
+            return page(body.append("</ul></nav><h2>Offers</h2><p>").append(LOREM).append("</p>"));
+        }
+    },
+    DOCUMENTATION {
+        @Override
+        public String html() {
+            return page(new StringBuilder("<h1>Reference</h1>").append(SyntheticHtml.sections(300)));
+        }
+    };
+
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua.";
+
+    public abstract String html();
+
+    private static String page(CharSequence body) {
+        return "<html><head><title>Corpus</title></head><body>" + body + "</body></html>";
+    }
+}
@@ -0,0 +1,23 @@
+package support;
+
+public final class SyntheticHtml {
+    private SyntheticHtml() {
+    }
+
+    public static String sectionedPage(int sections) {
+        return "<html><head><title>Benchmark</title></head><body><h1>Benchmark</h1>" + sections(sections)
+                + "</body></html>";
+    }
+
+    static String sections(int sections) {
+        StringBuilder html = new StringBuilder();
+        for (int section = 0; section < sections; section++) {
+            html.append("<div class=\"section\"><h").append(section % 5 + 2).append(">Section ").append(section)
+                    .append("</h").append(section % 5 + 2).append("><p>Some text with a ")
+                    .append("<a href=\"/section/").append(section).append("\">relative link</a> and an ")
+                    .append("<a href=\"https://other.example.com/").append(section).append("\">absolute link</a>.</p>")
+                    .append("<ul><li>one</li><li>two</li><li>three</li></ul></div>");
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package support;
+
+import exceptions.PageLoadException;
+import fetch.HtmlDocument;
+import fetch.JsoupHtmlDocument;
+import fetch.PageLoader;
+import org.jsoup.Jsoup;
+
+/*
+    An in-memory site graph served through the PageLoader interface, so end-to-end crawl
+    benchmarks include parsing and crawler bookkeeping but no network. Page i links to its
+    children 2i+1 and 2i+2 (every page is reachable within log2(pages) levels) plus a few
+    pseudo-random pages, which produces plenty of duplicate links. Every page also carries one
+    broken link that fails to load.
+ */
+public class SyntheticSite implements PageLoader {
+    public static final String ROOT = "https://www.example.com";
+    private static final String PAGE_PREFIX = ROOT + "/page/";
+
+    private final String[] pages;
+
+    public SyntheticSite(int pageCount, int extraLinksPerPage) {
+        pages = new String[pageCount];
+        for (int page = 0; page < pageCount; page++) {
+            pages[page] = createPage(page, pageCount, extraLinksPerPage);
+        }
+    }
+
+    public String rootUrl() {
+        return PAGE_PREFIX + 0;
+    }
+
+    public int pageCount() {
+        return pages.length;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        int page = pageNumber(url);
+        if (page < 0 || page >= pages.length) {
+            throw new PageLoadException("Failed to load page: " + url, null);
+        }
+        return new JsoupHtmlDocument(Jsoup.parse(pages[page], url));
+    }
+
+    private static int pageNumber(String url) {
+        if (!url.startsWith(PAGE_PREFIX)) return -1;
+        try {
+            return Integer.parseInt(url.substring(PAGE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String createPage(int page, int pageCount, int extraLinks) {
+        StringBuilder html = new StringBuilder("<html><body><h1>Page ").append(page).append("</h1>");
+        for (int child = 2 * page + 1; child <= 2 * page + 2 && child < pageCount; child++) {
+            html.append("<h2>Child ").append(child).append("</h2><a href=\"/page/").append(child).append("\">child</a>");
+        }
+        long seed = page * 2654435761L + 1;
+        for (int link = 0; link < extraLinks; link++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            long target = Math.floorMod(seed >>> 33, pageCount);
+            html.append("<p>See <a href=\"").append(PAGE_PREFIX).append(target).append("\">page ").append(target)
+                    .append("</a></p>");
+        }
+        return html.append("<a href=\"/missing/").append(page).append("\">broken</a></body></html>").toString();
+    }
+}
@@ -0,0 +1,28 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkdownBenchmark {
+    private static final String[] HEADINGS = {
+            "h1:Crawled Website Report", "h2:Getting started", "h3:Installation on Linux and macOS",
+            "h6:x", "h4:A much longer heading that describes a section of a documentation page in detail",
+            "not a heading", "h7:invalid level", "h2"
+    };
+
+    private int next;
+
+    @Benchmark
+    public Optional<String> extractHeading() {
+        next = (next + 1) % HEADINGS.length;
+        return Markdown.extractHeading(HEADINGS[next], next % 4);
+    }
+}
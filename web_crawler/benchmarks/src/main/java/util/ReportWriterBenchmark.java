@@ -0,0 +1,58 @@
+package util;
+
+import model.CrawlResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Writes a complete report for crawls of 10k and 100k pages. One invocation takes seconds,
+    so every measurement is a single shot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ReportWriterBenchmark {
+    @Param({"10000", "100000"})
+    private int pageCount;
+
+    private List<CrawlResult> pages;
+    private URL rootUrl;
+    private Path reportFile;
+
+    @Setup
+    public void createResults() throws IOException {
+        rootUrl = new URL("https://www.example.com");
+        reportFile = Files.createTempFile("report-benchmark", ".md");
+        pages = new ArrayList<>(pageCount);
+        for (int page = 0; page < pageCount; page++) {
+            CrawlResult result = new CrawlResult();
+            result.pageUrl = "https://www.example.com/page/" + page;
+            result.currentDepth = page % 4;
+            result.isFetchFailed = page % 50 == 0;
+            result.headings = List.of("h1:Page " + page, "h2:Overview", "h3:Details of page " + page);
+            result.childLinks = List.of();
+            result.parentUrls.add(rootUrl);
+            pages.add(result);
+        }
+    }
+
+    @TearDown
+    public void deleteReport() throws IOException {
+        Files.deleteIfExists(reportFile);
+    }
+
+    @Benchmark
+    public ReportStats writeReport() {
+        return new ReportWriter(reportFile.toString()).writeReport(pages, rootUrl);
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+    URL handling runs for every discovered link, so it is measured per call over a mix of
+    URL shapes: with and without www, trailing slashes, query strings, ports and fragments.
+    normalizeWithJavaNetUrl keeps the former java.net.URL + regex implementation as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebCrawlerUtilsBenchmark {
+    private static final int URL_COUNT = 1024;
+    private static final Set<String> ALLOWED_DOMAINS = Set.of("www.example.com", "www.example.org", "docs.example.net");
+
+    private final String[] rawUrls = new String[URL_COUNT];
+    private final String[] normalizedUrls = new String[URL_COUNT];
+    private int next;
+
+    @Setup
+    public void createUrls() {
+        String[] hosts = {"example.com", "www.example.com", "www.example.org", "docs.example.net", "other.example.io"};
+        for (int i = 0; i < URL_COUNT; i++) {
+            String host = hosts[i % hosts.length];
+            rawUrls[i] = switch (i % 4) {
+                case 0 -> "https://" + host + "/articles/" + i + "/";
+                case 1 -> "http://" + host + ":8080/search?q=term" + i + "&page=2";
+                case 2 -> "https://" + host + "/docs/guide/section-" + i + "#anchor";
+                default -> "https://" + host + "/";
+            };
+            normalizedUrls[i] = WebCrawlerUtils.normalizeUrl(rawUrls[i]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Optional<String> normalizeUrl() {
+        return WebCrawlerUtils.normalizeUrl(rawUrls[nextIndex()]);
+    }
+
+    @Benchmark
+    public Optional<String> normalizeWithJavaNetUrl() {
+        try {
+            URL url = new URL(rawUrls[nextIndex()]);
+            String host = url.getHost();
+            return Optional.of(url.getProtocol() + "://" + (host.startsWith("www.") ? host : "www." + host)
+                    + url.getPath().replaceAll("/$", ""));
+        } catch (MalformedURLException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Benchmark
+    public boolean isDomainAllowed() {
+        return WebCrawlerUtils.isDomainAllowed(normalizedUrls[nextIndex()], ALLOWED_DOMAINS);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (URL_COUNT - 1);
+        return next;
+    }
+}
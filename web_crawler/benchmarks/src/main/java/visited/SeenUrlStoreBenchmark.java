@@ -0,0 +1,190 @@
+package visited;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Claims one million distinct URLs in every seen-URL store. CONCURRENT_KEY_SET is the
+    ConcurrentHashMap key set of Strings the crawler used before the URL dictionary.
+
+    claimDistinctUrls measures the insert cost including table growth, claimRepeatedUrl the
+    cost of rejecting a URL that was already claimed, which is the common case for child links,
+    in a store filled with all URLs. The Bloom filters are sized for the one million URLs at a
+    1% false-positive rate.
+
+    retainedBytesPerUrl reports the heap a filled store keeps alive as the bytesPerUrl counter:
+    the heap left after full collections of the serial collector is compared with and without
+    the store. It runs a single iteration because the counter is summed over iterations, and it
+    creates the URLs the way the crawler does, so stores that keep the String pay for it. Its
+    time score is dominated by the collections and is not meaningful.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+UseSerialGC", "-Dlogback.configurationFile=logback-benchmark.xml"})
+public class SeenUrlStoreBenchmark {
+    public enum StoreType {
+        CONCURRENT_KEY_SET {
+            @Override
+            SeenUrlStore create() {
+                return new ConcurrentKeySetStore();
+            }
+        },
+        DICTIONARY {
+            @Override
+            SeenUrlStore create() {
+                return new VisitedUrlSet();
+            }
+        },
+        FINGERPRINT {
+            @Override
+            SeenUrlStore create() {
+                return new FingerprintUrlSet();
+            }
+        },
+        BLOOM {
+            @Override
+            SeenUrlStore create() {
+                return new BloomUrlSet(1_000_000, 0.01);
+            }
+        },
+        TWO_TIER {
+            @Override
+            SeenUrlStore create() {
+                return new BloomFilteredUrlStore(new BloomFilter(1_000_000, 0.01), new VisitedUrlSet());
+            }
+        };
+
+        abstract SeenUrlStore create();
+    }
+
+    @Param({"CONCURRENT_KEY_SET", "DICTIONARY", "FINGERPRINT", "BLOOM", "TWO_TIER"})
+    private StoreType store;
+
+    @Param({"1000000"})
+    private int urlCount;
+
+    private SeenUrlStore filled;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerUrl;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Urls {
+        private String[] urls;
+
+        @Setup
+        public void createUrls(SeenUrlStoreBenchmark benchmark) {
+            urls = new String[benchmark.urlCount];
+            for (int i = 0; i < urls.length; i++) {
+                urls[i] = url(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FilledStore {
+        private SeenUrlStore seenUrls;
+        private String[] urls;
+        private int next;
+
+        @Setup
+        public void fill(SeenUrlStoreBenchmark benchmark, Urls urls) {
+            this.urls = urls.urls;
+            seenUrls = benchmark.store.create();
+            for (String url : this.urls) {
+                seenUrls.claim(url);
+            }
+        }
+    }
+
+    @Benchmark
+    public SeenUrlStore claimDistinctUrls(Urls urls) {
+        SeenUrlStore seenUrls = store.create();
+        for (String url : urls.urls) {
+            seenUrls.claim(url);
+        }
+        return seenUrls;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean claimRepeatedUrl(FilledStore filled) {
+        String url = filled.urls[filled.next];
+        filled.next = filled.next + 1 == filled.urls.length ? 0 : filled.next + 1;
+        return filled.seenUrls.claim(url);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public long retainedBytesPerUrl(Footprint footprint) {
+        filled = store.create();
+        for (int i = 0; i < urlCount; i++) {
+            filled.claim(url(i));
+        }
+        long size = filled.size();
+        long retained = usedHeapAfterGc();
+        filled = null;
+        long released = usedHeapAfterGc();
+        footprint.bytesPerUrl = (retained - released) / urlCount;
+        return size;
+    }
+
+    private static String url(int i) {
+        return "https://www.host-" + (i % 5_000) + ".example.com/section/" + (i / 5_000) + "/article-" + i;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) used += pool.getCollectionUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static final class ConcurrentKeySetStore implements SeenUrlStore {
+        private final Set<String> urls = ConcurrentHashMap.newKeySet();
+        private final LongAdder preventedDuplicates = new LongAdder();
+
+        @Override
+        public boolean claim(String normalizedUrl) {
+            if (urls.add(normalizedUrl)) return true;
+            preventedDuplicates.increment();
+            return false;
+        }
+
+        @Override
+        public boolean isClaimed(String normalizedUrl) {
+            return urls.contains(normalizedUrl);
+        }
+
+        @Override
+        public long size() {
+            return urls.size();
+        }
+
+        @Override
+        public long preventedDuplicateCount() {
+            return preventedDuplicates.sum();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package cache;
+
+import exceptions.PageLoadException;
+import fetch.FetchTrace;
+import fetch.HtmlDocument;
+import fetch.PageFetcher;
+import fetch.PageLoader;
+import fetch.PageParser;
+import fetch.RawPage;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Serves pages from a {@link PageCache} while they are fresh and only fetches the others. The
+ * cached body is parsed again on every load, so the cache saves the download, not the parsing.
+ */
+public class CachingPageLoader implements PageLoader, AutoCloseable {
+    private static final Logger logger = CrawlLogger.getLogger(CachingPageLoader.class);
+
+    private final PageFetcher fetcher;
+    private final PageParser parser;
+    private final PageCache cache;
+
+    public CachingPageLoader(PageFetcher fetcher, PageParser parser, PageCache cache) {
+        this.fetcher = fetcher;
+        this.parser = parser;
+        this.cache = cache;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    /**
+     * Pages served from the cache leave the trace untouched.
+     */
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        Optional<RawPage> cached = cache.get(url);
+        if (cached.isPresent()) return parser.parse(cached.get());
+
+        RawPage page = fetcher.fetch(url, trace);
+        cache.put(url, page);
+        return parser.parse(page);
+    }
+
+    /**
+     * Writes the cache index and logs how much the cache saved
+     */
+    @Override
+    public void close() {
+        cache.close();
+        logger.info("Page cache: {} hits, {} misses, {} bytes not downloaded, {} evictions, {} pages in {} bytes",
+                cache.hitCount(), cache.missCount(), cache.bytesSaved(), cache.evictionCount(),
+                cache.size(), cache.storedBytes());
+    }
+}
@@ -0,0 +1,315 @@
+package cache;
+
+import exceptions.PageCacheException;
+import fetch.CacheControl;
+import fetch.RawPage;
+import org.slf4j.Logger;
+import util.BinaryFormat;
+import util.CrawlLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Size-bounded cache of raw page bodies that survives between runs.
+ * <p>
+ * Bodies are stored once per content in files named after their SHA-256 hash, so pages with
+ * identical bodies share a file. The index from URL to body is kept in memory in least
+ * recently used order and written to {@value #INDEX_FILE} when the cache is closed. When the
+ * stored bodies exceed the size limit, the least recently used URLs are dropped until they
+ * fit again, and a body file is deleted once no URL refers to it anymore.
+ * <p>
+ * Responses with {@code no-store} or {@code no-cache} are not kept. Others stay fresh for their
+ * {@code max-age}, or for the default time to live if the server did not send one.
+ */
+public class PageCache implements AutoCloseable {
+    static final String INDEX_FILE = "index.bin";
+    static final String BODY_SUFFIX = ".body";
+    private static final Logger logger = CrawlLogger.getLogger(PageCache.class);
+    private static final int MAGIC = 0x57434348;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Duration defaultTimeToLive;
+    private final Clock clock;
+    // guarded by this; access order makes the first entry the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> bodyReferences = new HashMap<>();
+    private long storedBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private record Entry(String bodyHash, int size, String url, String charset, long expiresAtMillis) {
+    }
+
+    PageCache(Path directory, long maxBytes, Duration defaultTimeToLive, Clock clock) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.defaultTimeToLive = defaultTimeToLive;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens the cache in the given directory, creating it if needed. An index that cannot be
+     * read is ignored, the cache then starts empty.
+     *
+     * @throws PageCacheException if the directory cannot be created or listed
+     */
+    public static PageCache open(Path directory, long maxBytes, Duration defaultTimeToLive) {
+        return open(directory, maxBytes, defaultTimeToLive, Clock.systemUTC());
+    }
+
+    static PageCache open(Path directory, long maxBytes, Duration defaultTimeToLive, Clock clock) {
+        PageCache cache = new PageCache(directory, maxBytes, defaultTimeToLive, clock);
+        try {
+            Files.createDirectories(directory);
+            cache.readIndex();
+            cache.deleteUnreferencedBodies();
+        } catch (IOException e) {
+            throw new PageCacheException("Failed to open page cache in " + directory, e);
+        }
+        synchronized (cache) {
+            cache.evictToFit();
+        }
+        return cache;
+    }
+
+    public Optional<RawPage> get(String url) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(url);
+            if (entry != null && entry.expiresAtMillis() <= clock.millis()) {
+                remove(url);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+
+        byte[] body;
+        try {
+            body = Files.readAllBytes(bodyFile(entry.bodyHash()));
+        } catch (IOException e) {
+            // the body was evicted after the lookup, or deleted from outside
+            synchronized (this) {
+                if (entries.get(url) == entry) remove(url);
+            }
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        bytesSaved.add(body.length);
+        return Optional.of(new RawPage(entry.url(), body, entry.charset()));
+    }
+
+    /**
+     * Stores the page if its Cache-Control directives allow it; failing to store it is logged
+     * and otherwise ignored.
+     */
+    public void put(String url, RawPage page) {
+        Optional<Duration> timeToLive = timeToLive(page.cacheControl());
+        if (timeToLive.isEmpty() || page.body().length > maxBytes) return;
+
+        String bodyHash = hash(page.body());
+        try {
+            writeBody(bodyHash, page.body());
+        } catch (IOException e) {
+            logger.warn("Failed to cache page {}: {}", url, e.getMessage());
+            return;
+        }
+        Entry entry = new Entry(bodyHash, page.body().length, page.url(), page.charset(),
+                clock.millis() + timeToLive.get().toMillis());
+        synchronized (this) {
+            // an eviction may have deleted the body between writing and referencing it
+            if (!Files.exists(bodyFile(bodyHash))) return;
+            Entry previous = entries.put(url, entry);
+            // referenced first, so a body shared with the previous entry is not deleted
+            reference(entry);
+            if (previous != null) release(previous);
+            evictToFit();
+        }
+    }
+
+    protected Optional<Duration> timeToLive(CacheControl cacheControl) {
+        if (cacheControl.noStore() || cacheControl.noCache()) return Optional.empty();
+        Duration timeToLive = cacheControl.maxAge().orElse(defaultTimeToLive);
+        return timeToLive.isZero() ? Optional.empty() : Optional.of(timeToLive);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long storedBytes() {
+        return storedBytes;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Writes the index, so the next run can use the stored bodies
+     */
+    @Override
+    public synchronized void close() {
+        Path index = directory.resolve(INDEX_FILE);
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        try {
+            writeIndex(temporary);
+            Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write page cache index {}: {}", index, e.getMessage());
+        }
+    }
+
+    private void evictToFit() {
+        Iterator<Map.Entry<String, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (storedBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Entry entry = leastRecentlyUsed.next().getValue();
+            leastRecentlyUsed.remove();
+            release(entry);
+            evictionCount.increment();
+        }
+    }
+
+    private void remove(String url) {
+        Entry entry = entries.remove(url);
+        if (entry != null) release(entry);
+    }
+
+    private void reference(Entry entry) {
+        int references = bodyReferences.merge(entry.bodyHash(), 1, Integer::sum);
+        if (references == 1) storedBytes += entry.size();
+    }
+
+    private void release(Entry entry) {
+        int references = bodyReferences.merge(entry.bodyHash(), -1, Integer::sum);
+        if (references > 0) return;
+        bodyReferences.remove(entry.bodyHash());
+        storedBytes -= entry.size();
+        try {
+            Files.deleteIfExists(bodyFile(entry.bodyHash()));
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached body {}: {}", entry.bodyHash(), e.getMessage());
+        }
+    }
+
+    private void writeBody(String bodyHash, byte[] body) throws IOException {
+        Path file = bodyFile(bodyHash);
+        if (Files.exists(file)) return;
+        Path temporary = Files.createTempFile(directory, bodyHash, ".tmp");
+        try {
+            Files.write(temporary, body);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Path bodyFile(String bodyHash) {
+        return directory.resolve(bodyHash + BODY_SUFFIX);
+    }
+
+    private void writeIndex(Path file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            BinaryFormat.writeHeader(output, MAGIC, VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<String, Entry> indexed : entries.entrySet()) {
+                Entry entry = indexed.getValue();
+                BinaryFormat.writeString(output, indexed.getKey());
+                BinaryFormat.writeString(output, entry.bodyHash());
+                output.writeInt(entry.size());
+                BinaryFormat.writeString(output, entry.url());
+                BinaryFormat.writeString(output, entry.charset());
+                output.writeLong(entry.expiresAtMillis());
+            }
+        }
+    }
+
+    private synchronized void readIndex() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) return;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(index), BUFFER_SIZE))) {
+            BinaryFormat.readHeader(input, MAGIC, VERSION, "page cache index");
+            int count = input.readInt();
+            long now = clock.millis();
+            for (int i = 0; i < count; i++) {
+                String url = BinaryFormat.readString(input);
+                Entry entry = new Entry(BinaryFormat.readString(input), input.readInt(),
+                        BinaryFormat.readString(input), BinaryFormat.readString(input), input.readLong());
+                if (entry.expiresAtMillis() > now && Files.exists(bodyFile(entry.bodyHash()))) {
+                    entries.put(url, entry);
+                    reference(entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable page cache index {}: {}", index, e.getMessage());
+            entries.clear();
+            bodyReferences.clear();
+            storedBytes = 0;
+        }
+    }
+
+    private synchronized void deleteUnreferencedBodies() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!bodyReferences.containsKey(name.substring(0, name.length() - BODY_SUFFIX.length()))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
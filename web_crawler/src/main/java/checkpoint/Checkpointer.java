@@ -0,0 +1,111 @@
+package checkpoint;
+
+import exceptions.CheckpointException;
+import model.CrawlResult;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Writes a {@link CrawlSnapshot} of the finished pages at a fixed interval on its own thread,
+ * so workers never wait for it. Each snapshot is written to a temporary file first and then
+ * moved over the previous one, which leaves a complete checkpoint on disk at any time.
+ */
+public class Checkpointer implements AutoCloseable {
+    static final String CHECKPOINT_FILE = "checkpoint.bin";
+    private static final Logger logger = CrawlLogger.getLogger(Checkpointer.class);
+
+    private final Path directory;
+    private final Duration interval;
+    private final URL rootUrl;
+    private final Supplier<List<CrawlResult>> pages;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("checkpoint").daemon().factory());
+
+    /**
+     * @param pages supplies a copy of the pages finished so far; called on the checkpoint thread
+     */
+    public Checkpointer(Path directory, Duration interval, URL rootUrl, Supplier<List<CrawlResult>> pages) {
+        this.directory = directory;
+        this.interval = interval;
+        this.rootUrl = rootUrl;
+        this.pages = pages;
+    }
+
+    /**
+     * @return the checkpoint in the directory, or empty if none has been written yet
+     * @throws CheckpointException if a checkpoint exists but cannot be read
+     */
+    public static Optional<CrawlSnapshot> latest(Path directory) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) return Optional.empty();
+        try {
+            return Optional.of(CrawlSnapshot.readFrom(file));
+        } catch (IOException e) {
+            throw new CheckpointException("Failed to read checkpoint " + file, e);
+        }
+    }
+
+    public void start() {
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void checkpoint() {
+        long start = System.nanoTime();
+        CrawlSnapshot snapshot = new CrawlSnapshot(rootUrl, Instant.now(), pages.get());
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            snapshot.writeTo(temporary);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Checkpoint of {} pages written to {} in {} ms ({} bytes)", snapshot.pages().size(), file,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Files.size(file));
+        } catch (IOException e) {
+            throw new CheckpointException("Failed to write checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Stops the periodic checkpoints and writes a final one. A failure to write it is logged
+     * rather than thrown, so it never costs the caller the pages of a finished crawl.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpointQuietly();
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            logger.error("Checkpoint failed, the previous checkpoint is kept.", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package checkpoint;
+
+import model.CrawlResult;
+import util.BinaryFormat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * The pages a crawl has finished, in a compact binary file.
+ * <p>
+ * Nothing else needs to be stored: every URL the crawler has claimed is either one of these
+ * pages or a link on one of them, so the visited set and the frontier are rebuilt from the
+ * pages on resume. The file is a deflate stream of length-prefixed UTF-8 strings, written
+ * with the fastest compression level.
+ */
+public record CrawlSnapshot(URL rootUrl, Instant createdAt, List<CrawlResult> pages) {
+    private static final int MAGIC = 0x57434350;
+    private static final int VERSION = 1;
+
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream output = BinaryFormat.openDeflated(file)) {
+            BinaryFormat.writeHeader(output, MAGIC, VERSION);
+            BinaryFormat.writeString(output, rootUrl.toString());
+            output.writeLong(createdAt.toEpochMilli());
+            output.writeInt(pages.size());
+            for (CrawlResult page : pages) {
+                writePage(output, page);
+            }
+        }
+    }
+
+    public static CrawlSnapshot readFrom(Path file) throws IOException {
+        try (DataInputStream input = BinaryFormat.openInflated(file)) {
+            BinaryFormat.readHeader(input, MAGIC, VERSION, "crawl checkpoint");
+            URL rootUrl = toUrl(BinaryFormat.readString(input));
+            Instant createdAt = Instant.ofEpochMilli(input.readLong());
+            int pageCount = input.readInt();
+            List<CrawlResult> pages = new ArrayList<>(pageCount);
+            for (int i = 0; i < pageCount; i++) {
+                pages.add(readPage(input));
+            }
+            return new CrawlSnapshot(rootUrl, createdAt, pages);
+        }
+    }
+
+    private static void writePage(DataOutputStream output, CrawlResult page) throws IOException {
+        BinaryFormat.writeString(output, page.pageUrl);
+        output.writeInt(page.currentDepth);
+        output.writeBoolean(page.isFetchFailed);
+        writeStrings(output, page.headings);
+        writeStrings(output, page.childLinks);
+        List<String> parentUrls = new ArrayList<>();
+        page.parentUrls.forEach(parentUrl -> parentUrls.add(parentUrl.toString()));
+        writeStrings(output, parentUrls);
+    }
+
+    private static CrawlResult readPage(DataInputStream input) throws IOException {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = BinaryFormat.readString(input);
+        page.currentDepth = input.readInt();
+        page.isFetchFailed = input.readBoolean();
+        page.headings = readStrings(input);
+        page.childLinks = readStrings(input);
+        for (String parentUrl : readStrings(input)) {
+            page.parentUrls.add(toUrl(parentUrl));
+        }
+        return page;
+    }
+
+    private static void writeStrings(DataOutputStream output, Collection<String> values) throws IOException {
+        if (values == null) {
+            output.writeInt(-1);
+            return;
+        }
+        // copied first, a concurrent writer must not change the count after it was written
+        List<String> copy = new ArrayList<>(values);
+        output.writeInt(copy.size());
+        for (String value : copy) {
+            BinaryFormat.writeString(output, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        if (count < 0) return null;
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(BinaryFormat.readString(input));
+        }
+        return values;
+    }
+
+    private static URL toUrl(String url) throws IOException {
+        try {
+            return URI.create(url).toURL();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL in checkpoint: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record CacheSettings(Optional<Path> directory, long maxBytes, Duration defaultTimeToLive) {
+    public static final int DEFAULT_MAX_MEGABYTES = 512;
+    public static final int DEFAULT_TIME_TO_LIVE_SECONDS = 3_600;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    public CacheSettings {
+        if (directory == null) {
+            throw new ConfigurationException("Cache directory must be provided or empty.");
+        }
+        if (maxBytes < 1) {
+            throw new ConfigurationException("Cache size must be positive.");
+        }
+        if (defaultTimeToLive == null || defaultTimeToLive.isNegative()) {
+            throw new ConfigurationException("Cache time to live must not be negative.");
+        }
+    }
+
+    public static CacheSettings disabled() {
+        return new CacheSettings(Optional.empty(), DEFAULT_MAX_MEGABYTES * BYTES_PER_MEGABYTE,
+                Duration.ofSeconds(DEFAULT_TIME_TO_LIVE_SECONDS));
+    }
+
+    public boolean enabled() {
+        return directory.isPresent();
+    }
+
+    static CacheSettings fromOptions(CommandLineOptions options) {
+        return new CacheSettings(
+                Optional.ofNullable(options.stringValue("cache-dir", null)).map(Path::of),
+                options.intValue("cache-max-mb", DEFAULT_MAX_MEGABYTES) * BYTES_PER_MEGABYTE,
+                Duration.ofSeconds(options.intValue("cache-ttl-s", DEFAULT_TIME_TO_LIVE_SECONDS))
+        );
+    }
+}
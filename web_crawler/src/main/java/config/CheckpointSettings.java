@@ -0,0 +1,44 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record CheckpointSettings(Optional<Path> directory, Duration interval, boolean resume) {
+    public static final int DEFAULT_INTERVAL_SECONDS = 60;
+
+    public CheckpointSettings {
+        if (directory == null) {
+            throw new ConfigurationException("Checkpoint directory must be provided or empty.");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new ConfigurationException("Checkpoint interval must be positive.");
+        }
+        if (resume && directory.isEmpty()) {
+            throw new ConfigurationException("Resuming a crawl requires --checkpoint-dir.");
+        }
+    }
+
+    public static CheckpointSettings disabled() {
+        return new CheckpointSettings(Optional.empty(), Duration.ofSeconds(DEFAULT_INTERVAL_SECONDS), false);
+    }
+
+    public boolean enabled() {
+        return directory.isPresent();
+    }
+
+    static CheckpointSettings fromOptions(CommandLineOptions options) {
+        return new CheckpointSettings(
+                Optional.ofNullable(options.stringValue("checkpoint-dir", null)).map(Path::of),
+                Duration.ofSeconds(options.intValue("checkpoint-interval-s", DEFAULT_INTERVAL_SECONDS)),
+                options.flag("resume")
+        );
+    }
+}
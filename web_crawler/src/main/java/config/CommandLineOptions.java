@@ -0,0 +1,91 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public class CommandLineOptions {
+    private static final String OPTION_PREFIX = "--";
+    private final Map<String, String> values;
+    private final Set<String> consumedNames = new HashSet<>();
+
+    private CommandLineOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static CommandLineOptions parse(List<String> arguments) {
+        Map<String, String> values = new HashMap<>();
+        for (String argument : arguments) {
+            if (!argument.startsWith(OPTION_PREFIX)) {
+                throw new ConfigurationException("Unrecognized argument: " + argument);
+            }
+            String option = argument.substring(OPTION_PREFIX.length());
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                values.put(option, "true");
+            } else {
+                values.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        return new CommandLineOptions(values);
+    }
+
+    public int intValue(String name, int defaultValue) {
+        String value = stringValue(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Option --" + name + " expects a number but got: " + value);
+        }
+    }
+
+    public double doubleValue(String name, double defaultValue) {
+        String value = stringValue(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Option --" + name + " expects a number but got: " + value);
+        }
+    }
+
+    /**
+     * @return true if the option was given without a value or with the value {@code true}
+     */
+    public boolean flag(String name) {
+        return Boolean.parseBoolean(stringValue(name, "false").trim());
+    }
+
+    public <E extends Enum<E>> E enumValue(String name, Class<E> type, E defaultValue) {
+        String value = stringValue(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Option --" + name + " does not accept the value: " + value);
+        }
+    }
+
+    public String stringValue(String name, String defaultValue) {
+        consumedNames.add(name);
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public void rejectUnknownOptions() {
+        for (String name : values.keySet()) {
+            if (!consumedNames.contains(name)) {
+                throw new ConfigurationException("Unknown option: --" + name);
+            }
+        }
+    }
+}
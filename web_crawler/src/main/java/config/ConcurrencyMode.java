@@ -0,0 +1,13 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public enum ConcurrencyMode {
+    /** Keeps the in-flight fetches at {@code --max-in-flight} in total and {@code --max-per-host} per host. */
+    FIXED,
+    /** Starts at the fixed limits and adapts them to the latency and errors of every host. */
+    ADAPTIVE
+}
@@ -0,0 +1,46 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * @param maxInFlight        in {@link ConcurrencyMode#ADAPTIVE} mode, the in-flight fetches the total limit may grow to
+ * @param maxInFlightPerHost in {@link ConcurrencyMode#ADAPTIVE} mode, the in-flight fetches a host's limit may grow to
+ */
+public record ConcurrencySettings(ConcurrencyMode mode, int maxInFlight, int maxInFlightPerHost) {
+    public static final int DEFAULT_ADAPTIVE_MAX_IN_FLIGHT = 256;
+    public static final int DEFAULT_ADAPTIVE_MAX_PER_HOST = 32;
+
+    public ConcurrencySettings {
+        if (mode == null) {
+            throw new ConfigurationException("Concurrency mode must be provided.");
+        }
+        if (maxInFlight < 1) {
+            throw new ConfigurationException("Adaptive in-flight limit must be at least 1.");
+        }
+        if (maxInFlightPerHost < 1) {
+            throw new ConfigurationException("Adaptive per-host limit must be at least 1.");
+        }
+    }
+
+    public static ConcurrencySettings fixed() {
+        return new ConcurrencySettings(ConcurrencyMode.FIXED, DEFAULT_ADAPTIVE_MAX_IN_FLIGHT, DEFAULT_ADAPTIVE_MAX_PER_HOST);
+    }
+
+    public boolean adaptive() {
+        return mode == ConcurrencyMode.ADAPTIVE;
+    }
+
+    static ConcurrencySettings fromOptions(CommandLineOptions options) {
+        return new ConcurrencySettings(
+                options.enumValue("concurrency", ConcurrencyMode.class, ConcurrencyMode.FIXED),
+                options.intValue("adaptive-max-in-flight", DEFAULT_ADAPTIVE_MAX_IN_FLIGHT),
+                options.intValue("adaptive-max-per-host", DEFAULT_ADAPTIVE_MAX_PER_HOST)
+        );
+    }
+}
@@ -68,7 +68,7 @@ public record CrawlConfiguration(URL rootUrl, Optional<Integer> maxDepth, Set<St
             URL url = new URL(domain);
             return Optional.of(url.getHost());
         } catch (MalformedURLException e) {
-            logger.error("Malformed Domain-URL encountered: " + domain + " - " + e.getMessage());
+            logger.error("Malformed Domain-URL encountered: {} - {}", domain, e.getMessage());
             return Optional.empty();
         }
     }
@@ -0,0 +1,413 @@
+package config;
+
+import exceptions.ConfigurationException;
+import frontier.PolitenessPolicy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record CrawlerSettings(ExecutorMode executorMode, int threadPoolSize, int maxInFlightFetches,
+                              int frontierCapacity, PolitenessPolicy politeness, FetchSettings fetch,
+                              ReportMode reportMode, QueryMode queryMode, SeenUrlSettings seenUrls,
+                              Optional<Path> spillDirectory, CheckpointSettings checkpoint,
+                              MetricsSettings metrics, LoggingSettings logging,
+                              ConcurrencySettings concurrency, RetrySettings retry) {
+    public static final int DEFAULT_THREAD_POOL_SIZE = 20;
+    public static final int DEFAULT_VIRTUAL_WORKER_COUNT = 1_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT_FETCHES = 20;
+    public static final int DEFAULT_FRONTIER_CAPACITY = 10_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_HOST = 4;
+    public static final int DEFAULT_HOST_DELAY_MILLIS = 100;
+
+    public CrawlerSettings {
+        if (executorMode == null) {
+            throw new ConfigurationException("Executor mode must be provided.");
+        }
+        if (threadPoolSize < 1) {
+            throw new ConfigurationException("Thread pool size must be at least 1.");
+        }
+        if (maxInFlightFetches < 1) {
+            throw new ConfigurationException("At least one in-flight fetch must be allowed.");
+        }
+        if (frontierCapacity < 1) {
+            throw new ConfigurationException("Frontier capacity must be at least 1.");
+        }
+        if (politeness == null) {
+            throw new ConfigurationException("Politeness policy must be provided.");
+        }
+        if (fetch == null) {
+            throw new ConfigurationException("Fetch settings must be provided.");
+        }
+        if (executorMode == ExecutorMode.PIPELINE && fetch.loaderType() == PageLoaderType.JSOUP) {
+            throw new ConfigurationException("The pipeline executor requires the http-client or streaming page loader.");
+        }
+        if (executorMode == ExecutorMode.PIPELINE && fetch.recrawlStore().isPresent()) {
+            throw new ConfigurationException("Incremental recrawls are not supported by the pipeline executor.");
+        }
+        if (executorMode == ExecutorMode.PIPELINE && fetch.cache().enabled()) {
+            throw new ConfigurationException("The page cache is not supported by the pipeline executor.");
+        }
+        if (reportMode == null) {
+            throw new ConfigurationException("Report mode must be provided.");
+        }
+        if (queryMode == null) {
+            throw new ConfigurationException("Query mode must be provided.");
+        }
+        if (seenUrls == null) {
+            throw new ConfigurationException("Seen URL settings must be provided.");
+        }
+        if (spillDirectory == null) {
+            throw new ConfigurationException("Spill directory must be provided or empty.");
+        }
+        if (checkpoint == null) {
+            throw new ConfigurationException("Checkpoint settings must be provided.");
+        }
+        if (checkpoint.enabled() && reportMode == ReportMode.STREAMING) {
+            throw new ConfigurationException("Checkpoints require the buffered report mode.");
+        }
+        if (metrics == null) {
+            throw new ConfigurationException("Metrics settings must be provided.");
+        }
+        if (logging == null) {
+            throw new ConfigurationException("Logging settings must be provided.");
+        }
+        if (concurrency == null) {
+            throw new ConfigurationException("Concurrency settings must be provided.");
+        }
+        if (retry == null) {
+            throw new ConfigurationException("Retry settings must be provided.");
+        }
+        if (concurrency.adaptive() && executorMode == ExecutorMode.PIPELINE) {
+            throw new ConfigurationException("Adaptive concurrency is not supported by the pipeline executor.");
+        }
+        if (concurrency.adaptive() && maxInFlightFetches > concurrency.maxInFlight()) {
+            throw new ConfigurationException("The adaptive in-flight limit must not be below --max-in-flight.");
+        }
+        if (concurrency.adaptive() && politeness.maxInFlightPerHost() > concurrency.maxInFlightPerHost()) {
+            throw new ConfigurationException("The adaptive per-host limit must not be below --max-per-host.");
+        }
+    }
+
+    public static CrawlerSettings defaults() {
+        return new CrawlerSettings(ExecutorMode.PLATFORM, DEFAULT_THREAD_POOL_SIZE, DEFAULT_MAX_IN_FLIGHT_FETCHES,
+                DEFAULT_FRONTIER_CAPACITY, defaultPoliteness(), FetchSettings.defaults(), ReportMode.BUFFERED,
+                QueryMode.DROP, SeenUrlSettings.defaults(), Optional.empty(),
+                CheckpointSettings.disabled(), MetricsSettings.defaults(), LoggingSettings.defaults(),
+                ConcurrencySettings.fixed(), RetrySettings.defaults());
+    }
+
+    public static CrawlerSettings fromOptions(List<String> arguments) {
+        CommandLineOptions options = CommandLineOptions.parse(arguments);
+        ExecutorMode executorMode = options.enumValue("executor", ExecutorMode.class, ExecutorMode.PLATFORM);
+        ConcurrencySettings concurrency = ConcurrencySettings.fromOptions(options);
+        int defaultWorkers = executorMode == ExecutorMode.VIRTUAL ? DEFAULT_VIRTUAL_WORKER_COUNT
+                : concurrency.adaptive() ? concurrency.maxInFlight() : DEFAULT_THREAD_POOL_SIZE;
+        CrawlerSettings settings = new CrawlerSettings(
+                executorMode,
+                options.intValue("threads", defaultWorkers),
+                options.intValue("max-in-flight", DEFAULT_MAX_IN_FLIGHT_FETCHES),
+                options.intValue("frontier-capacity", DEFAULT_FRONTIER_CAPACITY),
+                createPoliteness(
+                        options.intValue("max-per-host", DEFAULT_MAX_IN_FLIGHT_PER_HOST),
+                        options.intValue("host-delay-ms", DEFAULT_HOST_DELAY_MILLIS)),
+                FetchSettings.fromOptions(options, executorMode == ExecutorMode.PIPELINE
+                        ? PageLoaderType.HTTP_CLIENT
+                        : PageLoaderType.JSOUP),
+                options.enumValue("report", ReportMode.class, ReportMode.BUFFERED),
+                options.enumValue("query", QueryMode.class, QueryMode.DROP),
+                SeenUrlSettings.fromOptions(options),
+                Optional.ofNullable(options.stringValue("spill-dir", null)).map(Path::of),
+                CheckpointSettings.fromOptions(options),
+                MetricsSettings.fromOptions(options),
+                LoggingSettings.fromOptions(options),
+                concurrency,
+                RetrySettings.fromOptions(options)
+        );
+        options.rejectUnknownOptions();
+        return settings;
+    }
+
+    private static PolitenessPolicy defaultPoliteness() {
+        return createPoliteness(DEFAULT_MAX_IN_FLIGHT_PER_HOST, DEFAULT_HOST_DELAY_MILLIS);
+    }
+
+    private static PolitenessPolicy createPoliteness(int maxInFlightPerHost, int hostDelayMillis) {
+        try {
+            return new PolitenessPolicy(maxInFlightPerHost, Duration.ofMillis(hostDelayMillis));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e.getMessage());
+        }
+    }
+
+    public CrawlerSettings withExecutorMode(ExecutorMode executorMode) {
+        return new Builder(this).executorMode(executorMode).build();
+    }
+
+    public CrawlerSettings withThreadPoolSize(int threadPoolSize) {
+        return new Builder(this).threadPoolSize(threadPoolSize).build();
+    }
+
+    public CrawlerSettings withMaxInFlightFetches(int maxInFlightFetches) {
+        return new Builder(this).maxInFlightFetches(maxInFlightFetches).build();
+    }
+
+    public CrawlerSettings withFrontierCapacity(int frontierCapacity) {
+        return new Builder(this).frontierCapacity(frontierCapacity).build();
+    }
+
+    public CrawlerSettings withPoliteness(PolitenessPolicy politeness) {
+        return new Builder(this).politeness(politeness).build();
+    }
+
+    public CrawlerSettings withFetch(FetchSettings fetch) {
+        return new Builder(this).fetch(fetch).build();
+    }
+
+    public CrawlerSettings withReportMode(ReportMode reportMode) {
+        return new Builder(this).reportMode(reportMode).build();
+    }
+
+    public CrawlerSettings withQueryMode(QueryMode queryMode) {
+        return new Builder(this).queryMode(queryMode).build();
+    }
+
+    public CrawlerSettings withSeenUrls(SeenUrlSettings seenUrls) {
+        return new Builder(this).seenUrls(seenUrls).build();
+    }
+
+    public CrawlerSettings withSpillDirectory(Optional<Path> spillDirectory) {
+        return new Builder(this).spillDirectory(spillDirectory).build();
+    }
+
+    public CrawlerSettings withCheckpoint(CheckpointSettings checkpoint) {
+        return new Builder(this).checkpoint(checkpoint).build();
+    }
+
+    public CrawlerSettings withMetrics(MetricsSettings metrics) {
+        return new Builder(this).metrics(metrics).build();
+    }
+
+    public CrawlerSettings withLogging(LoggingSettings logging) {
+        return new Builder(this).logging(logging).build();
+    }
+
+    public CrawlerSettings withConcurrency(ConcurrencySettings concurrency) {
+        return new Builder(this).concurrency(concurrency).build();
+    }
+
+    public CrawlerSettings withRetry(RetrySettings retry) {
+        return new Builder(this).retry(retry).build();
+    }
+
+    /**
+     * @return the politeness the frontier dispatches with; with adaptive concurrency a host may
+     * get up to the adaptive per-host limit in flight, which then decides how many it gets
+     */
+    public PolitenessPolicy frontierPoliteness() {
+        return concurrency.adaptive()
+                ? new PolitenessPolicy(concurrency.maxInFlightPerHost(), politeness.minDelayBetweenRequests())
+                : politeness;
+    }
+
+    /**
+     * @return how many pages may be fetched at once, by the fixed or the adaptive limit
+     */
+    public int fetchPermits() {
+        return concurrency.adaptive() ? concurrency.maxInFlight() : maxInFlightFetches;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Executor       : %s%n"
+                        + "Workers        : %d%n"
+                        + "Max In-Flight  : %d%n"
+                        + "Frontier Cap.  : %d%n"
+                        + "Per Host       : %d in flight, %d ms apart%n"
+                        + "Page Loader    : %s%n"
+                        + "Recrawl Store  : %s%n"
+                        + "Page Cache     : %s%n"
+                        + "Report         : %s%n"
+                        + "Query Strings  : %s%n"
+                        + "Seen URLs      : %s%n"
+                        + "Spill To       : %s%n"
+                        + "Checkpoints    : %s%n"
+                        + "Metrics        : %s%n"
+                        + "Progress Log   : %s%n"
+                        + "Event Log      : %s%n"
+                        + "Concurrency    : %s%n"
+                        + "Retries        : %s",
+                executorMode, threadPoolSize, maxInFlightFetches, frontierCapacity,
+                politeness.maxInFlightPerHost(), politeness.minDelayBetweenRequests().toMillis(),
+                fetch.loaderType(),
+                fetch.recrawlStore().map(Path::toString).orElse("-"),
+                fetch.cache().directory().map(Path::toString).orElse("-"),
+                reportMode, queryMode, seenUrls.mode(), spillDirectory.map(Path::toString).orElse("-"),
+                describeCheckpoints(), describeMetrics(), describeProgress(),
+                logging.eventLog().map(Path::toString).orElse("-"),
+                describeConcurrency(), describeRetries()
+        );
+    }
+
+    private String describeCheckpoints() {
+        return checkpoint.directory()
+                .map(directory -> directory + (checkpoint.resume() ? " (resuming)" : ""))
+                .orElse("-");
+    }
+
+    private String describeMetrics() {
+        String summary = metrics.periodicSummary()
+                ? "every " + metrics.summaryInterval().toSeconds() + " s"
+                : "at the end";
+        return summary + (metrics.jmx() ? ", JMX" : "");
+    }
+
+    private String describeProgress() {
+        if (logging.progress() != ProgressLogMode.SAMPLED) return "every page";
+        return "every " + logging.progressEveryPages() + " pages or " + logging.progressInterval().toSeconds() + " s";
+    }
+
+    private String describeConcurrency() {
+        if (!concurrency.adaptive()) return "fixed";
+        return "adaptive, up to " + concurrency.maxInFlight() + " in flight, "
+                + concurrency.maxInFlightPerHost() + " per host";
+    }
+
+    private String describeRetries() {
+        String retries = retry.retries()
+                ? retry.maxAttempts() + " attempts, " + retry.initialBackoff().toMillis() + " ms backoff up to "
+                + retry.maxBackoff().toMillis() + " ms"
+                : "none";
+        if (!retry.circuitBreaker()) return retries;
+        return retries + ", circuit open after " + retry.breakerFailures() + " failures for "
+                + retry.breakerOpenDuration().toSeconds() + " s";
+    }
+
+    /**
+     * Copy of a {@link CrawlerSettings} to change single components of, so the withers do not
+     * have to repeat every component.
+     */
+    private static final class Builder {
+        private ExecutorMode executorMode;
+        private int threadPoolSize;
+        private int maxInFlightFetches;
+        private int frontierCapacity;
+        private PolitenessPolicy politeness;
+        private FetchSettings fetch;
+        private ReportMode reportMode;
+        private QueryMode queryMode;
+        private SeenUrlSettings seenUrls;
+        private Optional<Path> spillDirectory;
+        private CheckpointSettings checkpoint;
+        private MetricsSettings metrics;
+        private LoggingSettings logging;
+        private ConcurrencySettings concurrency;
+        private RetrySettings retry;
+
+        private Builder(CrawlerSettings settings) {
+            this.executorMode = settings.executorMode;
+            this.threadPoolSize = settings.threadPoolSize;
+            this.maxInFlightFetches = settings.maxInFlightFetches;
+            this.frontierCapacity = settings.frontierCapacity;
+            this.politeness = settings.politeness;
+            this.fetch = settings.fetch;
+            this.reportMode = settings.reportMode;
+            this.queryMode = settings.queryMode;
+            this.seenUrls = settings.seenUrls;
+            this.spillDirectory = settings.spillDirectory;
+            this.checkpoint = settings.checkpoint;
+            this.metrics = settings.metrics;
+            this.logging = settings.logging;
+            this.concurrency = settings.concurrency;
+            this.retry = settings.retry;
+        }
+
+        Builder executorMode(ExecutorMode executorMode) {
+            this.executorMode = executorMode;
+            return this;
+        }
+
+        Builder threadPoolSize(int threadPoolSize) {
+            this.threadPoolSize = threadPoolSize;
+            return this;
+        }
+
+        Builder maxInFlightFetches(int maxInFlightFetches) {
+            this.maxInFlightFetches = maxInFlightFetches;
+            return this;
+        }
+
+        Builder frontierCapacity(int frontierCapacity) {
+            this.frontierCapacity = frontierCapacity;
+            return this;
+        }
+
+        Builder politeness(PolitenessPolicy politeness) {
+            this.politeness = politeness;
+            return this;
+        }
+
+        Builder fetch(FetchSettings fetch) {
+            this.fetch = fetch;
+            return this;
+        }
+
+        Builder reportMode(ReportMode reportMode) {
+            this.reportMode = reportMode;
+            return this;
+        }
+
+        Builder queryMode(QueryMode queryMode) {
+            this.queryMode = queryMode;
+            return this;
+        }
+
+        Builder seenUrls(SeenUrlSettings seenUrls) {
+            this.seenUrls = seenUrls;
+            return this;
+        }
+
+        Builder spillDirectory(Optional<Path> spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        Builder checkpoint(CheckpointSettings checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        Builder metrics(MetricsSettings metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        Builder logging(LoggingSettings logging) {
+            this.logging = logging;
+            return this;
+        }
+
+        Builder concurrency(ConcurrencySettings concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        Builder retry(RetrySettings retry) {
+            this.retry = retry;
+            return this;
+        }
+
+        CrawlerSettings build() {
+            return new CrawlerSettings(executorMode, threadPoolSize, maxInFlightFetches, frontierCapacity,
+                    politeness, fetch, reportMode, queryMode, seenUrls, spillDirectory, checkpoint,
+                    metrics, logging, concurrency, retry);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public enum ExecutorMode {
+    PLATFORM,
+    VIRTUAL,
+    PIPELINE
+}
@@ -0,0 +1,71 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record FetchSettings(PageLoaderType loaderType, Duration connectTimeout, Duration readTimeout,
+                            Optional<Path> recrawlStore, CacheSettings cache) {
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+    public static final int DEFAULT_READ_TIMEOUT_MILLIS = 30_000;
+
+    public FetchSettings {
+        if (loaderType == null) {
+            throw new ConfigurationException("Page loader type must be provided.");
+        }
+        if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new ConfigurationException("Connect timeout must be positive.");
+        }
+        if (readTimeout == null || readTimeout.isNegative() || readTimeout.isZero()) {
+            throw new ConfigurationException("Read timeout must be positive.");
+        }
+        if (recrawlStore == null) {
+            throw new ConfigurationException("Recrawl store must be provided or empty.");
+        }
+        if (recrawlStore.isPresent() && loaderType == PageLoaderType.JSOUP) {
+            throw new ConfigurationException("Incremental recrawls require the http-client or streaming page loader.");
+        }
+        if (cache == null) {
+            throw new ConfigurationException("Cache settings must be provided.");
+        }
+        if (cache.enabled() && recrawlStore.isPresent()) {
+            throw new ConfigurationException("The page cache cannot be combined with incremental recrawls.");
+        }
+    }
+
+    public FetchSettings withLoaderType(PageLoaderType loaderType) {
+        return new FetchSettings(loaderType, connectTimeout, readTimeout, recrawlStore, cache);
+    }
+
+    public FetchSettings withRecrawlStore(Optional<Path> recrawlStore) {
+        return new FetchSettings(loaderType, connectTimeout, readTimeout, recrawlStore, cache);
+    }
+
+    public FetchSettings withCache(CacheSettings cache) {
+        return new FetchSettings(loaderType, connectTimeout, readTimeout, recrawlStore, cache);
+    }
+
+    public static FetchSettings defaults() {
+        return new FetchSettings(PageLoaderType.JSOUP, Duration.ofMillis(DEFAULT_CONNECT_TIMEOUT_MILLIS),
+                Duration.ofMillis(DEFAULT_READ_TIMEOUT_MILLIS), Optional.empty(), CacheSettings.disabled());
+    }
+
+    static FetchSettings fromOptions(CommandLineOptions options, PageLoaderType defaultLoaderType) {
+        Optional<Path> recrawlStore = Optional.ofNullable(options.stringValue("recrawl-store", null)).map(Path::of);
+        return new FetchSettings(
+                options.enumValue("loader", PageLoaderType.class,
+                        recrawlStore.isPresent() ? PageLoaderType.HTTP_CLIENT : defaultLoaderType),
+                Duration.ofMillis(options.intValue("connect-timeout-ms", DEFAULT_CONNECT_TIMEOUT_MILLIS)),
+                Duration.ofMillis(options.intValue("read-timeout-ms", DEFAULT_READ_TIMEOUT_MILLIS)),
+                recrawlStore,
+                CacheSettings.fromOptions(options)
+        );
+    }
+}
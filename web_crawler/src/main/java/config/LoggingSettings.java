@@ -0,0 +1,61 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * @param progressEveryPages in {@link ProgressLogMode#SAMPLED} mode, a summary is logged after this many pages
+ * @param progressInterval   in {@link ProgressLogMode#SAMPLED} mode, a summary is also logged once this much time
+ *                           has passed since the last one
+ * @param eventLog           file that receives one JSON line per finished page, or empty for none
+ * @param eventLogMaxBytes   size after which the event log is rolled over
+ */
+public record LoggingSettings(ProgressLogMode progress, int progressEveryPages, Duration progressInterval,
+                              Optional<Path> eventLog, long eventLogMaxBytes) {
+    public static final int DEFAULT_PROGRESS_EVERY_PAGES = 1_000;
+    public static final int DEFAULT_PROGRESS_INTERVAL_SECONDS = 1;
+    public static final int DEFAULT_EVENT_LOG_MAX_MEGABYTES = 64;
+
+    public LoggingSettings {
+        if (progress == null) {
+            throw new ConfigurationException("Progress log mode must be provided.");
+        }
+        if (progressEveryPages < 1) {
+            throw new ConfigurationException("Progress page count must be at least 1.");
+        }
+        if (progressInterval == null || progressInterval.isNegative() || progressInterval.isZero()) {
+            throw new ConfigurationException("Progress interval must be positive.");
+        }
+        if (eventLog == null) {
+            throw new ConfigurationException("Event log file must be provided or empty.");
+        }
+        if (eventLogMaxBytes < 1) {
+            throw new ConfigurationException("Event log files must be allowed to hold at least one byte.");
+        }
+    }
+
+    public static LoggingSettings defaults() {
+        return new LoggingSettings(ProgressLogMode.EVERY_PAGE, DEFAULT_PROGRESS_EVERY_PAGES,
+                Duration.ofSeconds(DEFAULT_PROGRESS_INTERVAL_SECONDS), Optional.empty(),
+                DEFAULT_EVENT_LOG_MAX_MEGABYTES * 1024L * 1024L);
+    }
+
+    static LoggingSettings fromOptions(CommandLineOptions options) {
+        return new LoggingSettings(
+                options.enumValue("progress", ProgressLogMode.class, ProgressLogMode.EVERY_PAGE),
+                options.intValue("progress-every", DEFAULT_PROGRESS_EVERY_PAGES),
+                Duration.ofSeconds(options.intValue("progress-interval-s", DEFAULT_PROGRESS_INTERVAL_SECONDS)),
+                Optional.ofNullable(options.stringValue("event-log", null)).map(Path::of),
+                options.intValue("event-log-max-mb", DEFAULT_EVENT_LOG_MAX_MEGABYTES) * 1024L * 1024L
+        );
+    }
+}
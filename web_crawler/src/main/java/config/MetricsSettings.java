@@ -0,0 +1,38 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.time.Duration;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record MetricsSettings(Duration summaryInterval, boolean jmx) {
+    public static final int DEFAULT_SUMMARY_INTERVAL_SECONDS = 10;
+
+    public MetricsSettings {
+        if (summaryInterval == null || summaryInterval.isNegative()) {
+            throw new ConfigurationException("Metrics summary interval must not be negative.");
+        }
+    }
+
+    public static MetricsSettings defaults() {
+        return new MetricsSettings(Duration.ofSeconds(DEFAULT_SUMMARY_INTERVAL_SECONDS), false);
+    }
+
+    /**
+     * @return whether a summary line is logged periodically; a zero interval only logs it at the end
+     */
+    public boolean periodicSummary() {
+        return !summaryInterval.isZero();
+    }
+
+    static MetricsSettings fromOptions(CommandLineOptions options) {
+        return new MetricsSettings(
+                Duration.ofSeconds(options.intValue("metrics-interval-s", DEFAULT_SUMMARY_INTERVAL_SECONDS)),
+                options.flag("jmx")
+        );
+    }
+}
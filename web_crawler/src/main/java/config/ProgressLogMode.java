@@ -0,0 +1,13 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public enum ProgressLogMode {
+    /** Logs one line for every page a worker starts crawling. */
+    EVERY_PAGE,
+    /** Logs one summary line per N finished pages or per interval, whichever comes first. */
+    SAMPLED
+}
@@ -0,0 +1,15 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public enum QueryMode {
+    /** Pages differing only in their query string are the same page. */
+    DROP,
+    /** The query string is part of the page identity. */
+    KEEP,
+    /** Like KEEP, but tracking and session parameters such as utm_* are removed. */
+    FILTER
+}
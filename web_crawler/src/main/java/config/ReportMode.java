@@ -0,0 +1,13 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public enum ReportMode {
+    /** Keeps all results in memory and writes the report once the crawl has finished. */
+    BUFFERED,
+    /** Writes every page to depth-bucketed segment files as soon as it has been analyzed. */
+    STREAMING
+}
@@ -0,0 +1,70 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+import java.time.Duration;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * @param maxAttempts          how often a page is tried before it counts as failed; 1 disables retries
+ * @param initialBackoff       delay before the first retry, doubled for every further one
+ * @param maxBackoff           upper bound of the delay between two attempts
+ * @param breakerFailures      consecutive transient failures of a host after which its loads fail fast;
+ *                             0 disables the circuit breaker
+ * @param breakerOpenDuration  how long loads of a host fail fast before one is let through again
+ */
+public record RetrySettings(int maxAttempts, Duration initialBackoff, Duration maxBackoff, int breakerFailures,
+                            Duration breakerOpenDuration) {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_INITIAL_BACKOFF_MILLIS = 500;
+    public static final int DEFAULT_MAX_BACKOFF_MILLIS = 30_000;
+    public static final int DEFAULT_BREAKER_FAILURES = 5;
+    public static final int DEFAULT_BREAKER_OPEN_SECONDS = 30;
+
+    public RetrySettings {
+        if (maxAttempts < 1) {
+            throw new ConfigurationException("At least one attempt per page must be allowed.");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative() || initialBackoff.isZero()) {
+            throw new ConfigurationException("Retry backoff must be positive.");
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new ConfigurationException("Maximum retry backoff must not be below the initial backoff.");
+        }
+        if (breakerFailures < 0) {
+            throw new ConfigurationException("Circuit breaker failure count must not be negative.");
+        }
+        if (breakerOpenDuration == null || breakerOpenDuration.isNegative() || breakerOpenDuration.isZero()) {
+            throw new ConfigurationException("Circuit breaker open duration must be positive.");
+        }
+    }
+
+    public static RetrySettings defaults() {
+        return new RetrySettings(DEFAULT_MAX_ATTEMPTS, Duration.ofMillis(DEFAULT_INITIAL_BACKOFF_MILLIS),
+                Duration.ofMillis(DEFAULT_MAX_BACKOFF_MILLIS), DEFAULT_BREAKER_FAILURES,
+                Duration.ofSeconds(DEFAULT_BREAKER_OPEN_SECONDS));
+    }
+
+    public boolean retries() {
+        return maxAttempts > 1;
+    }
+
+    public boolean circuitBreaker() {
+        return breakerFailures > 0;
+    }
+
+    static RetrySettings fromOptions(CommandLineOptions options) {
+        return new RetrySettings(
+                options.intValue("max-attempts", DEFAULT_MAX_ATTEMPTS),
+                Duration.ofMillis(options.intValue("retry-backoff-ms", DEFAULT_INITIAL_BACKOFF_MILLIS)),
+                Duration.ofMillis(options.intValue("retry-max-backoff-ms", DEFAULT_MAX_BACKOFF_MILLIS)),
+                options.intValue("breaker-failures", DEFAULT_BREAKER_FAILURES),
+                Duration.ofSeconds(options.intValue("breaker-open-s", DEFAULT_BREAKER_OPEN_SECONDS))
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package config;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * How the crawler remembers which URLs it has already claimed.
+ */
+public enum SeenUrlMode {
+    /**
+     * Claimed URLs are looked up in the shared URL dictionary; never wrong, but every URL is kept.
+     */
+    EXACT,
+    /**
+     * Only a 64-bit fingerprint per URL is kept; colliding URLs would be treated as seen.
+     */
+    FINGERPRINT,
+    /**
+     * Only a Bloom filter is kept; a small share of new URLs is wrongly skipped as seen.
+     */
+    BLOOM,
+    /**
+     * A Bloom filter in front of the exact store; never wrong and reports the filter's observed
+     * false-positive rate.
+     */
+    TWO_TIER
+}
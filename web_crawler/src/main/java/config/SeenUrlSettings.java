@@ -0,0 +1,37 @@
+package config;
+
+import exceptions.ConfigurationException;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record SeenUrlSettings(SeenUrlMode mode, int expectedUrls, double falsePositiveRate) {
+    public static final int DEFAULT_EXPECTED_URLS = 100_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    public SeenUrlSettings {
+        if (mode == null) {
+            throw new ConfigurationException("Seen URL store mode must be provided.");
+        }
+        if (expectedUrls < 1) {
+            throw new ConfigurationException("Expected URL count must be at least 1.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new ConfigurationException("Bloom filter false-positive rate must be between 0 and 1.");
+        }
+    }
+
+    public static SeenUrlSettings defaults() {
+        return new SeenUrlSettings(SeenUrlMode.EXACT, DEFAULT_EXPECTED_URLS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    static SeenUrlSettings fromOptions(CommandLineOptions options) {
+        return new SeenUrlSettings(
+                options.enumValue("seen-store", SeenUrlMode.class, SeenUrlMode.EXACT),
+                options.intValue("expected-urls", DEFAULT_EXPECTED_URLS),
+                options.doubleValue("bloom-fp-rate", DEFAULT_FALSE_POSITIVE_RATE)
+        );
+    }
+}
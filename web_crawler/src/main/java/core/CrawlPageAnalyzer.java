@@ -1,9 +1,13 @@
 package core;
 
 import exceptions.PageLoadException;
+import fetch.Heading;
 import fetch.HtmlDocument;
+import fetch.PageContent;
 import fetch.PageLoader;
+import metrics.CrawlMetrics;
 import model.CrawlResult;
+import model.PageTrace;
 import org.slf4j.Logger;
 import util.CrawlLogger;
 
@@ -19,55 +23,96 @@ import java.util.function.Predicate;
 public class CrawlPageAnalyzer {
     private static final Logger logger = CrawlLogger.getLogger(CrawlPageAnalyzer.class);
     private final PageLoader fetcher;
+    private final CrawlMetrics metrics;
     private final int MAX_HEADING_LEVEL = 6;
     private final Predicate<String> isNotEmpty = text -> !text.isEmpty();
     public CrawlPageAnalyzer(PageLoader fetcher) {
+        this(fetcher, new CrawlMetrics());
+    }
+
+    public CrawlPageAnalyzer(PageLoader fetcher, CrawlMetrics metrics) {
         this.fetcher = fetcher;
+        this.metrics = metrics;
     }
 
+    /*
+        The loaders build the document while loading, so the fetch latency includes parsing the
+        markup and the parse time covers extracting headings and links from it. Both also go
+        into the trace attached to the result.
+     */
     public CrawlResult processPage(String url, int depth) {
+        PageTrace trace = new PageTrace();
+        CrawlResult page;
+        try {
+            long fetchStartedAt = System.nanoTime();
+            HtmlDocument document = fetcher.loadPage(url, trace.fetch());
+            long parseStartedAt = System.nanoTime();
+            trace.fetched(parseStartedAt - fetchStartedAt);
+            metrics.recordFetch(url, parseStartedAt - fetchStartedAt);
+            page = analyzeDocument(url, depth, document);
+            long parseNanos = System.nanoTime() - parseStartedAt;
+            trace.parsed(parseNanos);
+            metrics.recordParse(parseNanos);
+        } catch (PageLoadException e) {
+            page = failedPage(url, depth, e);
+            trace.failed(CrawlMetrics.failureType(e).getSimpleName());
+        }
+        page.trace = trace;
+        return page;
+    }
+
+    public CrawlMetrics metrics() {
+        return metrics;
+    }
+
+    public CrawlResult analyzeDocument(String url, int depth, HtmlDocument document) {
+        PageContent content = document.extractContent();
+        CrawlResult page = createPage(url, depth);
+        page.headings = formatHeadings(content.headings());
+        page.childLinks = filterValidLinks(content.links());
+        return page;
+    }
+
+    public CrawlResult failedPage(String url, int depth, Throwable error) {
+        logger.error("Failed to load or process page: {} - {}", url, error.getMessage());
+        metrics.recordFailure(error);
+        CrawlResult page = createPage(url, depth);
+        page.isFetchFailed = true;
+        page.loadError = error;
+        return page;
+    }
+
+    protected CrawlResult createPage(String url, int depth) {
         CrawlResult page = new CrawlResult();
         page.pageUrl = url;
         page.currentDepth = depth;
         page.headings = new ArrayList<>();
         page.childLinks = new ArrayList<>();
         page.isFetchFailed = false;
-
-        try {
-            HtmlDocument document = fetcher.loadPage(url);
-            page.headings = extractFormattedHeadings(document);
-            page.childLinks = extractValidLinks(document);
-        } catch (PageLoadException e) {
-            logger.error("Failed to load or process page: " + url + " - " + e.getMessage());
-            page.isFetchFailed = true;
-        }
-
         return page;
     }
 
     protected List<String> extractFormattedHeadings(HtmlDocument document) {
-        List<String> headings = new ArrayList<>();
-        for (int headingLevel = 1; headingLevel <= MAX_HEADING_LEVEL; headingLevel++) {
-            headings.addAll(extractHeadingsAtLevel(document, headingLevel));
-        }
-        return headings;
+        return formatHeadings(document.extractContent().headings());
     }
 
-    protected List<String> extractHeadingsAtLevel(HtmlDocument document, int level) {
-        String rawText = document.select("h" + level);
-        return List.of(rawText.split("\\r?\\n")).stream()
-                .map(String::trim)
-                .filter(isNotEmpty)
-                .map(text -> "h" + level + ":" + text)
+    protected List<String> formatHeadings(List<Heading> headings) {
+        return headings.stream()
+                .filter(heading -> heading.level() >= 1 && heading.level() <= MAX_HEADING_LEVEL)
+                .filter(heading -> isNotEmpty.test(heading.text().trim()))
+                .map(heading -> "h" + heading.level() + ":" + heading.text().trim())
                 .toList();
-
     }
 
     protected List<String> extractValidLinks(HtmlDocument document) {
-        return document.getLinks().stream()
+        return filterValidLinks(document.extractContent().links());
+    }
+
+    protected List<String> filterValidLinks(List<String> links) {
+        return links.stream()
                 .map(String::trim)
                 .map(String::toLowerCase)
                 .filter(isNotEmpty)
                 .toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package core;
+
+import config.LoggingSettings;
+import config.ProgressLogMode;
+import events.CrawlEventLog;
+import model.CrawlResult;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Logs crawl progress either for every page or as a sampled summary, and hands every finished
+ * page to the structured event log when one is configured.
+ * <p>
+ * In sampled mode workers only bump a counter; the worker that finishes the N-th page, or the
+ * first one after the interval has passed, logs the summary. The summary itself is the
+ * {@link metrics.CrawlMetrics#logSummary()} line, so the sampled progress and the metrics report
+ * the same numbers.
+ */
+public class CrawlProgressLogger implements AutoCloseable {
+    private static final Logger logger = CrawlLogger.getLogger(CrawlProgressLogger.class);
+
+    private final LoggingSettings settings;
+    private final Runnable summary;
+    private final LongSupplier nanoTime;
+    private final AtomicLong finishedPages = new AtomicLong();
+    private final AtomicLong lastSummaryNanos;
+    private final long intervalNanos;
+    private Optional<CrawlEventLog> eventLog = Optional.empty();
+
+    /**
+     * @param summary logs the sampled summary, usually {@link metrics.CrawlMetrics#logSummary()}
+     */
+    public CrawlProgressLogger(LoggingSettings settings, Runnable summary) {
+        this(settings, summary, System::nanoTime);
+    }
+
+    CrawlProgressLogger(LoggingSettings settings, Runnable summary, LongSupplier nanoTime) {
+        this.settings = settings;
+        this.summary = summary;
+        this.nanoTime = nanoTime;
+        this.intervalNanos = settings.progressInterval().toNanos();
+        this.lastSummaryNanos = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Opens the event log, if any; call before the first page is finished.
+     */
+    public void start() {
+        eventLog = settings.eventLog().map(file -> CrawlEventLog.open(file, settings.eventLogMaxBytes()));
+        lastSummaryNanos.set(nanoTime.getAsLong());
+    }
+
+    public void pageStarted(String url, int depth) {
+        if (settings.progress() == ProgressLogMode.EVERY_PAGE) {
+            logger.info("Crawling at {} (depth {})", url, depth);
+        }
+    }
+
+    /**
+     * @param urlId the {@link dictionary.UrlDictionary} id of the page's normalized URL
+     */
+    public void pageFinished(int urlId, CrawlResult result) {
+        long finished = finishedPages.incrementAndGet();
+        if (eventLog.isPresent()) {
+            eventLog.get().pageCrawled(urlId, result);
+        }
+        if (settings.progress() == ProgressLogMode.SAMPLED) {
+            maybeLogSummary(finished);
+        }
+    }
+
+    public long finishedPages() {
+        return finishedPages.get();
+    }
+
+    /**
+     * Writes out the remaining events; the final summary is left to the metrics, which log one
+     * when they are stopped.
+     */
+    @Override
+    public void close() {
+        eventLog.ifPresent(CrawlEventLog::close);
+    }
+
+    private void maybeLogSummary(long finished) {
+        long now = nanoTime.getAsLong();
+        long last = lastSummaryNanos.get();
+        boolean due = finished % settings.progressEveryPages() == 0 || now - last >= intervalNanos;
+        if (due && lastSummaryNanos.compareAndSet(last, now)) {
+            summary.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package core;
 
+import config.ExecutorMode;
 import org.slf4j.Logger;
 import util.CrawlLogger;
 
@@ -17,6 +18,8 @@ public class CrawlTaskExecutor {
     private final ExecutorService executor;
     private final CompletionService<Void> completionService;
     private final AtomicInteger taskCount = new AtomicInteger(0);
+    private final AtomicInteger startedTaskCount = new AtomicInteger(0);
+    private final AtomicInteger activeTaskCount = new AtomicInteger(0);
 
     public CrawlTaskExecutor(int threadPoolSize) {
         this.executor = Executors.newFixedThreadPool(threadPoolSize);
@@ -27,10 +30,41 @@ public class CrawlTaskExecutor {
         this.completionService = new ExecutorCompletionService<>(executor);
     }
 
+    public static CrawlTaskExecutor withVirtualThreads() {
+        return new CrawlTaskExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static CrawlTaskExecutor forMode(ExecutorMode mode, int threadPoolSize) {
+        return switch (mode) {
+            case PLATFORM -> new CrawlTaskExecutor(threadPoolSize);
+            case VIRTUAL -> withVirtualThreads();
+            case PIPELINE -> new CrawlTaskExecutor(1);
+        };
+    }
+
 
     public void submitTask(Callable<Void> task) {
         taskCount.incrementAndGet();
-        completionService.submit(task);
+        completionService.submit(() -> {
+            startedTaskCount.incrementAndGet();
+            activeTaskCount.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                activeTaskCount.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * @return the number of submitted tasks that are still waiting for a thread
+     */
+    public int queuedTaskCount() {
+        return taskCount.get() - startedTaskCount.get();
+    }
+
+    public int activeTaskCount() {
+        return activeTaskCount.get();
     }
 
     public void waitForAllTasksToFinish() {
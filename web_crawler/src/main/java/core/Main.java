@@ -1,17 +1,42 @@
 package core;
 
+import cache.CachingPageLoader;
+import cache.PageCache;
+import config.CacheSettings;
+import config.ConcurrencySettings;
 import config.CrawlConfiguration;
+import config.CrawlerSettings;
+import config.ExecutorMode;
+import config.FetchSettings;
+import config.PageLoaderType;
+import config.ReportMode;
+import config.RetrySettings;
+import exceptions.ConfigurationException;
+import metrics.CrawlMetrics;
 import model.CrawlResult;
+import fetch.AdaptiveConcurrencyPageLoader;
+import fetch.ConcurrencyLimitedPageLoader;
+import fetch.HttpClientPageLoader;
 import fetch.JsoupPageLoader;
+import fetch.PageLoader;
+import fetch.StreamingPageLoader;
 import org.slf4j.Logger;
+import pipeline.CrawlPipeline;
+import recrawl.PageMetadataStore;
+import recrawl.RecrawlPageLoader;
+import retry.CircuitBreakingPageLoader;
 import util.CrawlLogger;
+import util.ReportStats;
 import util.ReportWriter;
+import util.StreamingReportWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 /*
     Participants:
     - Philipp Arbeitstein [12205666]
@@ -22,19 +47,31 @@ public class Main {
     private static final int MIN_REQUIRED_ARGS = 3;
     private static final int MIN_DEPTH = 0;
     private static final String REPORT_FILENAME = "report.md";
-    private static final int THREAD_POOL_SIZE = 20;
 
     public static void main(String[] args) {
         if (args.length < MIN_REQUIRED_ARGS) {
-            logger.info("Correct Usage: <StartURL> <depth> <domain1,domain2,...>");
+            logger.info("Correct Usage: <StartURL> <depth> <domain1,domain2,...> [--executor=platform|virtual|pipeline] [--threads=N] [--max-in-flight=N] [--frontier-capacity=N] [--max-per-host=N] [--host-delay-ms=N]"
+                    + " [--loader=jsoup|http-client|streaming] [--connect-timeout-ms=N] [--read-timeout-ms=N] [--recrawl-store=PATH] [--cache-dir=PATH] [--cache-max-mb=N] [--cache-ttl-s=N] [--report=buffered|streaming] [--query=drop|keep|filter]"
+                    + " [--seen-store=exact|fingerprint|bloom|two-tier] [--expected-urls=N] [--bloom-fp-rate=R] [--spill-dir=PATH]"
+                    + " [--checkpoint-dir=PATH] [--checkpoint-interval-s=N] [--resume] [--metrics-interval-s=N] [--jmx]"
+                    + " [--progress=every-page|sampled] [--progress-every=N] [--progress-interval-s=N] [--event-log=PATH] [--event-log-max-mb=N]"
+                    + " [--concurrency=fixed|adaptive] [--adaptive-max-in-flight=N] [--adaptive-max-per-host=N]"
+                    + " [--max-attempts=N] [--retry-backoff-ms=N] [--retry-max-backoff-ms=N] [--breaker-failures=N] [--breaker-open-s=N]");
             return;
         }
 
         Optional<CrawlConfiguration> config = createCrawlConfiguration(args);
         if (config.isEmpty()) return;
 
-        List<CrawlResult> crawlResults = runCrawl(config.get());
-        writeReport(crawlResults, config.get());
+        Optional<CrawlerSettings> settings = createCrawlerSettings(args);
+        if (settings.isEmpty()) return;
+
+        if (settings.get().reportMode() == ReportMode.STREAMING) {
+            runStreamingCrawl(config.get(), settings.get());
+        } else {
+            List<CrawlResult> crawlResults = runCrawl(config.get(), settings.get());
+            writeReport(crawlResults, config.get());
+        }
     }
 
     protected static Optional<CrawlConfiguration> createCrawlConfiguration(String[] args) {
@@ -50,6 +87,16 @@ public class Main {
         return Optional.of(createConfiguration(rootUrl.get(), maxDepth, allowedDomains));
     }
 
+    protected static Optional<CrawlerSettings> createCrawlerSettings(String[] args) {
+        List<String> options = Arrays.asList(args).subList(MIN_REQUIRED_ARGS, args.length);
+        try {
+            return Optional.of(CrawlerSettings.fromOptions(options));
+        } catch (ConfigurationException e) {
+            logger.error("Invalid crawler option: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     private static Optional<URL> extractRootUrl(String rootUrlFromArguments) {
         if (rootUrlFromArguments == null || rootUrlFromArguments.isBlank()) {
             logger.error("No start URL provided. Please provide at least one.");
@@ -65,7 +112,7 @@ public class Main {
         try {
             return Optional.of(new URL(cleanedUrl));
         } catch (MalformedURLException e) {
-            logger.error("Invalid root URL: %s%n", cleanedUrl);
+            logger.error("Invalid root URL: {}", cleanedUrl);
             return Optional.empty();
         }
     }
@@ -111,28 +158,130 @@ public class Main {
             return new CrawlConfiguration(rootUrl, maxDepth, allowedDomains);
         } catch (IllegalArgumentException e) {
             logger.error("Error creating CrawlConfiguration:");
-            logger.error("  Root URL       : " + rootUrl);
-            logger.error("  Max Depth      : " + maxDepth);
-            logger.error("  Allowed Domains: " + allowedDomains);
-            logger.error("  Reason         : " + e.getMessage());
+            logger.error("  Root URL       : {}", rootUrl);
+            logger.error("  Max Depth      : {}", maxDepth);
+            logger.error("  Allowed Domains: {}", allowedDomains);
+            logger.error("  Reason         : {}", e.getMessage());
             throw e;
         }
     }
 
-    protected static List<CrawlResult> runCrawl(CrawlConfiguration config) {
+    protected static List<CrawlResult> runCrawl(CrawlConfiguration config, CrawlerSettings settings) {
+        return runCrawl(config, settings, null);
+    }
+
+    protected static void runStreamingCrawl(CrawlConfiguration config, CrawlerSettings settings) {
+        StreamingReportWriter writer = new StreamingReportWriter(REPORT_FILENAME, config.rootUrl());
+        runCrawl(config, settings, writer);
+        ReportStats stats = writer.finish();
+        logger.info("Report written to {} ({} lines, {} bytes)", REPORT_FILENAME, stats.lines(), stats.bytes());
+    }
+
+    private static List<CrawlResult> runCrawl(CrawlConfiguration config, CrawlerSettings settings,
+                                              Consumer<CrawlResult> pageListener) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         String timestamp = LocalDateTime.now().format(formatter);
 
-        logger.info("[" + timestamp + "] Starting crawl");
-        logger.info(config.toString());
+        logger.info("[{}] Starting crawl", timestamp);
+        logger.info("{}", config);
+        logger.info("{}", settings);
+
+        CrawlMetrics metrics = new CrawlMetrics(settings.metrics());
+        FetchSettings fetch = settings.fetch();
+        Optional<RecrawlPageLoader> recrawlLoader = createRecrawlPageLoader(fetch, metrics::recordDownloadedBytes);
+        Optional<CachingPageLoader> cachingLoader = createCachingPageLoader(fetch, metrics::recordDownloadedBytes);
+        Optional<AdaptiveConcurrencyPageLoader> adaptiveLoader = Optional.empty();
+        Optional<CircuitBreakingPageLoader> circuitBreaker = Optional.empty();
+        WebCrawler crawler;
+        if (settings.executorMode() == ExecutorMode.PIPELINE) {
+            crawler = createPipelinedCrawler(config, settings, pageListener, metrics);
+        } else {
+            PageLoader fetcher = recrawlLoader.<PageLoader>map(loader -> loader)
+                    .or(() -> cachingLoader.map(loader -> loader))
+                    .orElseGet(() -> createPageLoader(fetch, metrics::recordDownloadedBytes));
+            adaptiveLoader = createAdaptivePageLoader(fetcher, settings);
+            PageLoader pageLoader = adaptiveLoader.<PageLoader>map(loader -> loader)
+                    .orElseGet(() -> new ConcurrencyLimitedPageLoader(fetcher, settings.maxInFlightFetches()));
+            circuitBreaker = createCircuitBreaker(pageLoader, settings.retry());
+            crawler = createCrawler(config, settings, circuitBreaker.<PageLoader>map(loader -> loader).orElse(pageLoader),
+                    pageListener, metrics);
+        }
+        List<CrawlResult> results = crawler.crawl();
+        recrawlLoader.ifPresent(RecrawlPageLoader::saveMetadata);
+        cachingLoader.ifPresent(CachingPageLoader::close);
+        adaptiveLoader.ifPresent(AdaptiveConcurrencyPageLoader::logLimits);
+        circuitBreaker.ifPresent(CircuitBreakingPageLoader::logSummary);
+        return results;
+    }
+
+    private static WebCrawler createCrawler(CrawlConfiguration config, CrawlerSettings settings, PageLoader pageLoader,
+                                            Consumer<CrawlResult> pageListener, CrawlMetrics metrics) {
+        return new WebCrawler(config, new CrawlPageAnalyzer(pageLoader, metrics), settings, null, pageListener, metrics);
+    }
+
+    /**
+     * Wraps the concurrency limit, so loads of a host with an open circuit fail without waiting for a permit
+     */
+    protected static Optional<CircuitBreakingPageLoader> createCircuitBreaker(PageLoader pageLoader,
+                                                                              RetrySettings retry) {
+        if (!retry.circuitBreaker()) return Optional.empty();
+        return Optional.of(new CircuitBreakingPageLoader(pageLoader, retry.breakerFailures(), retry.breakerOpenDuration()));
+    }
+
+    protected static Optional<AdaptiveConcurrencyPageLoader> createAdaptivePageLoader(PageLoader fetcher,
+                                                                                      CrawlerSettings settings) {
+        ConcurrencySettings concurrency = settings.concurrency();
+        if (!concurrency.adaptive()) return Optional.empty();
+        return Optional.of(new AdaptiveConcurrencyPageLoader(fetcher,
+                settings.maxInFlightFetches(), concurrency.maxInFlight(),
+                settings.politeness().maxInFlightPerHost(), concurrency.maxInFlightPerHost()));
+    }
+
+    private static WebCrawler createPipelinedCrawler(CrawlConfiguration config, CrawlerSettings settings,
+                                                     Consumer<CrawlResult> pageListener, CrawlMetrics metrics) {
+        HttpClientPageLoader pageLoader = createHttpClientPageLoader(settings.fetch(), metrics::recordDownloadedBytes);
+        CrawlPageAnalyzer analyzer = new CrawlPageAnalyzer(pageLoader, metrics);
+        CrawlPipeline pipeline = new CrawlPipeline(pageLoader, pageLoader, analyzer, settings.maxInFlightFetches());
+        return new WebCrawler(config, analyzer, settings, pipeline, pageListener, metrics);
+    }
+
+    protected static PageLoader createPageLoader(FetchSettings fetchSettings, LongConsumer downloadListener) {
+        return switch (fetchSettings.loaderType()) {
+            case JSOUP -> new JsoupPageLoader(downloadListener);
+            case HTTP_CLIENT, STREAMING -> createHttpClientPageLoader(fetchSettings, downloadListener);
+        };
+    }
+
+    protected static Optional<RecrawlPageLoader> createRecrawlPageLoader(FetchSettings fetchSettings,
+                                                                         LongConsumer downloadListener) {
+        return fetchSettings.recrawlStore().map(file -> new RecrawlPageLoader(
+                createHttpClientPageLoader(fetchSettings, downloadListener), PageMetadataStore.open(file)));
+    }
+
+    protected static Optional<CachingPageLoader> createCachingPageLoader(FetchSettings fetchSettings,
+                                                                         LongConsumer downloadListener) {
+        CacheSettings cacheSettings = fetchSettings.cache();
+        return cacheSettings.directory().map(directory -> {
+            PageCache cache = PageCache.open(directory, cacheSettings.maxBytes(), cacheSettings.defaultTimeToLive());
+            if (fetchSettings.loaderType() == PageLoaderType.JSOUP) {
+                JsoupPageLoader loader = new JsoupPageLoader(downloadListener);
+                return new CachingPageLoader(loader, loader, cache);
+            }
+            HttpClientPageLoader loader = createHttpClientPageLoader(fetchSettings, downloadListener);
+            return new CachingPageLoader(loader, loader, cache);
+        });
+    }
 
-        WebCrawler crawler = new WebCrawler(config, new CrawlPageAnalyzer(new JsoupPageLoader()), THREAD_POOL_SIZE);
-        return crawler.crawl();
+    protected static HttpClientPageLoader createHttpClientPageLoader(FetchSettings fetchSettings,
+                                                                     LongConsumer downloadListener) {
+        return fetchSettings.loaderType() == PageLoaderType.STREAMING
+                ? new StreamingPageLoader(fetchSettings.connectTimeout(), fetchSettings.readTimeout(), downloadListener)
+                : new HttpClientPageLoader(fetchSettings.connectTimeout(), fetchSettings.readTimeout(), downloadListener);
     }
 
     protected static void writeReport(List<CrawlResult> results, CrawlConfiguration config) {
         ReportWriter writer = new ReportWriter(REPORT_FILENAME);
-        writer.writeReport(results, config.rootUrl());
-        logger.info("Report written to " + REPORT_FILENAME);
+        ReportStats stats = writer.writeReport(results, config.rootUrl());
+        logger.info("Report written to {} ({} lines, {} bytes)", REPORT_FILENAME, stats.lines(), stats.bytes());
     }
 }
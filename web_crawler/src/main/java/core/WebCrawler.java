@@ -1,15 +1,34 @@
 package core;
 
+import checkpoint.Checkpointer;
+import checkpoint.CrawlSnapshot;
+import config.CheckpointSettings;
 import config.CrawlConfiguration;
+import config.CrawlerSettings;
+import dictionary.UrlDictionary;
+import dictionary.UrlIdList;
+import dictionary.UrlIdSet;
+import exceptions.ConfigurationException;
+import frontier.FrontierEntry;
+import frontier.UrlFrontier;
+import metrics.CrawlGauges;
+import metrics.CrawlMetrics;
 import model.CrawlResult;
+import model.CrawlResultIndex;
+import model.PageTrace;
 import org.slf4j.Logger;
+import pipeline.CrawlPipeline;
+import retry.RetryPolicy;
 import util.CrawlLogger;
+import util.UrlCanonicalizer;
 import util.WebCrawlerUtils;
+import visited.SeenUrlStore;
 
 import java.net.URL;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /*
     Participants:
@@ -19,116 +38,292 @@ import java.util.function.Predicate;
 public class WebCrawler {
     private static final Logger logger = CrawlLogger.getLogger(WebCrawler.class);
     private final CrawlConfiguration config;
-    private final Set<String> visitedPages;
-    private final List<CrawlResult> resultsList;
+    private final UrlDictionary urlDictionary;
+    private final SeenUrlStore visitedUrls;
+    private final CrawlResultIndex results;
     private final CrawlPageAnalyzer crawlPageAnalyzer;
     private final CrawlTaskExecutor crawlTaskExecutor;
+    private final UrlFrontier frontier;
+    private final int workerCount;
+    private final Optional<Semaphore> fetchPermits;
+    private final Optional<CrawlPipeline> pipeline;
+    private final Optional<Consumer<CrawlResult>> pageListener;
+    private final UrlCanonicalizer canonicalizer;
+    private final CheckpointSettings checkpointSettings;
+    private final Optional<Checkpointer> checkpointer;
+    private final CrawlMetrics metrics;
+    private final CrawlProgressLogger progressLogger;
+    private final RetryPolicy retryPolicy;
 
     public WebCrawler(CrawlConfiguration config, CrawlPageAnalyzer crawlPageAnalyzer, int threadPoolSize) {
+        this(config, crawlPageAnalyzer, CrawlerSettings.defaults().withThreadPoolSize(threadPoolSize));
+    }
+
+    public WebCrawler(CrawlConfiguration config, CrawlPageAnalyzer crawlPageAnalyzer, CrawlerSettings settings) {
+        this(config, crawlPageAnalyzer, settings, null);
+    }
+
+    public WebCrawler(CrawlConfiguration config, CrawlPageAnalyzer crawlPageAnalyzer, CrawlerSettings settings,
+                      CrawlPipeline pipeline) {
+        this(config, crawlPageAnalyzer, settings, pipeline, null);
+    }
+
+    /**
+     * @param pageListener receives every finished page instead of the crawler keeping it; crawl()
+     *                     then returns an empty list. May be null to keep all results in memory.
+     */
+    public WebCrawler(CrawlConfiguration config, CrawlPageAnalyzer crawlPageAnalyzer, CrawlerSettings settings,
+                      CrawlPipeline pipeline, Consumer<CrawlResult> pageListener) {
+        this(config, crawlPageAnalyzer, settings, pipeline, pageListener, new CrawlMetrics(settings.metrics()));
+    }
+
+    /**
+     * @param metrics the metrics the page analyzer and the page loader record into; the crawler
+     *                adds the page count and reports them while crawling
+     */
+    public WebCrawler(CrawlConfiguration config, CrawlPageAnalyzer crawlPageAnalyzer, CrawlerSettings settings,
+                      CrawlPipeline pipeline, Consumer<CrawlResult> pageListener, CrawlMetrics metrics) {
         this.config = config;
-        this.visitedPages = ConcurrentHashMap.newKeySet();
-        this.resultsList = Collections.synchronizedList(new ArrayList<>());
+        this.urlDictionary = new UrlDictionary();
+        this.visitedUrls = SeenUrlStore.forSettings(settings.seenUrls(), urlDictionary);
+        this.results = new CrawlResultIndex(urlDictionary);
         this.crawlPageAnalyzer = crawlPageAnalyzer;
-        this.crawlTaskExecutor = new CrawlTaskExecutor(threadPoolSize);
+        this.crawlTaskExecutor = CrawlTaskExecutor.forMode(settings.executorMode(), settings.threadPoolSize());
+        this.frontier = new UrlFrontier(settings.frontierCapacity(), visitedUrls, settings.frontierPoliteness(),
+                settings.spillDirectory());
+        this.workerCount = settings.threadPoolSize();
+        this.fetchPermits = workerCount > settings.fetchPermits()
+                ? Optional.of(new Semaphore(settings.fetchPermits()))
+                : Optional.empty();
+        this.pipeline = Optional.ofNullable(pipeline);
+        this.pageListener = Optional.ofNullable(pageListener);
+        this.canonicalizer = UrlCanonicalizer.forMode(settings.queryMode());
+        this.checkpointSettings = settings.checkpoint();
+        this.checkpointer = checkpointSettings.directory().map(directory ->
+                new Checkpointer(directory, checkpointSettings.interval(), config.rootUrl(), results::snapshot));
+        this.metrics = metrics;
+        this.progressLogger = new CrawlProgressLogger(settings.logging(), metrics::logSummary);
+        this.retryPolicy = new RetryPolicy(settings.retry().maxAttempts(), settings.retry().initialBackoff(),
+                settings.retry().maxBackoff());
     }
 
     protected List<CrawlResult> crawl() {
-        submitCrawlTask(config.rootUrl().toString(), 0, config.rootUrl());
+        if (!resumeFromCheckpoint()) {
+            seedFrontier(config.rootUrl());
+        }
+        checkpointer.ifPresent(Checkpointer::start);
+        metrics.start(new CrawlGauges(frontier::size, visitedUrls::size,
+                crawlTaskExecutor::queuedTaskCount, crawlTaskExecutor::activeTaskCount));
+        progressLogger.start();
+        pipeline.ifPresent(CrawlPipeline::start);
+        if (pipeline.isPresent()) {
+            crawlTaskExecutor.submitTask(() -> runPipelineDispatcher(pipeline.get()));
+        } else {
+            for (int worker = 0; worker < workerCount; worker++) {
+                crawlTaskExecutor.submitTask(this::runWorker);
+            }
+        }
         crawlTaskExecutor.waitForAllTasksToFinish();
         crawlTaskExecutor.shutdown();
-        return resultsList;
+        frontier.close();
+        checkpointer.ifPresent(Checkpointer::close);
+        pipeline.ifPresent(CrawlPipeline::logStageStats);
+        pipeline.ifPresent(CrawlPipeline::shutdown);
+        progressLogger.close();
+        retryPolicy.logSummary();
+        metrics.stop();
+        logger.info("Crawl finished, {} unique URLs discovered, {} duplicate fetches prevented",
+                visitedUrls.size(), visitedUrls.preventedDuplicateCount());
+        visitedUrls.falsePositiveRate().ifPresent(rate ->
+                logger.info("Seen URL Bloom filter false-positive rate: {}", String.format("%.4f%%", rate * 100)));
+        logger.info("URL dictionary holds {} URLs in {} bytes across {} hosts",
+                urlDictionary.size(), urlDictionary.storedBytes(), urlDictionary.prefixCount());
+        return results.orderedByDepth();
     }
 
-    protected void submitCrawlTask(String url, int depth, URL rootStartUrl) {
-        crawlTaskExecutor.submitTask(() -> {
-            crawlRecursively(url, depth, rootStartUrl);
-            return null;
-        });
+    protected void seedFrontier(URL rootUrl) {
+        String url = rootUrl.toString();
+        canonicalizer.canonicalize(url)
+                .filter(normalizedUrl -> isValidUrlForCrawl(normalizedUrl, 0))
+                .ifPresent(normalizedUrl -> frontier.enqueue(new FrontierEntry(url, normalizedUrl, 0)));
     }
 
-    protected void crawlRecursively(String url, int currentDepth, URL rootStartUrl) {
-        if (!canCrawl(url, currentDepth, rootStartUrl)) {
-            return;
+    /**
+     * Records the pages of the latest checkpoint as finished and queues every link on them that
+     * has not been crawled yet, which rebuilds the visited set and the frontier as they were.
+     *
+     * @return false if resuming was not requested or there is no checkpoint yet
+     */
+    protected boolean resumeFromCheckpoint() {
+        if (!checkpointSettings.resume()) return false;
+        Optional<CrawlSnapshot> snapshot = Checkpointer.latest(checkpointSettings.directory().orElseThrow());
+        if (snapshot.isEmpty()) {
+            logger.info("No checkpoint found in {}, starting a new crawl", checkpointSettings.directory().get());
+            return false;
+        }
+        if (!snapshot.get().rootUrl().toString().equals(config.rootUrl().toString())) {
+            throw new ConfigurationException("The checkpoint was written for a crawl of " + snapshot.get().rootUrl());
         }
 
-        markUrlAsVisited(url);
-        logCrawlingProgress(url, currentDepth);
+        List<CrawlResult> pages = new ArrayList<>(snapshot.get().pages());
+        pages.removeIf(page -> page.pageUrl == null);
+        for (CrawlResult page : pages) {
+            String normalizedUrl = canonicalizer.canonicalize(page.pageUrl).orElse(page.pageUrl);
+            visitedUrls.claim(normalizedUrl);
+            page.parentUrls = UrlIdSet.copyOf(urlDictionary, page.parentUrls);
+            results.record(normalizedUrl, page);
+        }
+        pages.sort(Comparator.comparingInt(page -> page.currentDepth));
+        for (CrawlResult page : pages) {
+            handleChildLinks(page, page.currentDepth + 1, config.rootUrl());
+        }
+        logger.info("Resumed from checkpoint of {}: {} pages done, {} pending", snapshot.get().createdAt(),
+                pages.size(), frontier.size());
+        return !pages.isEmpty();
+    }
 
-        CrawlResult result = processPage(url, currentDepth, rootStartUrl);
-        handleChildLinks(result, currentDepth + 1, rootStartUrl);
+    /**
+     * With more workers than fetches allowed in flight, a worker only takes an entry once it holds
+     * a fetch permit, so workers waiting to fetch do not hold an entry and its host's slot.
+     */
+    protected Void runWorker() {
+        while (acquireFetchPermit()) {
+            try {
+                Optional<FrontierEntry> next = frontier.take();
+                if (next.isEmpty()) return null;
+                FrontierEntry entry = next.get();
+                try {
+                    crawlPage(entry, config.rootUrl());
+                } catch (RuntimeException e) {
+                    logger.error("Crawling {} failed.", entry.url(), e);
+                } finally {
+                    frontier.complete(entry);
+                }
+            } finally {
+                fetchPermits.ifPresent(Semaphore::release);
+            }
+        }
+        return null;
     }
 
-    protected boolean canCrawl(String url, int currentDepth, URL rootStartUrl) {
-        Optional<String> normalizedUrlOpt = WebCrawlerUtils.normalizeUrl(url);
-        if (normalizedUrlOpt.isEmpty()) {
+    private boolean acquireFetchPermit() {
+        if (fetchPermits.isEmpty()) return true;
+        try {
+            fetchPermits.get().acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return false;
         }
+    }
 
-        String normalizedUrl = normalizedUrlOpt.get();
-        return isValidUrlForCrawl(url, currentDepth) && !handleAlreadyVisited(normalizedUrl, rootStartUrl);
+    protected Void runPipelineDispatcher(CrawlPipeline crawlPipeline) {
+        Optional<FrontierEntry> next;
+        while ((next = frontier.take()).isPresent()) {
+            FrontierEntry entry = next.get();
+            logCrawlingProgress(entry.url(), entry.depth());
+            try {
+                PageTrace trace = new PageTrace();
+                trace.queued(entry.queueWaitNanos(System.nanoTime()));
+                crawlPipeline.submit(entry.url(), entry.depth(), trace,
+                                result -> handlePipelineResult(result, entry, config.rootUrl()))
+                        .whenComplete((ignored, error) -> {
+                            if (error != null) logger.error("Crawling {} failed.", entry.url(), error);
+                            frontier.complete(entry);
+                        });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                frontier.complete(entry);
+                break;
+            }
+        }
+        return null;
     }
 
+    protected void handlePipelineResult(CrawlResult result, FrontierEntry entry, URL rootStartUrl) {
+        if (retryLater(entry, result)) return;
+        storePage(result, entry.normalizedUrl(), rootStartUrl);
+        handleChildLinks(result, result.currentDepth + 1, rootStartUrl);
+    }
 
-    protected void markUrlAsVisited(String url) {
-        Optional<String> normalizedUrlOpt = WebCrawlerUtils.normalizeUrl(url);
-        normalizedUrlOpt.ifPresent(this::markPageAsVisited);
+    protected void crawlPage(String url, int currentDepth, URL rootStartUrl) {
+        crawlPage(new FrontierEntry(url, canonicalizer.canonicalize(url).orElse(url), currentDepth), rootStartUrl);
     }
 
-    protected CrawlResult processPage(String url, int depth, URL parentUrl) {
-        return processAndStorePage(url, depth, parentUrl);
+    protected void crawlPage(FrontierEntry entry, URL rootStartUrl) {
+        logCrawlingProgress(entry.url(), entry.depth());
+
+        long startedAt = System.nanoTime();
+        CrawlResult result = crawlPageAnalyzer.processPage(entry.url(), entry.depth());
+        if (result.trace != null) result.trace.queued(entry.queueWaitNanos(startedAt));
+        if (retryLater(entry, result)) return;
+        storePage(result, entry.normalizedUrl(), rootStartUrl);
+        handleChildLinks(result, entry.depth() + 1, rootStartUrl);
+    }
+
+    /**
+     * Hands a page that failed transiently back to the frontier to be tried again after a backoff,
+     * instead of storing it as failed
+     *
+     * @return whether the page will be retried
+     */
+    protected boolean retryLater(FrontierEntry entry, CrawlResult result) {
+        if (!result.isFetchFailed) {
+            retryPolicy.succeeded(entry.normalizedUrl());
+            return false;
+        }
+        if (result.loadError == null) return false;
+        OptionalLong delay = retryPolicy.retryDelayNanos(entry.normalizedUrl(), result.loadError);
+        if (delay.isEmpty()) return false;
+        logger.info("Retrying {} in {} ms", entry.url(), TimeUnit.NANOSECONDS.toMillis(delay.getAsLong()));
+        frontier.enqueueDelayed(entry, delay.getAsLong());
+        return true;
     }
 
     protected void handleChildLinks(CrawlResult result, int nextDepth, URL rootUrl) {
         if (!shouldSkipChildLinks(result)) {
-            submitChildLinks(result.childLinks, nextDepth, rootUrl);
+            result.childLinks = submitChildLinks(result.childLinks, nextDepth, rootUrl);
         }
     }
 
-    protected boolean isValidUrlForCrawl(String url, int currentDepth) {
-        if (url.isEmpty()) return false;
+    /**
+     * @param normalizedUrl a URL already in canonical form; it is not parsed again
+     */
+    protected boolean isValidUrlForCrawl(String normalizedUrl, int currentDepth) {
+        if (normalizedUrl.isEmpty()) return false;
 
-        Optional<String> normalizedOpt = WebCrawlerUtils.normalizeUrl(url);
+        boolean withinDepth = config.maxDepth()
+                .map(max -> currentDepth <= max)
+                .orElse(true);
 
-        Predicate<String> depthCheck = normalized ->
-                config.maxDepth()
-                        .map(max -> currentDepth <= max)
-                        .orElse(true);
-
-        return normalizedOpt
-                .filter(normalized -> WebCrawlerUtils.isDomainAllowed(normalized, config.crawlableDomains()))
-                .filter(depthCheck)
-                .isPresent();
-    }
-
-    protected boolean handleAlreadyVisited(String normalizedUrl, URL rootUrl) {
-        if (!visitedPages.contains(normalizedUrl)) return false;
-        addStartUrlToExistingPage(normalizedUrl, rootUrl);
-        return true;
+        return withinDepth && WebCrawlerUtils.isDomainAllowed(normalizedUrl, config.crawlableDomains());
     }
 
     protected void addStartUrlToExistingPage(String normalizedUrl, URL rootStartUrl) {
-        synchronized (resultsList) {
-            for (CrawlResult result : resultsList) {
-                if (normalizedUrl.equals(WebCrawlerUtils.normalizeUrl(result.pageUrl))) {
-                    result.parentUrls.add(rootStartUrl);
-                    break;
-                }
-            }
-        }
-    }
-
-    protected void markPageAsVisited(String normalizedUrl) {
-        visitedPages.add(normalizedUrl);
+        results.addParentUrl(normalizedUrl, rootStartUrl);
     }
 
     protected void logCrawlingProgress(String url, int depth) {
-        logger.info("Crawling at {} (depth {})", url, depth);
+        progressLogger.pageStarted(url, depth);
     }
 
     protected CrawlResult processAndStorePage(String url, int depth, URL parentUrl) {
         CrawlResult result = crawlPageAnalyzer.processPage(url, depth);
+        return storePage(result, canonicalizer.canonicalize(url).orElse(url), parentUrl);
+    }
+
+    protected CrawlResult storePage(CrawlResult result, String normalizedUrl, URL parentUrl) {
+        metrics.recordPage();
+        progressLogger.pageFinished(urlDictionary.intern(normalizedUrl), result);
+        result.trace = null;
+        result.loadError = null;
         result.parentUrls.add(parentUrl);
-        resultsList.add(result);
+        if (pageListener.isPresent()) {
+            pageListener.get().accept(result);
+        } else {
+            result.parentUrls = UrlIdSet.copyOf(urlDictionary, result.parentUrls);
+            results.record(normalizedUrl, result);
+        }
         return result;
     }
 
@@ -136,11 +331,31 @@ public class WebCrawler {
         return result.isFetchFailed || result.childLinks == null;
     }
 
-    protected void submitChildLinks(List<String> links, int nextDepth, URL rootUrl) {
+    /**
+     * In a pipelined crawl the links overshoot a full frontier instead of waiting for space: they
+     * are submitted from the extract threads, which the only consumer, the dispatcher, waits for.
+     *
+     * @return the canonical form of every link as dictionary ids, replacing the separate string copies
+     */
+    protected UrlIdList submitChildLinks(List<String> links, int nextDepth, URL rootUrl) {
+        List<FrontierEntry> entries = new ArrayList<>();
+        int[] linkIds = new int[links.size()];
+        int linkCount = 0;
         for (String link : links) {
-            Optional<String> normalizedLinkOpt = WebCrawlerUtils.normalizeUrl(link);
-            normalizedLinkOpt.ifPresent(normalizedLink -> submitCrawlTask(normalizedLink, nextDepth, rootUrl));
+            Optional<String> normalized = canonicalizer.canonicalize(link);
+            if (normalized.isEmpty()) continue;
+
+            String normalizedLink = normalized.get();
+            linkIds[linkCount++] = urlDictionary.intern(normalizedLink);
+            if (isValidUrlForCrawl(normalizedLink, nextDepth)) {
+                entries.add(new FrontierEntry(normalizedLink, normalizedLink, nextDepth));
+            }
+        }
+
+        for (FrontierEntry duplicate : frontier.enqueueAll(entries, pipeline.isEmpty())) {
+            addStartUrlToExistingPage(duplicate.normalizedUrl(), rootUrl);
         }
+        return new UrlIdList(urlDictionary, Arrays.copyOf(linkIds, linkCount));
     }
 }
 
@@ -0,0 +1,241 @@
+package dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Assigns every distinct URL a dense int id and stores it once, compactly.
+ * <p>
+ * A URL is split into its prefix ({@code scheme://host[:port]}), which is shared through a small
+ * table, and the remainder, which is appended as UTF-8 bytes to large byte chunks. Per id only a
+ * handful of primitives are kept; the id lookup is an open-addressing table of ints. Lookups of
+ * ASCII URLs do not allocate.
+ * <p>
+ * Reads run in parallel under a read lock; interning a new URL takes the write lock.
+ */
+public class UrlDictionary {
+    public static final int NOT_FOUND = -1;
+
+    static final int CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> prefixIds = new HashMap<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int chunkPosition = CHUNK_SIZE;
+    private long storedBytes = 0;
+
+    private long[] locations = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] prefixOf = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int size = 0;
+
+    /**
+     * @return the id of the URL, adding it to the dictionary if it is not known yet
+     */
+    public int intern(String url) {
+        int hash = hash(url);
+        int prefixEnd = prefixEnd(url);
+        lock.readLock().lock();
+        try {
+            int id = find(url, prefixEnd, hash);
+            if (id != NOT_FOUND) return id;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            int id = find(url, prefixEnd, hash);
+            return id != NOT_FOUND ? id : add(url, prefixEnd, hash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the id of the URL, or {@link #NOT_FOUND} if it has never been interned
+     */
+    public int idOf(String url) {
+        lock.readLock().lock();
+        try {
+            return find(url, prefixEnd(url), hash(url));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String url(int id) {
+        lock.readLock().lock();
+        try {
+            checkId(id);
+            long location = locations[id];
+            byte[] chunk = chunks.get((int) (location >>> 32));
+            return prefixes.get(prefixOf[id]) + new String(chunk, (int) location, lengths[id], StandardCharsets.UTF_8);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int prefixCount() {
+        lock.readLock().lock();
+        try {
+            return prefixes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of UTF-8 bytes stored for the URL remainders, excluding shared prefixes
+     */
+    public long storedBytes() {
+        lock.readLock().lock();
+        try {
+            return storedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int find(String url, int prefixEnd, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) return NOT_FOUND;
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(id, url, prefixEnd)) return id;
+        }
+    }
+
+    private boolean matches(int id, String url, int prefixEnd) {
+        String prefix = prefixes.get(prefixOf[id]);
+        if (prefix.length() != prefixEnd || !url.startsWith(prefix)) return false;
+
+        long location = locations[id];
+        byte[] chunk = chunks.get((int) (location >>> 32));
+        int offset = (int) location;
+        int length = lengths[id];
+        int remainderLength = url.length() - prefixEnd;
+        // UTF-8 never needs fewer bytes than there are chars
+        if (remainderLength > length) return false;
+
+        for (int i = 0; i < remainderLength; i++) {
+            char c = url.charAt(prefixEnd + i);
+            if (c >= 0x80) {
+                byte[] encoded = url.substring(prefixEnd).getBytes(StandardCharsets.UTF_8);
+                return Arrays.equals(encoded, 0, encoded.length, chunk, offset, offset + length);
+            }
+            if (chunk[offset + i] != (byte) c) return false;
+        }
+        return remainderLength == length;
+    }
+
+    private int add(String url, int prefixEnd, int hash) {
+        if (size == locations.length) grow();
+
+        byte[] remainder = url.substring(prefixEnd).getBytes(StandardCharsets.UTF_8);
+        int id = size++;
+        locations[id] = store(remainder);
+        lengths[id] = remainder.length;
+        prefixOf[id] = prefixId(url.substring(0, prefixEnd));
+        hashes[id] = hash;
+        insert(table, id, hash);
+        storedBytes += remainder.length;
+        return id;
+    }
+
+    private long store(byte[] bytes) {
+        if (chunkPosition + bytes.length > currentChunkSize()) {
+            chunks.add(new byte[Math.max(CHUNK_SIZE, bytes.length)]);
+            chunkPosition = 0;
+        }
+        int chunkIndex = chunks.size() - 1;
+        System.arraycopy(bytes, 0, chunks.get(chunkIndex), chunkPosition, bytes.length);
+        long location = ((long) chunkIndex << 32) | chunkPosition;
+        chunkPosition += bytes.length;
+        return location;
+    }
+
+    private int currentChunkSize() {
+        return chunks.isEmpty() ? 0 : chunks.get(chunks.size() - 1).length;
+    }
+
+    private int prefixId(String prefix) {
+        Integer id = prefixIds.get(prefix);
+        if (id == null) {
+            id = prefixes.size();
+            prefixes.add(prefix);
+            prefixIds.put(prefix, id);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int capacity = locations.length * 2;
+        locations = Arrays.copyOf(locations, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        prefixOf = Arrays.copyOf(prefixOf, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+
+        int[] newTable = new int[capacity * 2];
+        for (int id = 0; id < size; id++) {
+            insert(newTable, id, hashes[id]);
+        }
+        table = newTable;
+    }
+
+    private static void insert(int[] target, int id, int hash) {
+        int mask = target.length - 1;
+        int slot = hash & mask;
+        while (target[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = id + 1;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown URL id: " + id);
+        }
+    }
+
+    static int prefixEnd(String url) {
+        int authorityStart = url.indexOf("://");
+        if (authorityStart < 0) return 0;
+        int end = url.length();
+        for (int i = authorityStart + 3; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') return i;
+        }
+        return end;
+    }
+
+    private static int hash(String url) {
+        int hash = url.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,43 @@
+package dictionary;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Immutable list of URLs that only holds their {@link UrlDictionary} ids; elements are decoded
+ * when they are read.
+ */
+public class UrlIdList extends AbstractList<String> implements RandomAccess {
+    private final UrlDictionary dictionary;
+    private final int[] ids;
+
+    public UrlIdList(UrlDictionary dictionary, int[] ids) {
+        this.dictionary = dictionary;
+        this.ids = ids;
+    }
+
+    @Override
+    public String get(int index) {
+        return dictionary.url(ids[index]);
+    }
+
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    public int[] ids() {
+        return Arrays.copyOf(ids, ids.length);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+}
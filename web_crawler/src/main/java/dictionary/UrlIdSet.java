@@ -0,0 +1,93 @@
+package dictionary;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Thread-safe set of URLs kept as a small sorted array of {@link UrlDictionary} ids. Meant for
+ * the parent URLs of a page, which are usually a single entry. Equality is decided by the URL
+ * string, so unlike {@code URL.equals} no host name is ever resolved.
+ */
+public class UrlIdSet extends AbstractSet<URL> {
+    private final UrlDictionary dictionary;
+    private int[] ids = new int[0];
+
+    public UrlIdSet(UrlDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public static UrlIdSet copyOf(UrlDictionary dictionary, Collection<URL> urls) {
+        UrlIdSet set = new UrlIdSet(dictionary);
+        set.addAll(urls);
+        return set;
+    }
+
+    @Override
+    public synchronized boolean add(URL url) {
+        int id = dictionary.intern(url.toString());
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) return false;
+
+        int insertAt = -position - 1;
+        int[] grown = new int[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        ids = grown;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean contains(Object candidate) {
+        if (!(candidate instanceof URL url)) return false;
+        int id = dictionary.idOf(url.toString());
+        return id != UrlDictionary.NOT_FOUND && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return ids.length;
+    }
+
+    /**
+     * Iterates over a snapshot; removal is not supported.
+     */
+    @Override
+    public synchronized Iterator<URL> iterator() {
+        int[] snapshot = ids;
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public URL next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return toUrl(dictionary.url(snapshot[next++]));
+            }
+        };
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return URI.create(url).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("Stored parent URL is not valid: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package events;
+
+import exceptions.EventLogException;
+import fetch.FetchTrace;
+import model.CrawlResult;
+import model.PageTrace;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Writes one JSON line per finished page with its {@link PageTrace} to a rolling file without
+ * making workers wait for the disk.
+ * <p>
+ * Workers claim a slot of a preallocated ring buffer, fill it and publish it; a single writer
+ * thread turns published slots into lines. Recording neither locks nor allocates. When the
+ * writer falls a whole buffer behind, workers wait for it instead of dropping events. Once the
+ * current file exceeds its size limit it is renamed to {@code <file>.1}, older files move up by
+ * one and the oldest beyond {@link #MAX_ROLLED_FILES} is deleted.
+ * <p>
+ * Durations are written in microseconds, {@code -1} where they could not be measured.
+ */
+public class CrawlEventLog implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8_192;
+    public static final int MAX_ROLLED_FILES = 9;
+    public static final String OUTCOME_OK = "ok";
+    private static final Logger logger = CrawlLogger.getLogger(CrawlEventLog.class);
+    private static final long WAIT_NANOS = 10_000;
+    private static final long IDLE_NANOS = 1_000_000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final PageTrace UNTRACED = new PageTrace();
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final Thread writerThread;
+    private final StringBuilder line = new StringBuilder(512);
+    private volatile long consumed;
+    private volatile boolean closed;
+    private Writer writer;
+    private long fileBytes;
+    private long written;
+    private int rollOvers;
+    private boolean unflushed;
+    private boolean writeFailed;
+
+    private static final class Slot {
+        private volatile long published = -1;
+        private long timestampMillis;
+        private int urlId;
+        private String url;
+        private int depth;
+        private long queueWaitNanos;
+        private long timeToFirstByteNanos;
+        private long downloadNanos;
+        private long bodyBytes;
+        private long fetchNanos;
+        private long parseNanos;
+        private int linkCount;
+        private String failure;
+    }
+
+    private CrawlEventLog(Path file, long maxFileBytes, Writer writer, int capacity) {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.writer = writer;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.writerThread = Thread.ofPlatform().name("crawl-event-log").daemon().unstarted(this::writeEvents);
+    }
+
+    public static CrawlEventLog open(Path file, long maxFileBytes) {
+        return open(file, maxFileBytes, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Replaces the file and the rolled files of an earlier crawl
+     *
+     * @param maxFileBytes size after which the file is rolled over
+     * @param capacity     number of events buffered for the writer; must be a power of two
+     */
+    public static CrawlEventLog open(Path file, long maxFileBytes, int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event log capacity must be a power of two: " + capacity);
+        }
+        if (maxFileBytes < 1) {
+            throw new IllegalArgumentException("Event log files must allow at least one byte: " + maxFileBytes);
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            for (int index = 1; index <= MAX_ROLLED_FILES; index++) {
+                Files.deleteIfExists(rolledFile(file, index));
+            }
+            CrawlEventLog eventLog = new CrawlEventLog(file, maxFileBytes, openWriter(file), capacity);
+            eventLog.writerThread.start();
+            return eventLog;
+        } catch (IOException e) {
+            throw new EventLogException("Could not open event log " + file, e);
+        }
+    }
+
+    /**
+     * @return the rolled files of an event log, oldest first, followed by the file itself if present
+     */
+    public static List<Path> files(Path file) {
+        List<Path> files = new ArrayList<>();
+        for (int index = MAX_ROLLED_FILES; index >= 1; index--) {
+            Path rolled = rolledFile(file, index);
+            if (Files.exists(rolled)) files.add(rolled);
+        }
+        if (Files.exists(file)) files.add(file);
+        return files;
+    }
+
+    static Path rolledFile(Path file, int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    /**
+     * Events recorded after {@link #close()} are ignored.
+     *
+     * @param urlId  the {@link dictionary.UrlDictionary} id of the page's normalized URL
+     * @param result the page with its {@link CrawlResult#trace}; a page without one is written
+     *               with unknown timings
+     */
+    public void pageCrawled(int urlId, CrawlResult result) {
+        if (closed) return;
+        PageTrace trace = result.trace == null ? UNTRACED : result.trace;
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= slots.length) {
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.timestampMillis = System.currentTimeMillis();
+        slot.urlId = urlId;
+        slot.url = result.pageUrl;
+        slot.depth = result.currentDepth;
+        slot.queueWaitNanos = trace.queueWaitNanos();
+        slot.timeToFirstByteNanos = trace.fetch().timeToFirstByteNanos();
+        slot.downloadNanos = trace.fetch().downloadNanos();
+        slot.bodyBytes = trace.fetch().bodyBytes();
+        slot.fetchNanos = trace.fetchNanos();
+        slot.parseNanos = trace.parseNanos();
+        slot.linkCount = result.childLinks == null ? 0 : result.childLinks.size();
+        slot.failure = result.isFetchFailed ? (trace.failure() == null ? "failed" : trace.failure()) : null;
+        slot.published = sequence;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Writes every event recorded so far and closes the file.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Event log {} received {} page events, rolled over {} times", file, written, rollOvers);
+    }
+
+    private void writeEvents() {
+        long next = 0;
+        while (true) {
+            Slot slot = slots[(int) next & mask];
+            if (slot.published == next) {
+                write(slot);
+                slot.url = null;
+                slot.failure = null;
+                consumed = ++next;
+            } else if (closed && next == claimed.get()) {
+                break;
+            } else {
+                flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Could not close event log {}", file, e);
+        }
+    }
+
+    private void write(Slot slot) {
+        if (writeFailed) return;
+        line.setLength(0);
+        line.append("{\"ts\":").append(slot.timestampMillis)
+                .append(",\"event\":\"page\",\"urlId\":").append(slot.urlId)
+                .append(",\"url\":");
+        appendJsonString(line, slot.url);
+        line.append(",\"depth\":").append(slot.depth)
+                .append(",\"queueUs\":").append(micros(slot.queueWaitNanos))
+                .append(",\"ttfbUs\":").append(micros(slot.timeToFirstByteNanos))
+                .append(",\"downloadUs\":").append(micros(slot.downloadNanos))
+                .append(",\"bytes\":").append(slot.bodyBytes)
+                .append(",\"fetchUs\":").append(micros(slot.fetchNanos))
+                .append(",\"parseUs\":").append(micros(slot.parseNanos))
+                .append(",\"links\":").append(slot.linkCount)
+                .append(",\"outcome\":");
+        appendJsonString(line, slot.failure == null ? OUTCOME_OK : slot.failure);
+        line.append("}\n");
+        try {
+            if (fileBytes > 0 && fileBytes + line.length() > maxFileBytes) rollOver();
+            writer.append(line);
+            fileBytes += line.length();
+            written++;
+            unflushed = true;
+        } catch (IOException e) {
+            writeFailed = true;
+            logger.error("Could not write to event log {}, further events are discarded", file, e);
+        }
+    }
+
+    private void rollOver() throws IOException {
+        writer.close();
+        Files.deleteIfExists(rolledFile(file, MAX_ROLLED_FILES));
+        for (int index = MAX_ROLLED_FILES - 1; index >= 1; index--) {
+            Path rolled = rolledFile(file, index);
+            if (Files.exists(rolled)) {
+                Files.move(rolled, rolledFile(file, index + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolledFile(file, 1), StandardCopyOption.REPLACE_EXISTING);
+        writer = openWriter(file);
+        fileBytes = 0;
+        rollOvers++;
+    }
+
+    private void flush() {
+        if (writeFailed || !unflushed) return;
+        try {
+            writer.flush();
+            unflushed = false;
+        } catch (IOException e) {
+            writeFailed = true;
+            logger.error("Could not write to event log {}, further events are discarded", file, e);
+        }
+    }
+
+    private static Writer openWriter(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    private static long micros(long nanos) {
+        return nanos == FetchTrace.UNKNOWN ? FetchTrace.UNKNOWN : nanos / 1_000;
+    }
+
+    static void appendJsonString(StringBuilder target, String value) {
+        if (value == null) {
+            target.append("null");
+            return;
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> target.append("\\\"");
+                case '\\' -> target.append("\\\\");
+                case '\n' -> target.append("\\n");
+                case '\r' -> target.append("\\r");
+                case '\t' -> target.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+                }
+            }
+        }
+        target.append('"');
+    }
+}
@@ -0,0 +1,213 @@
+package events;
+
+import config.CommandLineOptions;
+import exceptions.ConfigurationException;
+import exceptions.EventLogException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Offline analysis of a {@link CrawlEventLog}: fetch, parse and queue wait percentiles per host
+ * and per depth, and the slowest pages by fetch and parse time. Percentiles are exact, all
+ * durations of a group are kept in a primitive array and sorted once.
+ * <p>
+ * Usage: {@code java -cp web_crawler.jar events.TraceAnalyzer <event log> [--slowest=N]}; the
+ * rolled files next to the event log are read as well.
+ */
+public class TraceAnalyzer {
+    public static final int DEFAULT_SLOWEST_PAGES = 20;
+    private static final int[] PERCENTILES = {50, 90, 99};
+    private static final Comparator<TraceEvent> BY_TOTAL_TIME = Comparator.comparingLong(TraceEvent::totalMicros);
+
+    private final Map<String, Group> byHost = new TreeMap<>();
+    private final Map<Integer, Group> byDepth = new TreeMap<>();
+    private final PriorityQueue<TraceEvent> slowest = new PriorityQueue<>(BY_TOTAL_TIME);
+    private final int slowestCount;
+    private long eventCount;
+
+    public TraceAnalyzer(int slowestCount) {
+        this.slowestCount = slowestCount;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceAnalyzer <event log> [--slowest=N]");
+            return;
+        }
+        try {
+            CommandLineOptions options = CommandLineOptions.parse(List.of(args).subList(1, args.length));
+            int slowestCount = options.intValue("slowest", DEFAULT_SLOWEST_PAGES);
+            options.rejectUnknownOptions();
+            TraceAnalyzer analyzer = new TraceAnalyzer(slowestCount);
+            analyzer.read(Path.of(args[0]));
+            analyzer.print(System.out);
+        } catch (ConfigurationException | EventLogException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the event log and its rolled files
+     */
+    public void read(Path eventLog) {
+        List<Path> files = CrawlEventLog.files(eventLog);
+        if (files.isEmpty()) {
+            throw new EventLogException("No event log found at " + eventLog, null);
+        }
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) add(TraceEvent.parse(line));
+                }
+            } catch (IOException e) {
+                throw new EventLogException("Could not read event log " + file, e);
+            }
+        }
+    }
+
+    public void add(TraceEvent event) {
+        eventCount++;
+        byHost.computeIfAbsent(event.host(), host -> new Group()).add(event);
+        byDepth.computeIfAbsent(event.depth(), depth -> new Group()).add(event);
+        if (slowestCount > 0) {
+            slowest.add(event);
+            if (slowest.size() > slowestCount) slowest.poll();
+        }
+    }
+
+    public long eventCount() {
+        return eventCount;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%d page events%n", eventCount);
+        out.println();
+        out.println("By host");
+        printGroups(out, "Host", byHost);
+        out.println();
+        out.println("By depth");
+        printGroups(out, "Depth", byDepth);
+        out.println();
+        out.println("Slowest pages (fetch + parse)");
+        out.printf("%10s %10s %10s %10s %10s %12s %5s  %-24s %s%n",
+                "total ms", "ttfb ms", "download", "parse ms", "queue ms", "bytes", "depth", "outcome", "url");
+        for (TraceEvent event : slowestPages()) {
+            out.printf("%10s %10s %10s %10s %10s %12d %5d  %-24s %s%n",
+                    millis(event.totalMicros()), millis(event.timeToFirstByteMicros()), millis(event.downloadMicros()),
+                    millis(event.parseMicros()), millis(event.queueMicros()), event.bodyBytes(), event.depth(),
+                    event.outcome(), event.url());
+        }
+    }
+
+    /**
+     * @return the slowest pages seen so far, slowest first
+     */
+    public List<TraceEvent> slowestPages() {
+        return slowest.stream().sorted(BY_TOTAL_TIME.reversed()).toList();
+    }
+
+    /**
+     * @return the fetch time percentiles of one host in microseconds, in the order 50, 90, 99, 100
+     */
+    public long[] fetchPercentilesOfHost(String host) {
+        Group group = byHost.get(host);
+        return group == null ? new long[0] : group.fetchMicros.percentiles();
+    }
+
+    /**
+     * @return the fetch time percentiles of one depth in microseconds, in the order 50, 90, 99, 100
+     */
+    public long[] fetchPercentilesOfDepth(int depth) {
+        Group group = byDepth.get(depth);
+        return group == null ? new long[0] : group.fetchMicros.percentiles();
+    }
+
+    private static <K> void printGroups(PrintStream out, String keyHeader, Map<K, Group> groups) {
+        out.printf("%-40s %7s %7s %26s %17s %17s%n", keyHeader, "pages", "failed",
+                "fetch p50/p90/p99/max ms", "parse p50/p99 ms", "queue p50/p99 ms");
+        for (Map.Entry<K, Group> entry : groups.entrySet()) {
+            Group group = entry.getValue();
+            long[] fetch = group.fetchMicros.percentiles();
+            long[] parse = group.parseMicros.percentiles();
+            long[] queue = group.queueMicros.percentiles();
+            out.printf("%-40s %7d %7d %26s %17s %17s%n", entry.getKey(), group.pages, group.failed,
+                    millis(fetch[0]) + "/" + millis(fetch[1]) + "/" + millis(fetch[2]) + "/" + millis(fetch[3]),
+                    millis(parse[0]) + "/" + millis(parse[2]), millis(queue[0]) + "/" + millis(queue[2]));
+        }
+    }
+
+    private static String millis(long micros) {
+        return micros < 0 ? "-" : String.format("%.1f", micros / 1_000.0);
+    }
+
+    private static final class Group {
+        private final Durations fetchMicros = new Durations();
+        private final Durations parseMicros = new Durations();
+        private final Durations queueMicros = new Durations();
+        private long pages;
+        private long failed;
+
+        void add(TraceEvent event) {
+            pages++;
+            if (event.failed()) failed++;
+            fetchMicros.add(event.fetchMicros());
+            parseMicros.add(event.parseMicros());
+            queueMicros.add(event.queueMicros());
+        }
+    }
+
+    /**
+     * Measured durations of a group; unknown ones are skipped.
+     */
+    static final class Durations {
+        private long[] values = new long[16];
+        private int size;
+        private boolean sorted = true;
+
+        void add(long micros) {
+            if (micros < 0) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = micros;
+            sorted = false;
+        }
+
+        /**
+         * @return nearest-rank percentiles 50, 90 and 99 and the maximum, or -1 each without values
+         */
+        long[] percentiles() {
+            long[] result = new long[PERCENTILES.length + 1];
+            if (size == 0) {
+                Arrays.fill(result, -1);
+                return result;
+            }
+            if (!sorted) {
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                int rank = (int) Math.ceil(PERCENTILES[i] / 100.0 * size);
+                result[i] = values[Math.max(rank, 1) - 1];
+            }
+            result[PERCENTILES.length] = values[size - 1];
+            return result;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package events;
+
+import exceptions.EventLogException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * One page event as read back from a {@link CrawlEventLog} file. Durations are in microseconds,
+ * {@code -1} where they could not be measured.
+ */
+public record TraceEvent(long timestampMillis, int urlId, String url, int depth, long queueMicros,
+                         long timeToFirstByteMicros, long downloadMicros, long bodyBytes, long fetchMicros,
+                         long parseMicros, int linkCount, String outcome) {
+
+    public boolean failed() {
+        return !CrawlEventLog.OUTCOME_OK.equals(outcome);
+    }
+
+    /**
+     * @return fetch and parse time of the page, counting unknown parts as zero
+     */
+    public long totalMicros() {
+        return Math.max(fetchMicros, 0) + Math.max(parseMicros, 0);
+    }
+
+    /**
+     * @return the host of the page URL, or the URL itself if it has none
+     */
+    public String host() {
+        int hostStart = url.indexOf("://");
+        hostStart = hostStart < 0 ? 0 : hostStart + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && "/:?#".indexOf(url.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        return url.substring(hostStart, hostEnd);
+    }
+
+    /**
+     * Parses one line as written by {@link CrawlEventLog}; only the flat objects it writes are supported
+     *
+     * @throws EventLogException if the line is not such an object
+     */
+    public static TraceEvent parse(String line) {
+        Map<String, String> fields = new HashMap<>();
+        try {
+            new FlatJsonReader(line).readInto(fields);
+            return new TraceEvent(
+                    Long.parseLong(fields.get("ts")),
+                    Integer.parseInt(fields.get("urlId")),
+                    fields.get("url"),
+                    Integer.parseInt(fields.get("depth")),
+                    Long.parseLong(fields.get("queueUs")),
+                    Long.parseLong(fields.get("ttfbUs")),
+                    Long.parseLong(fields.get("downloadUs")),
+                    Long.parseLong(fields.get("bytes")),
+                    Long.parseLong(fields.get("fetchUs")),
+                    Long.parseLong(fields.get("parseUs")),
+                    Integer.parseInt(fields.get("links")),
+                    fields.get("outcome"));
+        } catch (RuntimeException e) {
+            throw new EventLogException("Not a page event: " + line, e);
+        }
+    }
+
+    private static final class FlatJsonReader {
+        private final String json;
+        private int position;
+
+        FlatJsonReader(String json) {
+            this.json = json;
+        }
+
+        void readInto(Map<String, String> fields) {
+            expect('{');
+            while (peek() != '}') {
+                String name = readString();
+                expect(':');
+                fields.put(name, peek() == '"' ? readString() : readLiteral());
+                if (peek() == ',') position++;
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            char c;
+            while ((c = json.charAt(position++)) != '"') {
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+            return value.toString();
+        }
+
+        private String readLiteral() {
+            int start = position;
+            while (",}".indexOf(json.charAt(position)) < 0) {
+                position++;
+            }
+            return json.substring(start, position).trim();
+        }
+
+        private char peek() {
+            while (Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+            return json.charAt(position);
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at " + position);
+            }
+            position++;
+        }
+    }
+}
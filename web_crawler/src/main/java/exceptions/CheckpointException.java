@@ -0,0 +1,7 @@
+package exceptions;
+
+public class CheckpointException extends RuntimeException {
+    public CheckpointException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
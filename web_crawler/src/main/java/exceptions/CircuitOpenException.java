@@ -0,0 +1,7 @@
+package exceptions;
+
+public class CircuitOpenException extends PageLoadException {
+    public CircuitOpenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
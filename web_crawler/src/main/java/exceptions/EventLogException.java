@@ -0,0 +1,7 @@
+package exceptions;
+
+public class EventLogException extends RuntimeException {
+    public EventLogException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
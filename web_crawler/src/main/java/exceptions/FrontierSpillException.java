@@ -0,0 +1,7 @@
+package exceptions;
+
+public class FrontierSpillException extends RuntimeException {
+    public FrontierSpillException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class PageCacheException extends RuntimeException {
+    public PageCacheException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
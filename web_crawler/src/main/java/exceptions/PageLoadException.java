@@ -1,7 +1,28 @@
 package exceptions;
 
+import java.util.OptionalInt;
+
 public class PageLoadException extends RuntimeException {
+    private static final int NO_STATUS = -1;
+
+    private final int statusCode;
+
     public PageLoadException(String message, Throwable cause) {
+        this(message, cause, NO_STATUS);
+    }
+
+    /**
+     * @param statusCode the HTTP error status the server answered with
+     */
+    public PageLoadException(String message, Throwable cause, int statusCode) {
         super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return the HTTP error status of the response, or empty if the page failed without one
+     */
+    public OptionalInt statusCode() {
+        return statusCode == NO_STATUS ? OptionalInt.empty() : OptionalInt.of(statusCode);
     }
-}
\ No newline at end of file
+}
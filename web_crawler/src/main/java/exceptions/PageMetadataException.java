@@ -0,0 +1,7 @@
+package exceptions;
+
+public class PageMetadataException extends RuntimeException {
+    public PageMetadataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
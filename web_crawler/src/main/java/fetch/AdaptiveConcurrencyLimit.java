@@ -0,0 +1,174 @@
+package fetch;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A limit on concurrent requests that adapts to the latency and errors they observe, additive
+ * increase and multiplicative decrease as in TCP congestion control.
+ * <p>
+ * Every successful request raises the limit by {@code 1 / limit}, so a limit that is in use
+ * grows by one per round of requests. It only grows while at least half of it is in use, so a
+ * limit is never raised further than it was tested. An overloaded server, i.e. a timeout, a
+ * {@code 429} or a {@code 5xx}, halves the limit; latency above {@link #LATENCY_TOLERANCE} times
+ * the no-load latency lowers it by a tenth. Only one decrease is applied per round: requests
+ * started before the last decrease saw the old load and no longer lower it.
+ * <p>
+ * The no-load latency is the lowest latency seen, drifting slowly towards newer samples so it
+ * follows a server that became slower for good. It is only meaningful for requests to a single
+ * server; a limit over several servers is created {@link #overloadOnly} and ignores latency, as
+ * a healthy server that is slower than the fastest one would otherwise lower it every round.
+ */
+public class AdaptiveConcurrencyLimit {
+    public static final double LATENCY_TOLERANCE = 2.0;
+    static final double OVERLOAD_BACKOFF = 0.5;
+    static final double LATENCY_BACKOFF = 0.9;
+    private static final int MIN_LIMIT = 1;
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_DRIFT = 256;
+
+    private final int maxLimit;
+    private final boolean latencySensitive;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long started;
+    private long decreasedAt;
+    private long decreases;
+    private double baselineNanos = -1;
+    private double smoothedNanos = -1;
+
+    /**
+     * How a request went, as far as the load of the server is concerned
+     */
+    public enum Outcome {
+        SUCCESS,
+        /**
+         * A timeout, {@code 429 Too Many Requests} or {@code 5xx}
+         */
+        OVERLOAD,
+        /**
+         * A failure that says nothing about the load, such as a {@code 404}, or a success
+         * without a latency sample; neither raises nor lowers the limit
+         */
+        IGNORED
+    }
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int maxLimit) {
+        this(initialLimit, maxLimit, true);
+    }
+
+    private AdaptiveConcurrencyLimit(int initialLimit, int maxLimit, boolean latencySensitive) {
+        if (initialLimit < MIN_LIMIT || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be between 1 and " + maxLimit + ": " + initialLimit);
+        }
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.latencySensitive = latencySensitive;
+    }
+
+    /**
+     * @return a limit that is only lowered by {@link Outcome#OVERLOAD}, for requests that go to
+     * servers of different speeds
+     */
+    public static AdaptiveConcurrencyLimit overloadOnly(int initialLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimit(initialLimit, maxLimit, false);
+    }
+
+    /**
+     * Waits until fewer requests than the limit are in flight
+     *
+     * @return the ticket to {@link #release} the permit with
+     */
+    public long acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+            return started++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param ticket       as returned by {@link #acquire()}
+     * @param latencyNanos how long the server took to answer; only used on success
+     */
+    public void release(long ticket, long latencyNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            switch (outcome) {
+                case SUCCESS -> succeeded(ticket, latencyNanos);
+                case OVERLOAD -> decrease(ticket, OVERLOAD_BACKOFF);
+                case IGNORED -> {
+                }
+            }
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void succeeded(long ticket, long latencyNanos) {
+        if (!latencySensitive) {
+            grow();
+            return;
+        }
+        smoothedNanos = smoothedNanos < 0 ? latencyNanos : smoothedNanos + SMOOTHING * (latencyNanos - smoothedNanos);
+        if (baselineNanos < 0 || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) / BASELINE_DRIFT;
+        }
+        if (smoothedNanos > baselineNanos * LATENCY_TOLERANCE) {
+            decrease(ticket, LATENCY_BACKOFF);
+        } else {
+            grow();
+        }
+    }
+
+    private void grow() {
+        if (inFlight >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private void decrease(long ticket, double backoff) {
+        if (ticket < decreasedAt) return;
+        limit = Math.max(MIN_LIMIT, limit * backoff);
+        decreasedAt = started;
+        decreases++;
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long decreases() {
+        lock.lock();
+        try {
+            return decreases;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
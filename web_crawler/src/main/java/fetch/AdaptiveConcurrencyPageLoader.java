@@ -0,0 +1,134 @@
+package fetch;
+
+import exceptions.PageLoadException;
+import fetch.AdaptiveConcurrencyLimit.Outcome;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+import util.UrlCanonicalizer;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caps the page loads in flight per host and in total with {@link AdaptiveConcurrencyLimit}s,
+ * so concurrency rises against hosts that keep answering quickly and falls against hosts that
+ * slow down, time out or answer {@code 429} or {@code 5xx}. Only the per-host limits react to
+ * latency; the total limit mixes hosts of different speeds and only falls on overload.
+ * <p>
+ * The time to the first byte is the latency sample, as it reflects the load of the server
+ * while download and parse time depend on the page. Loads without one, such as cache hits,
+ * do not change the limits.
+ */
+public class AdaptiveConcurrencyPageLoader implements PageLoader {
+    private static final Logger logger = CrawlLogger.getLogger(AdaptiveConcurrencyPageLoader.class);
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MIN_SERVER_ERROR = 500;
+    private static final int HOSTS_LOGGED = 10;
+
+    private final PageLoader delegate;
+    private final AdaptiveConcurrencyLimit globalLimit;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> hostLimits = new ConcurrentHashMap<>();
+    private final int initialHostLimit;
+    private final int maxHostLimit;
+
+    /**
+     * @param initialLimit     in-flight loads allowed in total at the start
+     * @param maxLimit         in-flight loads the total limit may grow to
+     * @param initialHostLimit in-flight loads allowed per host at the start
+     * @param maxHostLimit     in-flight loads a host's limit may grow to
+     */
+    public AdaptiveConcurrencyPageLoader(PageLoader delegate, int initialLimit, int maxLimit,
+                                         int initialHostLimit, int maxHostLimit) {
+        if (initialHostLimit < 1 || initialHostLimit > maxHostLimit) {
+            throw new IllegalArgumentException("Initial host limit must be between 1 and " + maxHostLimit + ".");
+        }
+        this.delegate = delegate;
+        this.globalLimit = AdaptiveConcurrencyLimit.overloadOnly(initialLimit, maxLimit);
+        this.initialHostLimit = initialHostLimit;
+        this.maxHostLimit = maxHostLimit;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        AdaptiveConcurrencyLimit hostLimit = hostLimit(url);
+        long hostTicket = acquire(hostLimit, url);
+        long globalTicket;
+        try {
+            globalTicket = acquire(globalLimit, url);
+        } catch (PageLoadException e) {
+            hostLimit.release(hostTicket, 0, Outcome.IGNORED);
+            throw e;
+        }
+        Outcome outcome = Outcome.IGNORED;
+        try {
+            HtmlDocument document = delegate.loadPage(url, trace);
+            if (trace.timeToFirstByteNanos() != FetchTrace.UNKNOWN) outcome = Outcome.SUCCESS;
+            return document;
+        } catch (PageLoadException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            globalLimit.release(globalTicket, trace.timeToFirstByteNanos(), outcome);
+            hostLimit.release(hostTicket, trace.timeToFirstByteNanos(), outcome);
+        }
+    }
+
+    /**
+     * @return {@link Outcome#OVERLOAD} for timeouts, {@code 429} and {@code 5xx}, otherwise
+     * {@link Outcome#IGNORED}
+     */
+    protected static Outcome outcomeOf(PageLoadException error) {
+        int status = error.statusCode().orElse(0);
+        if (status == TOO_MANY_REQUESTS || status >= MIN_SERVER_ERROR) return Outcome.OVERLOAD;
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) return Outcome.OVERLOAD;
+        }
+        return Outcome.IGNORED;
+    }
+
+    public AdaptiveConcurrencyLimit globalLimit() {
+        return globalLimit;
+    }
+
+    /**
+     * @return the limit of the host of a URL, created at the initial host limit on first use
+     */
+    public AdaptiveConcurrencyLimit hostLimit(String url) {
+        return hostLimits.computeIfAbsent(UrlCanonicalizer.host(url).orElse(""),
+                host -> new AdaptiveConcurrencyLimit(initialHostLimit, maxHostLimit));
+    }
+
+    /**
+     * Logs the limits the crawl converged to, for the hosts with the lowest limits first
+     */
+    public void logLimits() {
+        logger.info("Adaptive concurrency: {} in flight allowed in total ({} decreases), {} hosts",
+                globalLimit.limit(), globalLimit.decreases(), hostLimits.size());
+        String hosts = hostLimits.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, AdaptiveConcurrencyLimit> host) -> host.getValue().limit())
+                        .thenComparing(Map.Entry::getKey))
+                .limit(HOSTS_LOGGED)
+                .map(host -> host.getKey() + " " + host.getValue().limit())
+                .collect(Collectors.joining(", "));
+        if (!hosts.isEmpty()) logger.info("Adaptive concurrency per host: {}", hosts);
+    }
+
+    private static long acquire(AdaptiveConcurrencyLimit limit, String url) throws PageLoadException {
+        try {
+            return limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageLoadException("Interrupted while waiting to load page: " + url, e);
+        }
+    }
+}
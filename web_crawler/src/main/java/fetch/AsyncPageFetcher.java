@@ -0,0 +1,21 @@
+package fetch;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPageFetcher {
+    /**
+     * Starts downloading a page without blocking the calling thread
+     *
+     * @param url the URL of the page to fetch
+     * @return a future that completes with the raw page, or exceptionally with a PageLoadException
+     */
+    CompletableFuture<RawPage> fetchAsync(String url);
+
+    /**
+     * Like {@link #fetchAsync(String)}, and records the network timings into the trace where the
+     * fetcher can measure them; the trace is complete once the future has completed
+     */
+    default CompletableFuture<RawPage> fetchAsync(String url, FetchTrace trace) {
+        return fetchAsync(url);
+    }
+}
@@ -0,0 +1,47 @@
+package fetch;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The Cache-Control directives of a response that decide whether and for how long a local
+ * cache may reuse it.
+ *
+ * @param noStore whether the response must not be stored at all
+ * @param noCache whether the response must be revalidated before every reuse
+ * @param maxAge  how long the response stays fresh, if the server said so
+ */
+public record CacheControl(boolean noStore, boolean noCache, Optional<Duration> maxAge) {
+    public static final CacheControl NONE = new CacheControl(false, false, Optional.empty());
+
+    /**
+     * @param header the Cache-Control header, or null if the response had none
+     */
+    public static CacheControl parse(String header) {
+        if (header == null || header.isBlank()) return NONE;
+        boolean noStore = false;
+        boolean noCache = false;
+        Optional<Duration> maxAge = Optional.empty();
+        for (String directive : header.split(",")) {
+            String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.equals("no-store")) {
+                noStore = true;
+            } else if (trimmed.equals("no-cache")) {
+                noCache = true;
+            } else if (trimmed.startsWith("max-age=")) {
+                maxAge = parseSeconds(trimmed.substring("max-age=".length())).or(() -> Optional.of(Duration.ZERO));
+            }
+        }
+        return new CacheControl(noStore, noCache, maxAge);
+    }
+
+    private static Optional<Duration> parseSeconds(String value) {
+        try {
+            long seconds = Long.parseLong(value.replace("\"", "").trim());
+            return Optional.of(Duration.ofSeconds(Math.max(0, seconds)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
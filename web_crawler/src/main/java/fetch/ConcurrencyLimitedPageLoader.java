@@ -0,0 +1,48 @@
+package fetch;
+
+import exceptions.PageLoadException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of page loads that may be in flight at the same time, independent of how
+ * many worker threads are running.
+ */
+public class ConcurrencyLimitedPageLoader implements PageLoader {
+    private final PageLoader delegate;
+    private final Semaphore fetchPermits;
+    private final int maxInFlight;
+
+    public ConcurrencyLimitedPageLoader(PageLoader delegate, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one in-flight fetch must be allowed.");
+        }
+        this.delegate = delegate;
+        this.fetchPermits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        try {
+            fetchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageLoadException("Interrupted while waiting to load page: " + url, e);
+        }
+        try {
+            return delegate.loadPage(url, trace);
+        } finally {
+            fetchPermits.release();
+        }
+    }
+
+    public int inFlightCount() {
+        return maxInFlight - fetchPermits.availablePermits();
+    }
+}
@@ -0,0 +1,50 @@
+package fetch;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Network timings of a single page load, filled in by the loaders that can measure them. A
+ * trace belongs to one page and is read once its load has completed.
+ * <p>
+ * Neither {@code HttpClient} nor Jsoup report name resolution or connection setup on their
+ * own, so the time to the first byte includes both whenever a new connection is opened.
+ */
+public class FetchTrace {
+    public static final long UNKNOWN = -1;
+
+    private long timeToFirstByteNanos = UNKNOWN;
+    private long downloadNanos = UNKNOWN;
+    private long bodyBytes = UNKNOWN;
+
+    /**
+     * @param nanos time from sending the request until the response headers arrived
+     */
+    public void firstByteReceived(long nanos) {
+        timeToFirstByteNanos = nanos;
+    }
+
+    /**
+     * @param nanos time from the response headers until the body was read completely
+     * @param bytes size of the body as received
+     */
+    public void downloaded(long nanos, long bytes) {
+        downloadNanos = nanos;
+        bodyBytes = bytes;
+    }
+
+    public long timeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    public long downloadNanos() {
+        return downloadNanos;
+    }
+
+    public long bodyBytes() {
+        return bodyBytes;
+    }
+}
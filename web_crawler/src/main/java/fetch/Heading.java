@@ -0,0 +1,4 @@
+package fetch;
+
+public record Heading(int level, String text) {
+}
@@ -5,4 +5,11 @@ import java.util.List;
 public interface HtmlDocument {
     List<String> getLinks();
     String select(String cssQuery);
-}
\ No newline at end of file
+
+    /**
+     * Collects all headings and links of the document in one traversal
+     *
+     * @return the headings and absolute links in document order
+     */
+    PageContent extractContent();
+}
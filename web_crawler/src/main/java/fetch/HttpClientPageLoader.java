@@ -0,0 +1,347 @@
+package fetch;
+
+import exceptions.PageLoadException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Loads pages through one shared {@link HttpClient}, which keeps connections alive between
+ * requests and multiplexes them over HTTP/2 where the server supports it. Jsoup is only used
+ * to parse the downloaded body.
+ */
+public class HttpClientPageLoader implements PageLoader, PageFetcher, AsyncPageFetcher, PageParser {
+    private static final String USER_AGENT = "Mozilla/5.0";
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+    private static final int NOT_MODIFIED = 304;
+    private static final int MIN_ERROR_STATUS = 400;
+    private static final Set<String> DOCUMENT_TYPES = Set.of("text/html", "application/xhtml+xml", "application/xml", "text/xml");
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final LongConsumer downloadListener;
+
+    public HttpClientPageLoader(Duration connectTimeout, Duration readTimeout) {
+        this(connectTimeout, readTimeout, bytes -> {
+        });
+    }
+
+    /**
+     * @param downloadListener receives the number of bytes received for every response body,
+     *                         before it is decoded
+     */
+    public HttpClientPageLoader(Duration connectTimeout, Duration readTimeout, LongConsumer downloadListener) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build(), readTimeout, downloadListener);
+    }
+
+    public HttpClientPageLoader(HttpClient client, Duration readTimeout) {
+        this(client, readTimeout, bytes -> {
+        });
+    }
+
+    public HttpClientPageLoader(HttpClient client, Duration readTimeout, LongConsumer downloadListener) {
+        this.client = client;
+        this.readTimeout = readTimeout;
+        this.downloadListener = downloadListener;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    /**
+     * The body is parsed while it is downloaded, so the download time in the trace includes
+     * building the document.
+     */
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        long sentAt = System.nanoTime();
+        HttpResponse<InputStream> response = send(url);
+        long headersAt = System.nanoTime();
+        trace.firstByteReceived(headersAt - sentAt);
+        LongConsumer listener = bytes -> {
+            trace.downloaded(System.nanoTime() - headersAt, bytes);
+            downloadListener.accept(bytes);
+        };
+        try (InputStream body = decodeBody(response, new CountingInputStream(response.body(), listener))) {
+            return parse(body, charsetOf(response).orElse(null), response.uri().toString());
+        } catch (IOException e) {
+            throw new PageLoadException("Failed to load page: " + url, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<RawPage> fetchAsync(String url) {
+        return fetchAsync(url, new FetchTrace());
+    }
+
+    @Override
+    public CompletableFuture<RawPage> fetchAsync(String url, FetchTrace trace) {
+        try {
+            TracingBodyHandler bodyHandler = new TracingBodyHandler(trace);
+            return client.sendAsync(createRequest(url), bodyHandler)
+                    .thenApply(response -> {
+                        bodyHandler.bodyReceived(response);
+                        return readRawPage(url, response);
+                    })
+                    .exceptionally(error -> {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof PageLoadException pageLoadException) throw pageLoadException;
+                        throw new PageLoadException("Failed to load page: " + url, cause);
+                    });
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new PageLoadException("Failed to load page: " + url, e));
+        }
+    }
+
+    @Override
+    public RawPage fetch(String url) throws PageLoadException {
+        return fetch(url, new FetchTrace());
+    }
+
+    @Override
+    public RawPage fetch(String url, FetchTrace trace) throws PageLoadException {
+        return fetchIfModified(url, PageValidators.NONE, trace)
+                .orElseThrow(() -> new PageLoadException("Failed to load page: " + url + " (HTTP 304 without validators)", null));
+    }
+
+    /**
+     * Downloads a page unless the server confirms, based on the validators of an earlier
+     * response, that it has not changed since
+     *
+     * @param url        the URL of the page to fetch
+     * @param validators the validators of the earlier response, or {@link PageValidators#NONE}
+     * @return the page, or empty if the server answered 304 Not Modified
+     * @throws PageLoadException if the page cannot be loaded
+     */
+    public Optional<RawPage> fetchIfModified(String url, PageValidators validators) throws PageLoadException {
+        return fetchIfModified(url, validators, new FetchTrace());
+    }
+
+    /**
+     * Like {@link #fetchIfModified(String, PageValidators)}, and records the network timings into the trace
+     */
+    public Optional<RawPage> fetchIfModified(String url, PageValidators validators, FetchTrace trace)
+            throws PageLoadException {
+        HttpResponse<byte[]> response;
+        try {
+            TracingBodyHandler bodyHandler = new TracingBodyHandler(trace);
+            response = client.send(createRequest(url, validators), bodyHandler);
+            bodyHandler.bodyReceived(response);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new PageLoadException("Failed to load page: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageLoadException("Interrupted while loading page: " + url, e);
+        }
+        if (response.statusCode() == NOT_MODIFIED) return Optional.empty();
+        return Optional.of(readRawPage(url, response));
+    }
+
+    @Override
+    public HtmlDocument parse(RawPage page) throws PageLoadException {
+        try {
+            return parse(new ByteArrayInputStream(page.body()), page.charset(), page.url());
+        } catch (IOException e) {
+            throw new PageLoadException("Failed to parse page: " + page.url(), e);
+        }
+    }
+
+    protected HtmlDocument parse(InputStream body, String charset, String baseUri) throws IOException {
+        Document document = Jsoup.parse(body, charset, baseUri);
+        return new JsoupHtmlDocument(document);
+    }
+
+    protected RawPage readRawPage(String url, HttpResponse<byte[]> response) throws PageLoadException {
+        checkResponse(url, response);
+        downloadListener.accept(response.body().length);
+        try (InputStream body = decodeBody(response, new ByteArrayInputStream(response.body()))) {
+            return new RawPage(response.uri().toString(), body.readAllBytes(), charsetOf(response).orElse(null),
+                    PageValidators.of(response.headers()),
+                    CacheControl.parse(response.headers().firstValue("Cache-Control").orElse(null)));
+        } catch (IOException e) {
+            throw new PageLoadException("Failed to load page: " + url, e);
+        }
+    }
+
+    protected HttpResponse<InputStream> send(String url) throws PageLoadException {
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(createRequest(url), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new PageLoadException("Failed to load page: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageLoadException("Interrupted while loading page: " + url, e);
+        }
+
+        try {
+            checkResponse(url, response);
+        } catch (PageLoadException e) {
+            discard(response.body());
+            throw e;
+        }
+        return response;
+    }
+
+    protected void checkResponse(String url, HttpResponse<?> response) throws PageLoadException {
+        if (response.statusCode() >= MIN_ERROR_STATUS) {
+            throw new PageLoadException("Failed to load page: " + url + " (HTTP " + response.statusCode() + ")", null,
+                    response.statusCode());
+        }
+        if (!isHtml(response)) {
+            throw new PageLoadException("Failed to load page: " + url + " (not an HTML document)", null);
+        }
+    }
+
+    /**
+     * @return whether the response is a document the parser handles: HTML, XHTML or XML, or
+     * untyped; other text such as {@code text/plain} or {@code text/css} is rejected
+     */
+    protected boolean isHtml(HttpResponse<?> response) {
+        String mediaType = response.headers().firstValue("Content-Type").orElse("text/html")
+                .split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return mediaType.isEmpty() || DOCUMENT_TYPES.contains(mediaType) || mediaType.endsWith("+xml");
+    }
+
+    protected HttpRequest createRequest(String url) {
+        return createRequest(url, PageValidators.NONE);
+    }
+
+    protected HttpRequest createRequest(String url, PageValidators validators) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", ACCEPTED_ENCODINGS);
+        if (validators.etag() != null) {
+            request.header("If-None-Match", validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            request.header("If-Modified-Since", validators.lastModified());
+        }
+        return request.GET().build();
+    }
+
+    protected InputStream decodeBody(HttpResponse<?> response, InputStream body) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity").trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            case "identity", "" -> body;
+            default -> {
+                discard(body);
+                throw new IOException("Unsupported content encoding: " + encoding);
+            }
+        };
+    }
+
+    protected Optional<String> charsetOf(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+                .flatMap(HttpClientPageLoader::extractCharset);
+    }
+
+    static Optional<String> extractCharset(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                return Optional.of(trimmed.substring("charset=".length()).replace("\"", "").trim());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the whole body into a byte array and notes when the response headers arrived, which
+     * is when the client asks for the body subscriber.
+     */
+    private static class TracingBodyHandler implements HttpResponse.BodyHandler<byte[]> {
+        private final FetchTrace trace;
+        private final long sentAt = System.nanoTime();
+        private volatile long headersAt;
+
+        TracingBodyHandler(FetchTrace trace) {
+            this.trace = trace;
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<byte[]> apply(HttpResponse.ResponseInfo responseInfo) {
+            headersAt = System.nanoTime();
+            return HttpResponse.BodyHandlers.ofByteArray().apply(responseInfo);
+        }
+
+        void bodyReceived(HttpResponse<byte[]> response) {
+            long now = System.nanoTime();
+            long headers = headersAt == 0 ? now : headersAt;
+            trace.firstByteReceived(headers - sentAt);
+            trace.downloaded(now - headers, response.body().length);
+        }
+    }
+
+    /**
+     * Reports the number of bytes read from the wrapped stream once it is closed.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongConsumer listener;
+        private long count;
+        private boolean closed;
+
+        CountingInputStream(InputStream in, LongConsumer listener) {
+            super(in);
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) count++;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                listener.accept(count);
+            }
+            super.close();
+        }
+    }
+
+    private static void discard(InputStream body) {
+        try (body) {
+            body.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+            // the connection is dropped instead of being returned to the pool
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package fetch;
 
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
 import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,4 +30,35 @@ public class JsoupHtmlDocument implements HtmlDocument {
     public String select(String cssQuery) {
         return document.select(cssQuery).text();
     }
-}
\ No newline at end of file
+
+    @Override
+    public PageContent extractContent() {
+        ContentCollector collector = new ContentCollector();
+        NodeTraversor.traverse(collector, document);
+        return new PageContent(collector.headings, collector.links);
+    }
+
+    static int headingLevel(String tagName) {
+        if (tagName.length() != 2 || tagName.charAt(0) != 'h') return 0;
+        int level = tagName.charAt(1) - '0';
+        return level >= 1 && level <= 6 ? level : 0;
+    }
+
+    private static class ContentCollector implements NodeVisitor {
+        private final List<Heading> headings = new ArrayList<>();
+        private final List<String> links = new ArrayList<>();
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element element)) return;
+
+            String tagName = element.normalName();
+            int level = headingLevel(tagName);
+            if (level > 0) {
+                headings.add(new Heading(level, element.text()));
+            } else if (tagName.equals("a") && element.hasAttr("href")) {
+                links.add(element.absUrl("href"));
+            }
+        }
+    }
+}
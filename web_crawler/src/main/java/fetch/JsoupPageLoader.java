@@ -1,21 +1,78 @@
 package fetch;
 
 import exceptions.PageLoadException;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.function.LongConsumer;
+
+public class JsoupPageLoader implements PageLoader, PageFetcher, PageParser {
+    private static final String USER_AGENT = "Mozilla/5.0";
+
+    private final LongConsumer downloadListener;
+
+    public JsoupPageLoader() {
+        this(bytes -> {
+        });
+    }
+
+    /**
+     * @param downloadListener receives the size of every downloaded page body
+     */
+    public JsoupPageLoader(LongConsumer downloadListener) {
+        this.downloadListener = downloadListener;
+    }
 
-public class JsoupPageLoader implements PageLoader {
     @Override
     public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        return parse(fetch(url, trace));
+    }
+
+    @Override
+    public RawPage fetch(String url) throws PageLoadException {
+        return fetch(url, new FetchTrace());
+    }
+
+    /**
+     * Jsoup reads the body lazily, so the time to the first byte ends when {@code execute()} has
+     * read the response headers.
+     */
+    @Override
+    public RawPage fetch(String url, FetchTrace trace) throws PageLoadException {
         try {
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0")
-                    .get();
-            return new JsoupHtmlDocument(doc);
+            long sentAt = System.nanoTime();
+            Connection.Response response = Jsoup.connect(url)
+                    .userAgent(USER_AGENT)
+                    .execute();
+            long headersAt = System.nanoTime();
+            byte[] body = response.bodyAsBytes();
+            trace.firstByteReceived(headersAt - sentAt);
+            trace.downloaded(System.nanoTime() - headersAt, body.length);
+            downloadListener.accept(body.length);
+            return new RawPage(response.url().toString(), body, response.charset(),
+                    new PageValidators(response.header("ETag"), response.header("Last-Modified")),
+                    CacheControl.parse(response.header("Cache-Control")));
+        } catch (HttpStatusException e) {
+            throw new PageLoadException("Failed to load page: " + url, e, e.getStatusCode());
         } catch (IOException e) {
             throw new PageLoadException("Failed to load page: " + url, e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public HtmlDocument parse(RawPage page) throws PageLoadException {
+        try {
+            return new JsoupHtmlDocument(Jsoup.parse(new ByteArrayInputStream(page.body()), page.charset(), page.url()));
+        } catch (IOException e) {
+            throw new PageLoadException("Failed to parse page: " + page.url(), e);
+        }
+    }
+}
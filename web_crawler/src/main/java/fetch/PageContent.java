@@ -0,0 +1,12 @@
+package fetch;
+
+import java.util.List;
+
+/**
+ * Everything the crawler needs from a page, collected in a single pass over the document.
+ *
+ * @param headings the h1-h6 headings in document order
+ * @param links    the absolute href values of all links in document order
+ */
+public record PageContent(List<Heading> headings, List<String> links) {
+}
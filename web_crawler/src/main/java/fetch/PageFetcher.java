@@ -0,0 +1,22 @@
+package fetch;
+
+import exceptions.PageLoadException;
+
+public interface PageFetcher {
+    /**
+     * Downloads a page without parsing it
+     *
+     * @param url the URL of the page to fetch
+     * @return the raw page
+     * @throws PageLoadException if the page cannot be loaded
+     */
+    RawPage fetch(String url) throws PageLoadException;
+
+    /**
+     * Like {@link #fetch(String)}, and records the network timings into the trace where the
+     * fetcher can measure them
+     */
+    default RawPage fetch(String url, FetchTrace trace) throws PageLoadException {
+        return fetch(url);
+    }
+}
@@ -11,4 +11,12 @@ public interface PageLoader {
      * @throws Exception  Exception if an error occurs during loading or parsing
      */
     HtmlDocument loadPage(String url) throws PageLoadException;
+
+    /**
+     * Like {@link #loadPage(String)}, and records the network timings into the trace where the
+     * loader can measure them
+     */
+    default HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        return loadPage(url);
+    }
 }
@@ -0,0 +1,14 @@
+package fetch;
+
+import exceptions.PageLoadException;
+
+public interface PageParser {
+    /**
+     * Parses a downloaded page into a queryable document
+     *
+     * @param page the raw page to parse
+     * @return the parsed HTML document
+     * @throws PageLoadException if the page cannot be parsed
+     */
+    HtmlDocument parse(RawPage page) throws PageLoadException;
+}
@@ -0,0 +1,23 @@
+package fetch;
+
+import java.net.http.HttpHeaders;
+
+/**
+ * The cache validators a server sent with a page, used to ask it on the next crawl whether the
+ * page has changed since.
+ *
+ * @param etag         the ETag header, or null if the server sent none
+ * @param lastModified the Last-Modified header, or null if the server sent none
+ */
+public record PageValidators(String etag, String lastModified) {
+    public static final PageValidators NONE = new PageValidators(null, null);
+
+    public static PageValidators of(HttpHeaders headers) {
+        return new PageValidators(headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null));
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+}
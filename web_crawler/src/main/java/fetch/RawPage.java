@@ -0,0 +1,16 @@
+package fetch;
+
+/**
+ * A downloaded, already content-decoded page body that has not been parsed yet.
+ *
+ * @param url          the final URL of the page after redirects, used to resolve relative links
+ * @param body         the decoded response body
+ * @param charset      the charset announced by the server, or null to let the parser detect it
+ * @param validators   the validators to revalidate the page with on the next crawl
+ * @param cacheControl whether and for how long the page may be reused without asking the server
+ */
+public record RawPage(String url, byte[] body, String charset, PageValidators validators, CacheControl cacheControl) {
+    public RawPage(String url, byte[] body, String charset) {
+        this(url, body, charset, PageValidators.NONE, CacheControl.NONE);
+    }
+}
@@ -0,0 +1,37 @@
+package fetch;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A page whose markup was discarded while it was parsed; only the extracted headings and links
+ * are kept. Queries other than a heading level therefore match nothing and select an empty
+ * string, as they would on a page without such elements.
+ */
+public class StreamedHtmlDocument implements HtmlDocument {
+    private final PageContent content;
+
+    public StreamedHtmlDocument(PageContent content) {
+        this.content = content;
+    }
+
+    @Override
+    public List<String> getLinks() {
+        return content.links();
+    }
+
+    @Override
+    public String select(String cssQuery) {
+        int level = JsoupHtmlDocument.headingLevel(cssQuery.trim());
+        if (level == 0) return "";
+        return content.headings().stream()
+                .filter(heading -> heading.level() == level)
+                .map(Heading::text)
+                .collect(Collectors.joining(" "));
+    }
+
+    @Override
+    public PageContent extractContent() {
+        return content;
+    }
+}
@@ -0,0 +1,98 @@
+package fetch;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Variant of {@link HttpClientPageLoader} that never keeps a full DOM in memory. The response
+ * body is tokenized incrementally and every element is dropped from the tree as soon as it has
+ * been closed, so memory per page stays bounded by the nesting depth of the markup rather than
+ * by its size. Headings are the exception: they are kept until they close to read their text.
+ */
+public class StreamingPageLoader extends HttpClientPageLoader {
+
+    public StreamingPageLoader(Duration connectTimeout, Duration readTimeout) {
+        super(connectTimeout, readTimeout);
+    }
+
+    public StreamingPageLoader(Duration connectTimeout, Duration readTimeout, LongConsumer downloadListener) {
+        super(connectTimeout, readTimeout, downloadListener);
+    }
+
+    public StreamingPageLoader(HttpClient client, Duration readTimeout) {
+        super(client, readTimeout);
+    }
+
+    @Override
+    protected HtmlDocument parse(InputStream body, String charset, String baseUri) throws IOException {
+        List<Heading> headings = new ArrayList<>();
+        List<String> links = new ArrayList<>();
+
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())) {
+            parser.parse(new InputStreamReader(body, charsetOrDefault(charset)), baseUri);
+            parser.stream().forEach(element -> {
+                String tagName = element.normalName();
+                int level = JsoupHtmlDocument.headingLevel(tagName);
+                if (level > 0) {
+                    headings.add(new Heading(level, element.text()));
+                } else if (tagName.equals("a") && element.hasAttr("href")) {
+                    links.add(element.absUrl("href"));
+                }
+                if (!isInsideHeading(element)) {
+                    discard(element);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new StreamedHtmlDocument(new PageContent(headings, links));
+    }
+
+    /*
+        Streaming without looking ahead means a charset declared in a meta tag cannot be honoured,
+        so pages that do not announce one in the Content-Type header are read as UTF-8.
+     */
+    static Charset charsetOrDefault(String charset) {
+        if (charset == null || charset.isBlank()) return StandardCharsets.UTF_8;
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static boolean isInsideHeading(Element element) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            if (JsoupHtmlDocument.headingLevel(parent.normalName()) > 0) return true;
+        }
+        return false;
+    }
+
+    /*
+        Earlier siblings are already closed, so together with the element itself they can be
+        removed; this also drops text nodes that sit directly between block elements.
+     */
+    private static void discard(Element element) {
+        Node previous;
+        while ((previous = element.previousSibling()) != null) {
+            previous.remove();
+        }
+        element.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package frontier;
+
+import java.util.Objects;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * @param enqueuedAtNanos {@link System#nanoTime()} when the entry was created, used to report how
+ *                        long a page waited in the frontier; it is not part of the entry's identity
+ */
+public record FrontierEntry(String url, String normalizedUrl, int depth, long enqueuedAtNanos) {
+
+    public FrontierEntry(String url, String normalizedUrl, int depth) {
+        this(url, normalizedUrl, depth, System.nanoTime());
+    }
+
+    public long queueWaitNanos(long now) {
+        return now - enqueuedAtNanos;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FrontierEntry entry && depth == entry.depth && url.equals(entry.url)
+                && normalizedUrl.equals(entry.normalizedUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, normalizedUrl, depth);
+    }
+
+    public String host() {
+        int hostStart = normalizedUrl.indexOf("://");
+        hostStart = hostStart < 0 ? 0 : hostStart + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < normalizedUrl.length() && "/:?#".indexOf(normalizedUrl.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        return normalizedUrl.substring(hostStart, hostEnd);
+    }
+}
@@ -0,0 +1,153 @@
+package frontier;
+
+import exceptions.FrontierSpillException;
+import util.BinaryFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * First-in, first-out overflow of the {@link UrlFrontier} on disk.
+ * <p>
+ * Entries are appended to segment files of at most {@code segmentEntries} entries each, and
+ * read back in the order they were written. Both directions go through {@link #BUFFER_SIZE}
+ * buffers, so the disk only sees large sequential reads and writes. A segment is deleted as
+ * soon as it has been read completely. Only accessed while the owning {@link UrlFrontier}
+ * holds its lock.
+ */
+class FrontierSpill implements AutoCloseable {
+    static final int DEFAULT_SEGMENT_ENTRIES = 100_000;
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path directory;
+    private final int segmentEntries;
+    private final ArrayDeque<Segment> sealedSegments = new ArrayDeque<>();
+    private Segment writingSegment;
+    private DataOutputStream writer;
+    private Segment readingSegment;
+    private DataInputStream reader;
+    private long size = 0;
+
+    FrontierSpill(Path directory) {
+        this(directory, DEFAULT_SEGMENT_ENTRIES);
+    }
+
+    FrontierSpill(Path directory, int segmentEntries) {
+        this.directory = directory;
+        this.segmentEntries = segmentEntries;
+    }
+
+    void append(FrontierEntry entry) {
+        try {
+            if (writer == null) openWriter();
+            writer.writeInt(entry.depth());
+            writer.writeLong(entry.enqueuedAtNanos());
+            BinaryFormat.writeString(writer, entry.url());
+            BinaryFormat.writeString(writer, entry.normalizedUrl());
+            size++;
+            if (++writingSegment.entries == segmentEntries) sealWriter();
+        } catch (IOException e) {
+            throw new FrontierSpillException("Failed to spill frontier entry to " + directory, e);
+        }
+    }
+
+    /**
+     * @return up to {@code maxEntries} of the oldest spilled entries, removed from the spill
+     */
+    List<FrontierEntry> read(int maxEntries) {
+        List<FrontierEntry> entries = new ArrayList<>(Math.min(maxEntries, (int) Math.min(size, Integer.MAX_VALUE)));
+        try {
+            while (entries.size() < maxEntries && size > 0) {
+                if (reader == null) openReader();
+                int depth = reader.readInt();
+                long enqueuedAtNanos = reader.readLong();
+                String url = BinaryFormat.readString(reader);
+                entries.add(new FrontierEntry(url, BinaryFormat.readString(reader), depth, enqueuedAtNanos));
+                size--;
+                if (--readingSegment.entries == 0) finishReader();
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new FrontierSpillException("Failed to read spilled frontier entries from " + directory, e);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Closes all segment files and deletes the ones that have not been read yet.
+     */
+    @Override
+    public void close() {
+        try {
+            if (writer != null) sealWriter();
+            if (reader != null) finishReader();
+            for (Segment segment : sealedSegments) {
+                Files.deleteIfExists(segment.path);
+            }
+            sealedSegments.clear();
+            size = 0;
+        } catch (IOException e) {
+            throw new FrontierSpillException("Failed to delete frontier segments in " + directory, e);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        Files.createDirectories(directory);
+        writingSegment = new Segment(Files.createTempFile(directory, "frontier-", ".segment"));
+        writer = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(writingSegment.path), BUFFER_SIZE));
+    }
+
+    private void sealWriter() throws IOException {
+        writer.close();
+        writer = null;
+        sealedSegments.addLast(writingSegment);
+        writingSegment = null;
+    }
+
+    /*
+        When every spilled entry is still in the segment being written, that segment is sealed
+        early so it can be read; later entries go to a new one.
+     */
+    private void openReader() throws IOException {
+        if (sealedSegments.isEmpty()) sealWriter();
+        readingSegment = sealedSegments.pollFirst();
+        reader = new DataInputStream(new BufferedInputStream(Files.newInputStream(readingSegment.path), BUFFER_SIZE));
+    }
+
+    private void finishReader() throws IOException {
+        reader.close();
+        reader = null;
+        Files.deleteIfExists(readingSegment.path);
+        readingSegment = null;
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private int entries = 0;
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package frontier;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Pending entries and politeness state of a single host. Only accessed while the owning
+ * {@link UrlFrontier} holds its lock.
+ */
+class HostQueue {
+    private static final Comparator<QueuedEntry> BREADTH_FIRST = Comparator
+            .comparingInt((QueuedEntry queued) -> queued.entry().depth())
+            .thenComparingLong(QueuedEntry::sequence);
+
+    private final PriorityQueue<QueuedEntry> pending = new PriorityQueue<>(BREADTH_FIRST);
+    private int inFlight = 0;
+    private long nextRequestAllowedAt = System.nanoTime();
+    private boolean inRotation = false;
+
+    void add(FrontierEntry entry, long sequence) {
+        pending.add(new QueuedEntry(entry, sequence));
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    boolean canDispatch(long now, PolitenessPolicy policy) {
+        return hasPending() && inFlight < policy.maxInFlightPerHost() && now - nextRequestAllowedAt >= 0;
+    }
+
+    /**
+     * @return the time at which the delay of this host runs out, or {@link Long#MAX_VALUE} if
+     * the host is waiting for one of its requests to complete instead
+     */
+    long readyAt(PolitenessPolicy policy) {
+        return inFlight < policy.maxInFlightPerHost() ? nextRequestAllowedAt : Long.MAX_VALUE;
+    }
+
+    FrontierEntry dispatch(long now, PolitenessPolicy policy) {
+        inFlight++;
+        nextRequestAllowedAt = now + policy.minDelayBetweenRequests().toNanos();
+        return pending.poll().entry();
+    }
+
+    void complete() {
+        inFlight--;
+    }
+
+    boolean isInRotation() {
+        return inRotation;
+    }
+
+    void setInRotation(boolean inRotation) {
+        this.inRotation = inRotation;
+    }
+
+    private record QueuedEntry(FrontierEntry entry, long sequence) {
+    }
+}
@@ -0,0 +1,24 @@
+package frontier;
+
+import java.time.Duration;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record PolitenessPolicy(int maxInFlightPerHost, Duration minDelayBetweenRequests) {
+
+    public PolitenessPolicy {
+        if (maxInFlightPerHost < 1) {
+            throw new IllegalArgumentException("At least one in-flight request per host must be allowed.");
+        }
+        if (minDelayBetweenRequests == null || minDelayBetweenRequests.isNegative()) {
+            throw new IllegalArgumentException("Delay between requests must not be negative.");
+        }
+    }
+
+    public static PolitenessPolicy unrestricted() {
+        return new PolitenessPolicy(Integer.MAX_VALUE, Duration.ZERO);
+    }
+}
@@ -0,0 +1,319 @@
+package frontier;
+
+import org.slf4j.Logger;
+import util.CrawlLogger;
+import visited.SeenUrlStore;
+import visited.VisitedUrlSet;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Pending crawl work, grouped by host and ordered breadth-first by depth within each host.
+ * <p>
+ * URLs are claimed in the shared {@link SeenUrlStore} when they are enqueued, so the queue
+ * only ever holds unique pages.
+ * Workers are served round-robin across hosts. A host is skipped while it has reached the
+ * {@link PolitenessPolicy} in-flight limit or its delay since the last request has not run out
+ * yet, so idle workers move on to other hosts and only wait when no host is ready at all.
+ * Once {@code capacity} entries are pending, producers block until a worker takes an entry.
+ * The last worker that is still running is never blocked, otherwise nobody would be left to
+ * drain the queue; it is allowed to overshoot the bound instead. Producers that are not the
+ * consumers of the frontier, such as the result handlers of a pipeline, must not wait at all
+ * and enqueue with {@link #enqueueAll(List, boolean)} so they overshoot the bound as well.
+ * <p>
+ * With a spill directory producers never block. Entries beyond the capacity are appended to a
+ * {@link FrontierSpill} on disk instead, and so is every later entry while the spill is not
+ * empty, which keeps the overall order first-in, first-out. Once the in-memory entries fall to
+ * half the capacity, the oldest spilled entries are read back in one batch.
+ * <p>
+ * Entries handed back with a delay, such as pages to retry, wait in memory until the delay has
+ * run out and are then queued like any other entry. Idle workers wait for the earliest of them
+ * as they wait for a host's politeness delay, so no thread sleeps on behalf of a single entry.
+ */
+public class UrlFrontier implements AutoCloseable {
+    private static final Logger logger = CrawlLogger.getLogger(UrlFrontier.class);
+
+    private final int capacity;
+    private final PolitenessPolicy politenessPolicy;
+    private final SeenUrlStore visitedUrls;
+    private final Optional<FrontierSpill> spill;
+    private final Map<String, HostQueue> hostQueues = new HashMap<>();
+    private final ArrayDeque<HostQueue> hostRotation = new ArrayDeque<>();
+    private final PriorityQueue<DelayedEntry> delayed = new PriorityQueue<>(Comparator.comparingLong(DelayedEntry::readyAt));
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private long nextSequence = 0;
+    private int pendingCount = 0;
+    private int inFlight = 0;
+    private int blockedProducers = 0;
+    private boolean hasSpilled = false;
+
+    public UrlFrontier(int capacity) {
+        this(capacity, new VisitedUrlSet(), PolitenessPolicy.unrestricted());
+    }
+
+    public UrlFrontier(int capacity, SeenUrlStore visitedUrls, PolitenessPolicy politenessPolicy) {
+        this(capacity, visitedUrls, politenessPolicy, (FrontierSpill) null);
+    }
+
+    /**
+     * @param spillDirectory where entries beyond the capacity are written instead of blocking
+     *                       producers; empty to keep all entries in memory
+     */
+    public UrlFrontier(int capacity, SeenUrlStore visitedUrls, PolitenessPolicy politenessPolicy,
+                       Optional<Path> spillDirectory) {
+        this(capacity, visitedUrls, politenessPolicy, spillDirectory.map(FrontierSpill::new).orElse(null));
+    }
+
+    UrlFrontier(int capacity, SeenUrlStore visitedUrls, PolitenessPolicy politenessPolicy, FrontierSpill spill) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Frontier capacity must be at least 1.");
+        }
+        this.capacity = capacity;
+        this.visitedUrls = visitedUrls;
+        this.politenessPolicy = politenessPolicy;
+        this.spill = Optional.ofNullable(spill);
+    }
+
+    public boolean enqueue(FrontierEntry entry) {
+        return enqueueAll(List.of(entry)).isEmpty();
+    }
+
+    /**
+     * Enqueues all unseen entries in one critical section, so no worker can start on one
+     * sibling before the others are queued at the same depth.
+     *
+     * @return the entries that were rejected because their URL had already been claimed
+     */
+    public List<FrontierEntry> enqueueAll(List<FrontierEntry> entries) {
+        return enqueueAll(entries, true);
+    }
+
+    /**
+     * @param waitForSpace false to overshoot the capacity instead of waiting for a worker to take
+     *                     an entry, for producers the workers may be waiting on in turn
+     * @return the entries that were rejected because their URL had already been claimed
+     */
+    public List<FrontierEntry> enqueueAll(List<FrontierEntry> entries, boolean waitForSpace) {
+        List<FrontierEntry> duplicates = new ArrayList<>();
+        lock.lock();
+        try {
+            for (FrontierEntry entry : entries) {
+                if (!visitedUrls.claim(entry.normalizedUrl())) {
+                    duplicates.add(entry);
+                    continue;
+                }
+                if (shouldSpill()) {
+                    spill(entry);
+                    continue;
+                }
+                if (waitForSpace) awaitSpace();
+                addToHostQueue(entry);
+                workAvailable.signal();
+            }
+            return duplicates;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a taken entry again once the delay has run out; its URL stays claimed. Call this
+     * before {@link #complete} of the taken entry, so the crawl cannot end in between.
+     */
+    public void enqueueDelayed(FrontierEntry entry, long delayNanos) {
+        lock.lock();
+        try {
+            delayed.add(new DelayedEntry(entry, System.nanoTime() + delayNanos));
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<FrontierEntry> take() {
+        lock.lock();
+        try {
+            while (pendingCount > 0 || inFlight > 0 || spilledCount() > 0 || !delayed.isEmpty()) {
+                refillFromSpill();
+                long now = System.nanoTime();
+                releaseDelayed(now);
+                Optional<FrontierEntry> dispatched = dispatchFromNextReadyHost(now);
+                if (dispatched.isPresent()) {
+                    return dispatched;
+                }
+                awaitReadyHost(now);
+            }
+            workAvailable.signalAll();
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void complete(FrontierEntry entry) {
+        lock.lock();
+        try {
+            hostQueues.get(entry.host()).complete();
+            inFlight--;
+            spaceAvailable.signal();
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of pending entries, including spilled and delayed ones
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return pendingCount + spilledCount() + delayed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long spilledSize() {
+        lock.lock();
+        try {
+            return spilledCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes any spilled entries that were never taken.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            spill.ifPresent(FrontierSpill::close);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long uniqueUrlCount() {
+        return visitedUrls.size();
+    }
+
+    private boolean shouldSpill() {
+        return spill.isPresent() && (pendingCount >= capacity || !spill.get().isEmpty());
+    }
+
+    private void spill(FrontierEntry entry) {
+        if (!hasSpilled) {
+            hasSpilled = true;
+            logger.info("Frontier holds {} entries, spilling further entries to disk", pendingCount);
+        }
+        spill.get().append(entry);
+    }
+
+    private void refillFromSpill() {
+        if (spill.isEmpty() || spill.get().isEmpty() || pendingCount > capacity / 2) return;
+        List<FrontierEntry> entries = spill.get().read(capacity - pendingCount);
+        for (FrontierEntry entry : entries) {
+            addToHostQueue(entry);
+        }
+        workAvailable.signalAll();
+    }
+
+    private void releaseDelayed(long now) {
+        while (!delayed.isEmpty() && now - delayed.peek().readyAt() >= 0) {
+            addToHostQueue(delayed.poll().entry());
+        }
+    }
+
+    private long spilledCount() {
+        return spill.isPresent() ? spill.get().size() : 0;
+    }
+
+    private void addToHostQueue(FrontierEntry entry) {
+        HostQueue hostQueue = hostQueues.computeIfAbsent(entry.host(), host -> new HostQueue());
+        hostQueue.add(entry, nextSequence++);
+        pendingCount++;
+        if (!hostQueue.isInRotation()) {
+            hostQueue.setInRotation(true);
+            hostRotation.addLast(hostQueue);
+        }
+    }
+
+    private Optional<FrontierEntry> dispatchFromNextReadyHost(long now) {
+        for (int scanned = 0, hosts = hostRotation.size(); scanned < hosts; scanned++) {
+            HostQueue hostQueue = hostRotation.pollFirst();
+            if (!hostQueue.canDispatch(now, politenessPolicy)) {
+                hostRotation.addLast(hostQueue);
+                continue;
+            }
+
+            FrontierEntry entry = hostQueue.dispatch(now, politenessPolicy);
+            pendingCount--;
+            inFlight++;
+            if (hostQueue.hasPending()) {
+                hostRotation.addLast(hostQueue);
+            } else {
+                hostQueue.setInRotation(false);
+            }
+            spaceAvailable.signal();
+            return Optional.of(entry);
+        }
+        return Optional.empty();
+    }
+
+    private void awaitReadyHost(long now) throws InterruptedException {
+        long earliestReadyAt = Long.MAX_VALUE;
+        for (HostQueue hostQueue : hostRotation) {
+            earliestReadyAt = Math.min(earliestReadyAt, hostQueue.readyAt(politenessPolicy));
+        }
+        if (!delayed.isEmpty()) {
+            earliestReadyAt = Math.min(earliestReadyAt, delayed.peek().readyAt());
+        }
+
+        if (earliestReadyAt == Long.MAX_VALUE) {
+            workAvailable.await();
+        } else {
+            workAvailable.awaitNanos(Math.max(1, earliestReadyAt - now));
+        }
+    }
+
+    private void awaitSpace() {
+        while (pendingCount >= capacity && blockedProducers < inFlight - 1) {
+            blockedProducers++;
+            try {
+                spaceAvailable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                blockedProducers--;
+            }
+        }
+    }
+
+    private record DelayedEntry(FrontierEntry entry, long readyAt) {
+    }
+}
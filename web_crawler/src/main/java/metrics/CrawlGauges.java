@@ -0,0 +1,18 @@
+package metrics;
+
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Current sizes that are read when metrics are reported rather than recorded on every change.
+ */
+public record CrawlGauges(LongSupplier frontierSize, LongSupplier visitedUrlCount,
+                          IntSupplier executorQueueDepth, IntSupplier activeWorkers) {
+    public static final CrawlGauges NONE = new CrawlGauges(() -> 0, () -> 0, () -> 0, () -> 0);
+}
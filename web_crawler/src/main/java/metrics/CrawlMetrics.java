@@ -0,0 +1,280 @@
+package metrics;
+
+import config.MetricsSettings;
+import exceptions.PageLoadException;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Counters and latency histograms of a crawl, reported as a periodic summary line and, if
+ * enabled, through JMX.
+ * <p>
+ * The record methods are called by the workers for every page. They only update
+ * {@link LongAdder}s and {@link LatencyHistogram}s, so they neither lock nor allocate once a
+ * host or failure type has been seen. Latencies are recorded in microseconds. Sizes of the
+ * frontier, the visited set and the executor are read from {@link CrawlGauges} when reported.
+ */
+public class CrawlMetrics implements CrawlMetricsMXBean {
+    public static final String OBJECT_NAME = "crawler:type=CrawlMetrics";
+    private static final Logger logger = CrawlLogger.getLogger(CrawlMetrics.class);
+    private static final int MAX_TRACKED_HOSTS = 1_024;
+    private static final int SLOWEST_HOSTS_LOGGED = 10;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final MetricsSettings settings;
+    private final LongAdder pagesCrawled = new LongAdder();
+    private final LongAdder bytesDownloaded = new LongAdder();
+    private final LatencyHistogram fetchLatency = new LatencyHistogram();
+    private final HostLatencies fetchLatencyByHost = new HostLatencies(MAX_TRACKED_HOSTS);
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final ConcurrentMap<Class<?>, LongAdder> failuresByType = new ConcurrentHashMap<>();
+
+    private volatile CrawlGauges gauges = CrawlGauges.NONE;
+    private volatile long startedAt = System.nanoTime();
+    private ScheduledExecutorService reporter;
+    private long lastReportedAt;
+    private long lastReportedPages;
+
+    public CrawlMetrics() {
+        this(MetricsSettings.defaults());
+    }
+
+    public CrawlMetrics(MetricsSettings settings) {
+        this.settings = settings;
+    }
+
+    public void recordFetch(String url, long nanos) {
+        long micros = nanos / 1_000;
+        fetchLatency.record(micros);
+        fetchLatencyByHost.forUrl(url).record(micros);
+    }
+
+    public void recordParse(long nanos) {
+        parseTime.record(nanos / 1_000);
+    }
+
+    public void recordDownloadedBytes(long bytes) {
+        bytesDownloaded.add(bytes);
+    }
+
+    public void recordPage() {
+        pagesCrawled.increment();
+    }
+
+    /**
+     * Counts a failed page by the type of its cause; a {@link PageLoadException} without a cause
+     * counts as itself.
+     */
+    public void recordFailure(Throwable error) {
+        Class<? extends Throwable> type = failureType(error);
+        LongAdder failures = failuresByType.get(type);
+        if (failures == null) {
+            failures = failuresByType.computeIfAbsent(type, ignored -> new LongAdder());
+        }
+        failures.increment();
+    }
+
+    /**
+     * @return the type failures are counted under: the cause of a {@link PageLoadException},
+     * which only wraps it, or the error itself
+     */
+    public static Class<? extends Throwable> failureType(Throwable error) {
+        Throwable cause = error instanceof PageLoadException && error.getCause() != null ? error.getCause() : error;
+        return cause.getClass();
+    }
+
+    /**
+     * Starts the periodic summary and the JMX registration for a crawl
+     */
+    public synchronized void start(CrawlGauges gauges) {
+        this.gauges = gauges;
+        startedAt = System.nanoTime();
+        lastReportedAt = startedAt;
+        lastReportedPages = pagesCrawled.sum();
+        if (settings.jmx()) registerMBean();
+        if (settings.periodicSummary()) {
+            reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "crawl-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = settings.summaryInterval().toMillis();
+            reporter.scheduleAtFixedRate(this::logSummary, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops reporting and logs the final summary together with the slowest hosts
+     */
+    public synchronized void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        if (settings.jmx()) unregisterMBean();
+        logSummary();
+        logSlowestHosts();
+    }
+
+    public synchronized void logSummary() {
+        long now = System.nanoTime();
+        long pages = pagesCrawled.sum();
+        double pagesPerSecond = perSecond(pages - lastReportedPages, now - lastReportedAt);
+        lastReportedAt = now;
+        lastReportedPages = pages;
+        logger.info("Metrics: {} pages ({} /s), {} bytes, fetch p50/p99 {}/{} ms, parse p50/p99 {}/{} ms, "
+                        + "frontier {}, visited {}, executor {} queued {} active, failures {}",
+                pages, format(pagesPerSecond), bytesDownloaded.sum(),
+                format(getFetchLatencyP50Millis()), format(getFetchLatencyP99Millis()),
+                format(getParseTimeP50Millis()), format(getParseTimeP99Millis()),
+                getFrontierSize(), getVisitedUrlCount(), getExecutorQueueDepth(), getActiveWorkers(),
+                getFailuresByType());
+    }
+
+    protected void logSlowestHosts() {
+        fetchLatencyByHost.byHost().entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LatencyHistogram> host) -> host.getValue().valueAtPercentile(99)).reversed())
+                .limit(SLOWEST_HOSTS_LOGGED)
+                .forEach(host -> logger.info("Fetch latency {}: {} pages, p50 {} ms, p99 {} ms, max {} ms",
+                        host.getKey(), host.getValue().count(),
+                        format(millis(host.getValue().valueAtPercentile(50))),
+                        format(millis(host.getValue().valueAtPercentile(99))),
+                        format(millis(host.getValue().max()))));
+    }
+
+    public LatencyHistogram fetchLatency() {
+        return fetchLatency;
+    }
+
+    public HostLatencies fetchLatencyByHost() {
+        return fetchLatencyByHost;
+    }
+
+    public LatencyHistogram parseTime() {
+        return parseTime;
+    }
+
+    @Override
+    public long getPagesCrawled() {
+        return pagesCrawled.sum();
+    }
+
+    @Override
+    public double getPagesPerSecond() {
+        return perSecond(pagesCrawled.sum(), System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public long getBytesDownloaded() {
+        return bytesDownloaded.sum();
+    }
+
+    @Override
+    public long getFrontierSize() {
+        return gauges.frontierSize().getAsLong();
+    }
+
+    @Override
+    public long getVisitedUrlCount() {
+        return gauges.visitedUrlCount().getAsLong();
+    }
+
+    @Override
+    public int getExecutorQueueDepth() {
+        return gauges.executorQueueDepth().getAsInt();
+    }
+
+    @Override
+    public int getActiveWorkers() {
+        return gauges.activeWorkers().getAsInt();
+    }
+
+    @Override
+    public double getFetchLatencyP50Millis() {
+        return millis(fetchLatency.valueAtPercentile(50));
+    }
+
+    @Override
+    public double getFetchLatencyP99Millis() {
+        return millis(fetchLatency.valueAtPercentile(99));
+    }
+
+    @Override
+    public double getParseTimeP50Millis() {
+        return millis(parseTime.valueAtPercentile(50));
+    }
+
+    @Override
+    public double getParseTimeP99Millis() {
+        return millis(parseTime.valueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Double> getFetchLatencyP99MillisByHost() {
+        Map<String, Double> byHost = new LinkedHashMap<>();
+        fetchLatencyByHost.byHost().forEach((host, histogram) -> byHost.put(host, millis(histogram.valueAtPercentile(99))));
+        return byHost;
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByType() {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        failuresByType.forEach((type, failures) -> byType.put(type.getSimpleName(), failures.sum()));
+        return byType;
+    }
+
+    private void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            logger.warn("Crawl metrics are already registered with JMX by another crawl");
+        } catch (JMException e) {
+            logger.warn("Failed to register crawl metrics with JMX: {}", e.getMessage());
+        }
+    }
+
+    private void unregisterMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            logger.debug("Crawl metrics were not registered with JMX: {}", e.getMessage());
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
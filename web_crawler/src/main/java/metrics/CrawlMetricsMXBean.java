@@ -0,0 +1,40 @@
+package metrics;
+
+import java.util.Map;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * The crawl metrics as exposed through JMX. Latencies are in milliseconds.
+ */
+public interface CrawlMetricsMXBean {
+    long getPagesCrawled();
+
+    double getPagesPerSecond();
+
+    long getBytesDownloaded();
+
+    long getFrontierSize();
+
+    long getVisitedUrlCount();
+
+    int getExecutorQueueDepth();
+
+    int getActiveWorkers();
+
+    double getFetchLatencyP50Millis();
+
+    double getFetchLatencyP99Millis();
+
+    double getParseTimeP50Millis();
+
+    double getParseTimeP99Millis();
+
+    Map<String, Double> getFetchLatencyP99MillisByHost();
+
+    Map<String, Long> getFailuresByType();
+}
@@ -0,0 +1,91 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * One {@link LatencyHistogram} per host, found by the host part of a URL without copying it.
+ * <p>
+ * Hosts live in an insert-only open-addressing table that is filled with compare-and-set, so
+ * looking up a known host neither locks nor allocates. Once {@code maxHosts} hosts are tracked,
+ * further hosts share the {@value #OTHER_HOSTS} histogram.
+ */
+public class HostLatencies {
+    public static final String OTHER_HOSTS = "(other hosts)";
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicInteger hostCount = new AtomicInteger();
+    private final int maxHosts;
+    private final LatencyHistogram otherHosts = new LatencyHistogram();
+
+    private record Slot(String host, LatencyHistogram histogram) {
+        boolean matches(String url, int hostStart, int hostEnd) {
+            return host.length() == hostEnd - hostStart && url.regionMatches(hostStart, host, 0, host.length());
+        }
+    }
+
+    public HostLatencies(int maxHosts) {
+        this.maxHosts = maxHosts;
+        this.slots = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, maxHosts) * 2 - 1) << 1);
+    }
+
+    public LatencyHistogram forUrl(String url) {
+        int hostStart = url.indexOf("://");
+        hostStart = hostStart < 0 ? 0 : hostStart + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && "/:?#".indexOf(url.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+
+        int mask = slots.length() - 1;
+        int index = hash(url, hostStart, hostEnd) & mask;
+        for (int probe = 0; probe <= mask; probe++, index = (index + 1) & mask) {
+            Slot slot = slots.get(index);
+            if (slot == null) {
+                if (hostCount.get() >= maxHosts) return otherHosts;
+                Slot created = new Slot(url.substring(hostStart, hostEnd), new LatencyHistogram());
+                if (slots.compareAndSet(index, null, created)) {
+                    hostCount.incrementAndGet();
+                    return created.histogram();
+                }
+                slot = slots.get(index);
+            }
+            if (slot.matches(url, hostStart, hostEnd)) return slot.histogram();
+        }
+        return otherHosts;
+    }
+
+    public int hostCount() {
+        return hostCount.get();
+    }
+
+    /**
+     * @return the histogram of every tracked host, plus {@value #OTHER_HOSTS} if any host did
+     * not fit
+     */
+    public Map<String, LatencyHistogram> byHost() {
+        Map<String, LatencyHistogram> byHost = new LinkedHashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot != null) byHost.put(slot.host(), slot.histogram());
+        }
+        if (otherHosts.count() > 0) byHost.put(OTHER_HOSTS, otherHosts);
+        return byHost;
+    }
+
+    private static int hash(String url, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + url.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -12,4 +12,8 @@ public class CrawlResult {
     public List<String> childLinks;
     public boolean isFetchFailed;
     public Set<URL> parentUrls = ConcurrentHashMap.newKeySet();
+    /** Timings of this crawl of the page; dropped once the page has been stored. */
+    public PageTrace trace;
+    /** Why the page could not be loaded if it failed; dropped once the page has been stored. */
+    public Throwable loadError;
 }
\ No newline at end of file
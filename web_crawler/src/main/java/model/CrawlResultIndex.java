@@ -0,0 +1,70 @@
+package model;
+
+import dictionary.UrlDictionary;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Crawl results keyed by the {@link UrlDictionary} id of their normalized page URL.
+ * <p>
+ * Workers record results and attach additional parent URLs without taking a shared lock;
+ * the depth-ordered view used for the report is only built once the crawl has finished.
+ */
+public class CrawlResultIndex {
+    private static final Comparator<CrawlResult> BY_DEPTH_THEN_URL = Comparator
+            .comparingInt((CrawlResult result) -> result.currentDepth)
+            .thenComparing(result -> result.pageUrl, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final UrlDictionary dictionary;
+    private final ConcurrentMap<Integer, CrawlResult> resultsByUrl = new ConcurrentHashMap<>();
+
+    public CrawlResultIndex() {
+        this(new UrlDictionary());
+    }
+
+    public CrawlResultIndex(UrlDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public void record(String normalizedUrl, CrawlResult result) {
+        resultsByUrl.put(dictionary.intern(normalizedUrl), result);
+    }
+
+    public boolean addParentUrl(String normalizedUrl, URL parentUrl) {
+        int urlId = dictionary.idOf(normalizedUrl);
+        if (urlId == UrlDictionary.NOT_FOUND) return false;
+        CrawlResult result = resultsByUrl.get(urlId);
+        if (result == null) return false;
+        result.parentUrls.add(parentUrl);
+        return true;
+    }
+
+    public int size() {
+        return resultsByUrl.size();
+    }
+
+    /**
+     * @return a copy of the results recorded so far, in no particular order; safe to call while
+     * workers are still recording
+     */
+    public List<CrawlResult> snapshot() {
+        return new ArrayList<>(resultsByUrl.values());
+    }
+
+    public List<CrawlResult> orderedByDepth() {
+        List<CrawlResult> ordered = new ArrayList<>(resultsByUrl.values());
+        ordered.sort(BY_DEPTH_THEN_URL);
+        return ordered;
+    }
+}
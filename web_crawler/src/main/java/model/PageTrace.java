@@ -0,0 +1,65 @@
+package model;
+
+import fetch.FetchTrace;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Timings of one page from the moment it was queued until its content was extracted. The
+ * analyzer or the pipeline attaches it to the {@link CrawlResult} and fills in the fetch and
+ * parse times, the loaders the network part and the crawler the time the page waited in the
+ * frontier. Times that could not be measured stay {@link FetchTrace#UNKNOWN}.
+ */
+public class PageTrace {
+    private final FetchTrace fetch = new FetchTrace();
+    private long queueWaitNanos = FetchTrace.UNKNOWN;
+    private long fetchNanos = FetchTrace.UNKNOWN;
+    private long parseNanos = FetchTrace.UNKNOWN;
+    private String failure;
+
+    public void queued(long nanos) {
+        queueWaitNanos = nanos;
+    }
+
+    public FetchTrace fetch() {
+        return fetch;
+    }
+
+    public void fetched(long nanos) {
+        fetchNanos = nanos;
+    }
+
+    public void parsed(long nanos) {
+        parseNanos = nanos;
+    }
+
+    /**
+     * @param errorType simple name of the error type the page failed with
+     */
+    public void failed(String errorType) {
+        failure = errorType;
+    }
+
+    public long queueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    public long fetchNanos() {
+        return fetchNanos;
+    }
+
+    public long parseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return the simple name of the error type the page failed with, or null if it did not fail
+     */
+    public String failure() {
+        return failure;
+    }
+}
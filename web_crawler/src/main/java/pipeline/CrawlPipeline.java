@@ -0,0 +1,144 @@
+package pipeline;
+
+import core.CrawlPageAnalyzer;
+import fetch.AsyncPageFetcher;
+import fetch.HtmlDocument;
+import fetch.PageParser;
+import metrics.CrawlMetrics;
+import model.CrawlResult;
+import model.PageTrace;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Processes pages in three stages: an asynchronous network fetch, a parse stage sized to the
+ * number of cores and an extraction stage that builds the {@link CrawlResult} and hands it to
+ * the caller's result handler, which emits the child links.
+ * <p>
+ * At most {@code maxInFlightPages} pages are inside the pipeline at once. Every bounded stage
+ * queue is at least that large, so stages never reject work.
+ */
+public class CrawlPipeline {
+    private static final Logger logger = CrawlLogger.getLogger(CrawlPipeline.class);
+    private static final long STATS_INTERVAL_SECONDS = 10;
+
+    private final PageParser parser;
+    private final CrawlPageAnalyzer analyzer;
+    private final CrawlMetrics metrics;
+    private final Semaphore inFlightPages;
+    private final FetchStage fetchStage;
+    private final PipelineStage parseStage;
+    private final PipelineStage extractStage;
+    private final ScheduledExecutorService statsReporter;
+
+    public CrawlPipeline(AsyncPageFetcher fetcher, PageParser parser, CrawlPageAnalyzer analyzer, int maxInFlightPages) {
+        this(fetcher, parser, analyzer, maxInFlightPages, Runtime.getRuntime().availableProcessors(),
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public CrawlPipeline(AsyncPageFetcher fetcher, PageParser parser, CrawlPageAnalyzer analyzer,
+                         int maxInFlightPages, int parseThreads, int extractThreads) {
+        this.parser = parser;
+        this.analyzer = analyzer;
+        this.metrics = analyzer.metrics();
+        this.inFlightPages = new Semaphore(maxInFlightPages);
+        this.fetchStage = new FetchStage(fetcher);
+        this.parseStage = new PipelineStage("parse", parseThreads, maxInFlightPages);
+        this.extractStage = new PipelineStage("extract", extractThreads, maxInFlightPages);
+        this.statsReporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "pipeline-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts logging the stage statistics periodically until {@link #shutdown()}.
+     */
+    public void start() {
+        statsReporter.scheduleAtFixedRate(this::logStageStats, STATS_INTERVAL_SECONDS, STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Pushes a page into the pipeline, blocking while the pipeline is full.
+     *
+     * @return a future that completes once the result handler has run for this page
+     */
+    public CompletableFuture<Void> submit(String url, int depth, Consumer<CrawlResult> resultHandler)
+            throws InterruptedException {
+        return submit(url, depth, new PageTrace(), resultHandler);
+    }
+
+    /**
+     * Like {@link #submit(String, int, Consumer)}, and records the fetch and parse times into the
+     * trace, which is attached to the result before the handler runs. The parse time is building
+     * the document; extracting headings and links is not included.
+     */
+    public CompletableFuture<Void> submit(String url, int depth, PageTrace trace, Consumer<CrawlResult> resultHandler)
+            throws InterruptedException {
+        inFlightPages.acquire();
+        long fetchStartedAt = System.nanoTime();
+        return fetchStage.fetch(url, trace.fetch())
+                .whenComplete((page, error) -> {
+                    long fetchNanos = System.nanoTime() - fetchStartedAt;
+                    trace.fetched(fetchNanos);
+                    if (page != null) metrics.recordFetch(url, fetchNanos);
+                })
+                .thenApplyAsync(page -> {
+                    long parseStartedAt = System.nanoTime();
+                    HtmlDocument document = parser.parse(page);
+                    long parseNanos = System.nanoTime() - parseStartedAt;
+                    trace.parsed(parseNanos);
+                    metrics.recordParse(parseNanos);
+                    return document;
+                }, parseStage)
+                .handleAsync((document, error) -> {
+                    CrawlResult page;
+                    if (error == null) {
+                        page = analyzer.analyzeDocument(url, depth, document);
+                    } else {
+                        page = analyzer.failedPage(url, depth, unwrap(error));
+                        trace.failed(CrawlMetrics.failureType(unwrap(error)).getSimpleName());
+                    }
+                    page.trace = trace;
+                    return page;
+                }, extractStage)
+                .thenAccept(resultHandler)
+                .whenComplete((ignored, error) -> inFlightPages.release());
+    }
+
+    public List<StageStats> stageStats() {
+        return List.of(fetchStage.stats(), parseStage.stats(), extractStage.stats());
+    }
+
+    public void logStageStats() {
+        for (StageStats stats : stageStats()) {
+            logger.info("Pipeline {}", stats);
+        }
+    }
+
+    public void shutdown() {
+        statsReporter.shutdownNow();
+        parseStage.shutdown();
+        extractStage.shutdown();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,48 @@
+package pipeline;
+
+import fetch.AsyncPageFetcher;
+import fetch.FetchTrace;
+import fetch.RawPage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Network stage of the pipeline. Fetches do not occupy a thread while waiting, so the
+ * "queue" of this stage is the number of requests currently on the wire.
+ */
+public class FetchStage {
+    private final AsyncPageFetcher fetcher;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final long startedAt = System.nanoTime();
+
+    public FetchStage(AsyncPageFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    public CompletableFuture<RawPage> fetch(String url) {
+        return fetch(url, new FetchTrace());
+    }
+
+    public CompletableFuture<RawPage> fetch(String url, FetchTrace trace) {
+        inFlight.incrementAndGet();
+        return fetcher.fetchAsync(url, trace).whenComplete((page, error) -> {
+            inFlight.decrementAndGet();
+            completed.increment();
+        });
+    }
+
+    public StageStats stats() {
+        long completedCount = completed.sum();
+        return new StageStats("fetch", inFlight.get(), inFlight.get(), completedCount,
+                PipelineStage.perSecond(completedCount, startedAt));
+    }
+}
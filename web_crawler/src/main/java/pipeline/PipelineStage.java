@@ -0,0 +1,67 @@
+package pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * A fixed number of threads fed by a bounded queue. If the queue is ever full, the submitting
+ * thread runs the task itself, which slows down the stage in front instead of dropping work.
+ */
+public class PipelineStage implements Executor {
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final long startedAt = System.nanoTime();
+
+    public PipelineStage(String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(name), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                completed.increment();
+            }
+        });
+    }
+
+    public StageStats stats() {
+        long completedCount = completed.sum();
+        return new StageStats(name, executor.getQueue().size(), executor.getActiveCount(), completedCount,
+                perSecond(completedCount, startedAt));
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    static double perSecond(long count, long startedAt) {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        return elapsedSeconds > 0 ? count / elapsedSeconds : 0;
+    }
+
+    private static ThreadFactory namedThreads(String stageName) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return task -> {
+            Thread thread = new Thread(task, stageName + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
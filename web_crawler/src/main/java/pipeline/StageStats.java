@@ -0,0 +1,16 @@
+package pipeline;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+public record StageStats(String stageName, int queueDepth, int activeCount, long completedCount,
+                         double throughputPerSecond) {
+
+    @Override
+    public String toString() {
+        return String.format("%-8s queued=%d active=%d completed=%d (%.1f/s)",
+                stageName, queueDepth, activeCount, completedCount, throughputPerSecond);
+    }
+}
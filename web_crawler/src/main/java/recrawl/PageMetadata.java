@@ -0,0 +1,26 @@
+package recrawl;
+
+import fetch.PageContent;
+import fetch.PageValidators;
+
+import java.time.Instant;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * What an earlier crawl learned about a page.
+ *
+ * @param validators  the validators of the last response with a body
+ * @param contentHash hash of the decoded body of that response
+ * @param lastCrawled when the page was last fetched or revalidated
+ * @param content     the headings and links extracted from that body
+ */
+public record PageMetadata(PageValidators validators, long contentHash, Instant lastCrawled, PageContent content) {
+    public PageMetadata withLastCrawled(Instant lastCrawled) {
+        return new PageMetadata(validators, contentHash, lastCrawled, content);
+    }
+}
@@ -0,0 +1,149 @@
+package recrawl;
+
+import exceptions.PageMetadataException;
+import fetch.Heading;
+import fetch.PageContent;
+import fetch.PageValidators;
+import util.BinaryFormat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Per-URL {@link PageMetadata} that outlives a crawl. The whole store is kept in memory while
+ * crawling and written back to its file in one go, as a deflate stream of length-prefixed
+ * UTF-8 strings like the crawl checkpoints.
+ */
+public class PageMetadataStore {
+    private static final int MAGIC = 0x57434D44;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final ConcurrentMap<String, PageMetadata> pages;
+
+    private PageMetadataStore(Path file, ConcurrentMap<String, PageMetadata> pages) {
+        this.file = file;
+        this.pages = pages;
+    }
+
+    /**
+     * @param file the file of the store; it does not need to exist yet
+     * @throws PageMetadataException if the file exists but cannot be read
+     */
+    public static PageMetadataStore open(Path file) {
+        if (!Files.exists(file)) return new PageMetadataStore(file, new ConcurrentHashMap<>());
+        try {
+            return new PageMetadataStore(file, read(file));
+        } catch (IOException e) {
+            throw new PageMetadataException("Failed to read page metadata from " + file, e);
+        }
+    }
+
+    public Optional<PageMetadata> get(String url) {
+        return Optional.ofNullable(pages.get(url));
+    }
+
+    public void put(String url, PageMetadata metadata) {
+        pages.put(url, metadata);
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Writes the store to a temporary file next to its file and moves it into place, so an
+     * interrupted save keeps the previous version.
+     *
+     * @throws PageMetadataException if the store cannot be written
+     */
+    public void save() {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            write(temporary);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new PageMetadataException("Failed to write page metadata to " + file, e);
+        }
+    }
+
+    private void write(Path target) throws IOException {
+        try (DataOutputStream output = BinaryFormat.openDeflated(target)) {
+            List<Map.Entry<String, PageMetadata>> entries = new ArrayList<>(pages.entrySet());
+            BinaryFormat.writeHeader(output, MAGIC, VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<String, PageMetadata> entry : entries) {
+                BinaryFormat.writeString(output, entry.getKey());
+                writeMetadata(output, entry.getValue());
+            }
+        }
+    }
+
+    private static ConcurrentMap<String, PageMetadata> read(Path source) throws IOException {
+        try (DataInputStream input = BinaryFormat.openInflated(source)) {
+            BinaryFormat.readHeader(input, MAGIC, VERSION, "page metadata store");
+            int count = input.readInt();
+            ConcurrentMap<String, PageMetadata> pages = new ConcurrentHashMap<>(Math.max(16, count * 4 / 3));
+            for (int i = 0; i < count; i++) {
+                pages.put(BinaryFormat.readString(input), readMetadata(input));
+            }
+            return pages;
+        }
+    }
+
+    private static void writeMetadata(DataOutputStream output, PageMetadata metadata) throws IOException {
+        BinaryFormat.writeString(output, metadata.validators().etag());
+        BinaryFormat.writeString(output, metadata.validators().lastModified());
+        output.writeLong(metadata.contentHash());
+        output.writeLong(metadata.lastCrawled().toEpochMilli());
+        List<Heading> headings = metadata.content().headings();
+        output.writeInt(headings.size());
+        for (Heading heading : headings) {
+            output.writeByte(heading.level());
+            BinaryFormat.writeString(output, heading.text());
+        }
+        List<String> links = metadata.content().links();
+        output.writeInt(links.size());
+        for (String link : links) {
+            BinaryFormat.writeString(output, link);
+        }
+    }
+
+    private static PageMetadata readMetadata(DataInputStream input) throws IOException {
+        PageValidators validators = new PageValidators(BinaryFormat.readString(input), BinaryFormat.readString(input));
+        long contentHash = input.readLong();
+        Instant lastCrawled = Instant.ofEpochMilli(input.readLong());
+        int headingCount = input.readInt();
+        List<Heading> headings = new ArrayList<>(headingCount);
+        for (int i = 0; i < headingCount; i++) {
+            headings.add(new Heading(input.readByte(), BinaryFormat.readString(input)));
+        }
+        int linkCount = input.readInt();
+        List<String> links = new ArrayList<>(linkCount);
+        for (int i = 0; i < linkCount; i++) {
+            links.add(BinaryFormat.readString(input));
+        }
+        return new PageMetadata(validators, contentHash, lastCrawled, new PageContent(headings, links));
+    }
+}
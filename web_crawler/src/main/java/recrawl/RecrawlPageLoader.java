@@ -0,0 +1,120 @@
+package recrawl;
+
+import exceptions.PageLoadException;
+import fetch.FetchTrace;
+import fetch.HtmlDocument;
+import fetch.HttpClientPageLoader;
+import fetch.PageContent;
+import fetch.PageLoader;
+import fetch.PageValidators;
+import fetch.RawPage;
+import fetch.StreamedHtmlDocument;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Loads pages conditionally based on what earlier crawls stored in a {@link PageMetadataStore}.
+ * <p>
+ * A known page is requested with its ETag and Last-Modified validators. If the server answers
+ * 304, or sends a body with the same hash as before, the headings and links of the earlier
+ * crawl are returned without parsing the page again. Only changed or new pages are parsed, and
+ * their content is stored for the next crawl.
+ */
+public class RecrawlPageLoader implements PageLoader {
+    private static final Logger logger = CrawlLogger.getLogger(RecrawlPageLoader.class);
+
+    private final HttpClientPageLoader loader;
+    private final PageMetadataStore store;
+    private final Clock clock;
+    private final LongAdder notModifiedCount = new LongAdder();
+    private final LongAdder unchangedCount = new LongAdder();
+    private final LongAdder changedCount = new LongAdder();
+    private final LongAdder downloadedBytes = new LongAdder();
+
+    public RecrawlPageLoader(HttpClientPageLoader loader, PageMetadataStore store) {
+        this(loader, store, Clock.systemUTC());
+    }
+
+    public RecrawlPageLoader(HttpClientPageLoader loader, PageMetadataStore store, Clock clock) {
+        this.loader = loader;
+        this.store = store;
+        this.clock = clock;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        Optional<PageMetadata> previous = store.get(url);
+        PageValidators validators = previous.map(PageMetadata::validators).orElse(PageValidators.NONE);
+        Optional<RawPage> page = loader.fetchIfModified(url, validators, trace);
+        if (page.isEmpty()) {
+            PageMetadata notModified = previous.orElseThrow(() ->
+                    new PageLoadException("Not Modified returned for a page without validators: " + url, null));
+            notModifiedCount.increment();
+            store.put(url, notModified.withLastCrawled(clock.instant()));
+            return new StreamedHtmlDocument(notModified.content());
+        }
+
+        byte[] body = page.get().body();
+        downloadedBytes.add(body.length);
+        long contentHash = contentHash(body);
+        if (previous.isPresent() && previous.get().contentHash() == contentHash) {
+            unchangedCount.increment();
+            store.put(url, new PageMetadata(page.get().validators(), contentHash, clock.instant(), previous.get().content()));
+            return new StreamedHtmlDocument(previous.get().content());
+        }
+
+        changedCount.increment();
+        PageContent content = loader.parse(page.get()).extractContent();
+        store.put(url, new PageMetadata(page.get().validators(), contentHash, clock.instant(), content));
+        return new StreamedHtmlDocument(content);
+    }
+
+    /**
+     * Writes the metadata of this crawl back to the store file
+     */
+    public void saveMetadata() {
+        store.save();
+        logger.info("Recrawl: {} pages not modified, {} unchanged, {} changed or new, {} bytes downloaded",
+                notModifiedCount.sum(), unchangedCount.sum(), changedCount.sum(), downloadedBytes.sum());
+        logger.info("Page metadata of {} pages saved to {}", store.size(), store.file());
+    }
+
+    public long notModifiedCount() {
+        return notModifiedCount.sum();
+    }
+
+    public long unchangedCount() {
+        return unchangedCount.sum();
+    }
+
+    public long changedCount() {
+        return changedCount.sum();
+    }
+
+    static long contentHash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package retry;
+
+import exceptions.CircuitOpenException;
+import exceptions.PageLoadException;
+import fetch.FetchTrace;
+import fetch.HtmlDocument;
+import fetch.PageLoader;
+import org.slf4j.Logger;
+import util.CrawlLogger;
+import util.UrlCanonicalizer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Stops loading pages of a host that keeps failing, so workers do not wait for its timeouts
+ * on every link that points at it.
+ * <p>
+ * After {@code failureThreshold} {@link FailureClassifier#isTransient transient} failures of a
+ * host in a row its circuit opens and its loads throw a {@link CircuitOpenException} without
+ * touching the network. Once the open duration has passed, one load is let through: if it
+ * succeeds the circuit closes, if it fails again the circuit stays open for another round. A
+ * success or a permanent failure such as a {@code 404} shows the host is answering and resets
+ * the count. Exceptions other than {@link PageLoadException}, such as a bug in parsing, leave
+ * the circuit as it was.
+ * <p>
+ * Every load failed fast is counted as having saved the time the failed loads of its host took
+ * on average.
+ */
+public class CircuitBreakingPageLoader implements PageLoader {
+    private static final Logger logger = CrawlLogger.getLogger(CircuitBreakingPageLoader.class);
+
+    private final PageLoader delegate;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder failedFast = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    public CircuitBreakingPageLoader(PageLoader delegate, int failureThreshold, Duration openDuration) {
+        this(delegate, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreakingPageLoader(PageLoader delegate, int failureThreshold, Duration openDuration,
+                                     LongSupplier nanoTime) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("The circuit must open after at least one failure.");
+        }
+        this.delegate = delegate;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url) throws PageLoadException {
+        return loadPage(url, new FetchTrace());
+    }
+
+    @Override
+    public HtmlDocument loadPage(String url, FetchTrace trace) throws PageLoadException {
+        String host = UrlCanonicalizer.host(url).orElse("");
+        Circuit circuit = circuits.computeIfAbsent(host, ignored -> new Circuit());
+        long startedAt = nanoTime.getAsLong();
+        if (!circuit.admit(startedAt)) {
+            failedFast.increment();
+            savedNanos.add(circuit.averageFailureNanos());
+            throw new CircuitOpenException("Circuit open for " + host + ", not loading page: " + url, null);
+        }
+        HtmlDocument document;
+        try {
+            document = delegate.loadPage(url, trace);
+        } catch (PageLoadException e) {
+            if (!FailureClassifier.isTransient(e)) {
+                circuit.succeeded();
+            } else if (circuit.failed(startedAt, nanoTime.getAsLong())) {
+                opened.increment();
+                logger.warn("Circuit for {} opened after {} failures in a row, failing its pages fast for {} s",
+                        host, failureThreshold, openNanos / 1_000_000_000);
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            circuit.inconclusive();
+            throw e;
+        }
+        circuit.succeeded();
+        return document;
+    }
+
+    public boolean isOpen(String url) {
+        Circuit circuit = circuits.get(UrlCanonicalizer.host(url).orElse(""));
+        return circuit != null && circuit.isOpen();
+    }
+
+    public long openedCount() {
+        return opened.sum();
+    }
+
+    public long failedFastCount() {
+        return failedFast.sum();
+    }
+
+    /**
+     * @return the worker time estimated to be saved by failing loads fast
+     */
+    public long savedNanos() {
+        return savedNanos.sum();
+    }
+
+    public void logSummary() {
+        logger.info("Circuit breaker: opened {} times, {} loads failed fast, saving about {} s of worker time",
+                opened.sum(), failedFast.sum(), String.format("%.1f", savedNanos.sum() / 1e9));
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        /** The open duration has passed and one load is testing the host. */
+        PROBING
+    }
+
+    private final class Circuit {
+        private State state = State.CLOSED;
+        private int failuresInARow;
+        private long openUntil;
+        private long failures;
+        private long failureNanos;
+
+        synchronized boolean admit(long now) {
+            if (state == State.CLOSED) return true;
+            if (state == State.OPEN && now - openUntil >= 0) {
+                state = State.PROBING;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void succeeded() {
+            state = State.CLOSED;
+            failuresInARow = 0;
+        }
+
+        /**
+         * A load that failed for a reason other than a {@link PageLoadException} says nothing
+         * about the host; a probe ending that way leaves the next load to probe again.
+         */
+        synchronized void inconclusive() {
+            if (state == State.PROBING) state = State.OPEN;
+        }
+
+        /**
+         * @return whether this failure opened the circuit
+         */
+        synchronized boolean failed(long startedAt, long now) {
+            failures++;
+            failureNanos += now - startedAt;
+            failuresInARow++;
+            if (state == State.PROBING || (state == State.CLOSED && failuresInARow >= failureThreshold)) {
+                state = State.OPEN;
+                openUntil = now + openNanos;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isOpen() {
+            return state != State.CLOSED;
+        }
+
+        synchronized long averageFailureNanos() {
+            return failures == 0 ? 0 : failureNanos / failures;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package retry;
+
+import exceptions.CircuitOpenException;
+import exceptions.PageLoadException;
+import org.jsoup.UnsupportedMimeTypeException;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.UnknownHostException;
+import java.util.Set;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Tells failures that may go away when a page is loaded again from those that will not.
+ * <p>
+ * Transient are timeouts, refused or reset connections and other I/O errors, the HTTP statuses
+ * {@code 408}, {@code 425}, {@code 429}, {@code 500}, {@code 502}, {@code 503} and {@code 504},
+ * and loads skipped by an open circuit breaker. Permanent are all other HTTP statuses, unknown
+ * hosts, malformed URLs, failed TLS handshakes, responses that are not HTML, interrupted loads
+ * and any other error.
+ */
+public class FailureClassifier {
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 425, 429, 500, 502, 503, 504);
+    private static final Set<Class<? extends Throwable>> PERMANENT_CAUSES = Set.of(UnknownHostException.class,
+            MalformedURLException.class, SSLHandshakeException.class, UnsupportedMimeTypeException.class,
+            InterruptedException.class);
+
+    public static boolean isTransient(Throwable error) {
+        if (error instanceof CircuitOpenException) return true;
+        if (error instanceof PageLoadException loadError && loadError.statusCode().isPresent()) {
+            return TRANSIENT_STATUSES.contains(loadError.statusCode().getAsInt());
+        }
+        boolean ioError = false;
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> permanent : PERMANENT_CAUSES) {
+                if (permanent.isInstance(cause)) return false;
+            }
+            ioError |= cause instanceof IOException;
+        }
+        return ioError;
+    }
+}
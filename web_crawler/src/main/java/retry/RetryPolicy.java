@@ -0,0 +1,113 @@
+package retry;
+
+import org.slf4j.Logger;
+import util.CrawlLogger;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Decides whether a failed page is loaded again and after which delay.
+ * <p>
+ * Only {@link FailureClassifier#isTransient transient} failures are retried, up to
+ * {@code maxAttempts} attempts per page. The delay doubles with every failed attempt up to the
+ * maximum backoff and is jittered to between half and all of that, so pages of a host that
+ * failed together are not retried together. The crawler hands the page back to the frontier
+ * with the delay rather than waiting on the worker thread, so the backoff is reported as
+ * worker time saved.
+ */
+public class RetryPolicy {
+    private static final Logger logger = CrawlLogger.getLogger(RetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final DoubleSupplier random;
+    private final ConcurrentMap<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this(maxAttempts, initialBackoff, maxBackoff, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param random values between 0 and 1 that jitter the delays
+     */
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, DoubleSupplier random) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.random = random;
+    }
+
+    /**
+     * Records a failed attempt at a page
+     *
+     * @return the delay before the next attempt, or empty if the page has failed for good
+     */
+    public OptionalLong retryDelayNanos(String normalizedUrl, Throwable error) {
+        int failed = failedAttempts.merge(normalizedUrl, 1, Integer::sum);
+        if (failed >= maxAttempts || !FailureClassifier.isTransient(error)) {
+            failedAttempts.remove(normalizedUrl);
+            if (failed > 1) gaveUp.increment();
+            return OptionalLong.empty();
+        }
+        long delay = backoffNanos(failed);
+        retries.increment();
+        backoffNanos.add(delay);
+        return OptionalLong.of(delay);
+    }
+
+    /**
+     * Records that a page was loaded, possibly after retries
+     */
+    public void succeeded(String normalizedUrl) {
+        if (failedAttempts.isEmpty()) return;
+        if (failedAttempts.remove(normalizedUrl) != null) recovered.increment();
+    }
+
+    /**
+     * @param failed number of failed attempts so far, at least 1
+     */
+    protected long backoffNanos(int failed) {
+        double ceiling = Math.min(maxBackoffNanos, initialBackoffNanos * Math.pow(2, failed - 1));
+        return (long) (ceiling / 2 + random.getAsDouble() * ceiling / 2);
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public long recoveredCount() {
+        return recovered.sum();
+    }
+
+    public long gaveUpCount() {
+        return gaveUp.sum();
+    }
+
+    public long backoffNanos() {
+        return backoffNanos.sum();
+    }
+
+    public void logSummary() {
+        if (maxAttempts == 1) return;
+        logger.info("Retries: {} scheduled, {} pages recovered, {} pages failed after retrying, "
+                        + "{} s of backoff waited out by the frontier instead of worker threads",
+                retries.sum(), recovered.sum(), gaveUp.sum(), String.format("%.1f", backoffNanos.sum() / 1e9));
+    }
+}
@@ -0,0 +1,93 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * The building blocks shared by the binary files of the crawler: a header of a magic number
+ * and a version, and strings written as their UTF-8 length followed by the bytes, {@code -1}
+ * for null. Compressed files are deflate streams at the fastest level.
+ */
+public final class BinaryFormat {
+    /**
+     * Longer strings are taken as a sign of a corrupt file rather than allocated
+     */
+    public static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BinaryFormat() {
+    }
+
+    public static DataOutputStream openDeflated(Path file) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        return new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(file), deflater, BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            deflater.end();
+                        }
+                    }
+                }, BUFFER_SIZE));
+    }
+
+    public static DataInputStream openInflated(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new InflaterInputStream(Files.newInputStream(file)), BUFFER_SIZE));
+    }
+
+    public static void writeHeader(DataOutputStream output, int magic, int version) throws IOException {
+        output.writeInt(magic);
+        output.writeInt(version);
+    }
+
+    /**
+     * @param description what the file should be, for the error message
+     * @throws IOException if the file does not start with the magic number and version
+     */
+    public static void readHeader(DataInputStream input, int magic, int version, String description) throws IOException {
+        if (input.readInt() != magic || input.readInt() != version) {
+            throw new IOException("Not a " + description + " of version " + version);
+        }
+    }
+
+    public static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * @throws IOException if the length is below {@code -1} or above {@link #MAX_STRING_BYTES}
+     */
+    public static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == -1) return null;
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
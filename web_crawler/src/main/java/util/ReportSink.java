@@ -0,0 +1,125 @@
+package util;
+
+import exceptions.ReportFileException;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps one buffered handle open for the lifetime of a report instead of reopening the file
+ * for every line. Output reaches the disk in blocks of {@link #BUFFER_SIZE} characters.
+ */
+public class ReportSink implements AutoCloseable {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String path;
+    private final CountingOutputStream output;
+    private final BufferedWriter writer;
+    private long linesWritten;
+
+    private ReportSink(String path, OutputStream output) {
+        this.path = path;
+        this.output = new CountingOutputStream(output);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the report file, replacing any previous content
+     *
+     * @param path the path of the report file
+     * @return a sink writing to the file
+     * @throws ReportFileException if the file cannot be opened
+     */
+    public static ReportSink open(String path) throws ReportFileException {
+        try {
+            return new ReportSink(path, Files.newOutputStream(Path.of(path)));
+        } catch (IOException e) {
+            throw new ReportFileException("Failed to open report file: " + path, e);
+        }
+    }
+
+    public void writeLine(String content) throws ReportFileException {
+        try {
+            writer.write(content);
+            writer.newLine();
+            linesWritten++;
+        } catch (IOException e) {
+            throw new ReportFileException("Failed to append to report file: " + path, e);
+        }
+    }
+
+    /**
+     * Closes another sink and copies everything it wrote to the end of this report
+     *
+     * @param segment the sink whose file is appended
+     * @throws ReportFileException if either file cannot be accessed
+     */
+    public void appendContentOf(ReportSink segment) throws ReportFileException {
+        segment.close();
+        try {
+            writer.flush();
+            Files.copy(Path.of(segment.path), output);
+            linesWritten += segment.linesWritten;
+        } catch (IOException e) {
+            throw new ReportFileException("Failed to append " + segment.path + " to report file: " + path, e);
+        }
+    }
+
+    public void flush() throws ReportFileException {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new ReportFileException("Failed to flush report file: " + path, e);
+        }
+    }
+
+    public long linesWritten() {
+        return linesWritten;
+    }
+
+    /**
+     * @return the number of bytes that reached the file; buffered output is only counted once flushed
+     */
+    public long bytesWritten() {
+        return output.count;
+    }
+
+    public ReportStats stats() {
+        return new ReportStats(linesWritten, bytesWritten());
+    }
+
+    @Override
+    public void close() throws ReportFileException {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new ReportFileException("Failed to close report file: " + path, e);
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package util;
+
+/**
+ * Size of a written report.
+ *
+ * @param lines the number of lines written
+ * @param bytes the number of bytes written
+ */
+public record ReportStats(long lines, long bytes) {
+    public static ReportStats empty() {
+        return new ReportStats(0, 0);
+    }
+}
@@ -17,26 +17,28 @@ import java.util.List;
  */
 public class ReportWriter {
     private static final Logger logger = CrawlLogger.getLogger(ReportWriter.class);
-    private final String reportPath;
+    protected final String reportPath;
 
     public ReportWriter(String reportPath) {
         this.reportPath = reportPath;
-        try {
-            ReportFile.clearFile(reportPath);
-        } catch (ReportFileException e) {
-            logger.error("Failed to clear report file: " + reportPath);
-            e.printStackTrace();
-        }    }
+    }
 
-    public void writeReport(List<CrawlResult> pages, URL rootUrl) {
-        writeReportHeader(rootUrl);
-        List<CrawlResult> sortedPages = sortPagesByDepth(pages);
-        writePagesToReport(sortedPages);
+    public ReportStats writeReport(List<CrawlResult> pages, URL rootUrl) {
+        try (ReportSink sink = ReportSink.open(reportPath)) {
+            writeReportHeader(sink, rootUrl);
+            List<CrawlResult> sortedPages = sortPagesByDepth(pages);
+            writePagesToReport(sink, sortedPages);
+            sink.flush();
+            return sink.stats();
+        } catch (ReportFileException e) {
+            logger.error("Failed to write report file: {}", reportPath, e);
+            return ReportStats.empty();
+        }
     }
 
-    protected void writeReportHeader(URL rootUrl) {
-        writeLine(Markdown.createHeading("Crawled Website Report", 1, 0));
-        writeLine(Markdown.createHeading("Results for: " + rootUrl, 2, 0));
+    protected void writeReportHeader(ReportSink sink, URL rootUrl) {
+        writeLine(sink, Markdown.createHeading("Crawled Website Report", 1, 0));
+        writeLine(sink, Markdown.createHeading("Results for: " + rootUrl, 2, 0));
     }
 
     protected List<CrawlResult> sortPagesByDepth(List<CrawlResult> pages) {
@@ -45,22 +47,26 @@ public class ReportWriter {
                 .toList();
     }
 
-    protected void writePagesToReport(List<CrawlResult> pages) {
+    protected void writePagesToReport(ReportSink sink, List<CrawlResult> pages) {
         for (CrawlResult page : pages) {
-            writePageLinkInfo(page);
-            writePageHeadings(page);
+            writePage(sink, page);
         }
     }
 
-    protected void writePageLinkInfo(CrawlResult page) {
-        writeLine(Markdown.createLinkInfo(page.pageUrl, page.currentDepth, page.isFetchFailed));
-        writeLine("<br>depth:" + page.currentDepth);
+    protected void writePage(ReportSink sink, CrawlResult page) {
+        writePageLinkInfo(sink, page);
+        writePageHeadings(sink, page);
+    }
+
+    protected void writePageLinkInfo(ReportSink sink, CrawlResult page) {
+        writeLine(sink, Markdown.createLinkInfo(page.pageUrl, page.currentDepth, page.isFetchFailed));
+        writeLine(sink, "<br>depth:" + page.currentDepth);
     }
 
-    protected void writePageHeadings(CrawlResult page) {
+    protected void writePageHeadings(ReportSink sink, CrawlResult page) {
         if (hasNoHeadings(page)) return;
         for (String heading : page.headings) {
-            writeParsedHeadingIfValid(heading, page.currentDepth);
+            writeParsedHeadingIfValid(sink, heading, page.currentDepth);
         }
     }
 
@@ -68,17 +74,17 @@ public class ReportWriter {
         return page.headings == null || page.headings.isEmpty();
     }
 
-    protected void writeParsedHeadingIfValid(String rawHeading, int depth) {
+    protected void writeParsedHeadingIfValid(ReportSink sink, String rawHeading, int depth) {
         Markdown.extractHeading(rawHeading, depth)
-                .ifPresent(this::writeLine);
+                .ifPresent(line -> writeLine(sink, line));
 
     }
 
-    protected void writeLine(String content) {
+    protected void writeLine(ReportSink sink, String content) {
         try {
-            ReportFile.appendToReport(reportPath, content);
+            sink.writeLine(content);
         } catch (ReportFileException e) {
-            logger.error("Failed to append to report file: " + reportPath);
+            logger.error("Failed to append to report file: {}", reportPath);
             e.printStackTrace();
         }
     }
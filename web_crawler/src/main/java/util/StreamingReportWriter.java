@@ -0,0 +1,106 @@
+package util;
+
+import exceptions.ReportFileException;
+import model.CrawlResult;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Writes pages while the crawl is still running, so results do not have to stay in memory until
+ * it ends. Every depth gets its own temporary segment file next to the report; {@link #finish}
+ * writes the header and concatenates the segments in depth order. Within one depth, pages
+ * appear in the order they finished rather than sorted by URL.
+ */
+public class StreamingReportWriter extends ReportWriter implements Consumer<CrawlResult> {
+    private static final Logger logger = CrawlLogger.getLogger(StreamingReportWriter.class);
+
+    private final URL rootUrl;
+    private final Map<Integer, Segment> segmentsByDepth = new TreeMap<>();
+    private boolean finished;
+
+    public StreamingReportWriter(String reportPath, URL rootUrl) {
+        super(reportPath);
+        this.rootUrl = rootUrl;
+    }
+
+    @Override
+    public synchronized void accept(CrawlResult page) {
+        if (finished) {
+            throw new IllegalStateException("Report has already been finished: " + reportPath);
+        }
+        try {
+            writePage(segmentFor(page.currentDepth).sink, page);
+        } catch (ReportFileException e) {
+            logger.error("Failed to write {} to the report segment.", page.pageUrl, e);
+        }
+    }
+
+    /**
+     * Merges all segments into the report file and removes them
+     *
+     * @return the size of the merged report
+     */
+    public synchronized ReportStats finish() {
+        finished = true;
+        try (ReportSink sink = ReportSink.open(reportPath)) {
+            writeReportHeader(sink, rootUrl);
+            for (Segment segment : segmentsByDepth.values()) {
+                sink.appendContentOf(segment.sink);
+            }
+            sink.flush();
+            return sink.stats();
+        } catch (ReportFileException e) {
+            logger.error("Failed to write report file: {}", reportPath, e);
+            return ReportStats.empty();
+        } finally {
+            deleteSegments();
+        }
+    }
+
+    @Override
+    public ReportStats writeReport(List<CrawlResult> pages, URL rootUrl) {
+        pages.forEach(this::accept);
+        return finish();
+    }
+
+    protected Segment segmentFor(int depth) throws ReportFileException {
+        Segment segment = segmentsByDepth.get(depth);
+        if (segment == null) {
+            segment = Segment.create(reportPath, depth);
+            segmentsByDepth.put(depth, segment);
+        }
+        return segment;
+    }
+
+    private void deleteSegments() {
+        for (Segment segment : segmentsByDepth.values()) {
+            try {
+                segment.sink.close();
+                Files.deleteIfExists(segment.file);
+            } catch (ReportFileException | IOException e) {
+                logger.warn("Failed to delete report segment {}", segment.file, e);
+            }
+        }
+        segmentsByDepth.clear();
+    }
+
+    protected record Segment(Path file, ReportSink sink) {
+        static Segment create(String reportPath, int depth) throws ReportFileException {
+            Path report = Path.of(reportPath).toAbsolutePath();
+            try {
+                Path file = Files.createTempFile(report.getParent(), report.getFileName() + ".depth-" + depth + "-", ".part");
+                return new Segment(file, ReportSink.open(file.toString()));
+            } catch (IOException e) {
+                throw new ReportFileException("Failed to create report segment for depth " + depth, e);
+            }
+        }
+    }
+}
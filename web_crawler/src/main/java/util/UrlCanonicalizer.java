@@ -0,0 +1,247 @@
+package util;
+
+import config.QueryMode;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Hand-written URL canonicalizer that scans the string once instead of going through
+ * {@link java.net.URL} and regular expressions.
+ * <p>
+ * The canonical form lower-cases scheme and host, adds the {@code www.} prefix the crawler has
+ * always used for host names, drops user info, default ports and the fragment, resolves
+ * {@code .} and {@code ..} path segments, removes one trailing slash and treats the query as
+ * configured by its {@link QueryMode}.
+ */
+public class UrlCanonicalizer {
+    public static final UrlCanonicalizer DEFAULT = new UrlCanonicalizer(QueryMode.DROP);
+
+    private static final String WWW_PREFIX = "www.";
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "mc_cid", "mc_eid", "_ga",
+            "sid", "sessionid", "session_id", "jsessionid", "phpsessid");
+
+    private final QueryMode queryMode;
+
+    public UrlCanonicalizer(QueryMode queryMode) {
+        this.queryMode = queryMode;
+    }
+
+    public static UrlCanonicalizer forMode(QueryMode queryMode) {
+        return queryMode == QueryMode.DROP ? DEFAULT : new UrlCanonicalizer(queryMode);
+    }
+
+    public Optional<String> canonicalize(String rawUrl) {
+        int start = 0;
+        int end = rawUrl.length();
+        while (start < end && rawUrl.charAt(start) <= ' ') start++;
+        while (end > start && rawUrl.charAt(end - 1) <= ' ') end--;
+
+        int schemeEnd = schemeEnd(rawUrl, start, end);
+        if (schemeEnd < 0) return Optional.empty();
+
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = indexOfAny(rawUrl, "/?#", authorityStart, end);
+        int hostStart = rawUrl.lastIndexOf('@', authorityEnd - 1) + 1;
+        if (hostStart < authorityStart) hostStart = authorityStart;
+        int portStart = portSeparator(rawUrl, hostStart, authorityEnd);
+        int hostEnd = portStart < 0 ? authorityEnd : portStart;
+        if (hostEnd == hostStart) return Optional.empty();
+
+        StringBuilder canonical = new StringBuilder(end - start + WWW_PREFIX.length());
+        appendLowerCase(canonical, rawUrl, start, schemeEnd);
+        int schemeLength = canonical.length();
+        canonical.append("://");
+        if (!isIpLiteral(rawUrl, hostStart, hostEnd) && !rawUrl.regionMatches(true, hostStart, WWW_PREFIX, 0, WWW_PREFIX.length())) {
+            canonical.append(WWW_PREFIX);
+        }
+        appendLowerCase(canonical, rawUrl, hostStart, hostEnd);
+        if (portStart >= 0 && !appendPort(canonical, rawUrl, portStart + 1, authorityEnd, schemeLength)) {
+            return Optional.empty();
+        }
+
+        int pathEnd = indexOfAny(rawUrl, "?#", authorityEnd, end);
+        appendPath(canonical, rawUrl, authorityEnd, pathEnd);
+
+        if (queryMode != QueryMode.DROP && pathEnd < end && rawUrl.charAt(pathEnd) == '?') {
+            appendQuery(canonical, rawUrl, pathEnd + 1, indexOfAny(rawUrl, "#", pathEnd, end));
+        }
+        return Optional.of(canonical.toString());
+    }
+
+    /**
+     * Extracts the lower-cased host of a URL without validating the rest of it
+     *
+     * @param url an absolute URL
+     * @return the host, or empty if the URL has no scheme or authority
+     */
+    public static Optional<String> host(String url) {
+        int schemeEnd = schemeEnd(url, 0, url.length());
+        if (schemeEnd < 0) return Optional.empty();
+
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = indexOfAny(url, "/?#", authorityStart, url.length());
+        int hostStart = Math.max(authorityStart, url.lastIndexOf('@', authorityEnd - 1) + 1);
+        int portStart = portSeparator(url, hostStart, authorityEnd);
+        int hostEnd = portStart < 0 ? authorityEnd : portStart;
+        if (hostEnd == hostStart) return Optional.empty();
+
+        StringBuilder host = new StringBuilder(hostEnd - hostStart);
+        appendLowerCase(host, url, hostStart, hostEnd);
+        return Optional.of(host.toString());
+    }
+
+    private static int schemeEnd(String url, int start, int end) {
+        if (start >= end || !isAsciiLetter(url.charAt(start))) return -1;
+        for (int i = start + 1; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return url.startsWith("//", i + 1) ? i : -1;
+            }
+            if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.') return -1;
+        }
+        return -1;
+    }
+
+    private static int portSeparator(String url, int hostStart, int authorityEnd) {
+        int searchFrom = hostStart;
+        if (hostStart < authorityEnd && url.charAt(hostStart) == '[') {
+            int closing = url.indexOf(']', hostStart);
+            if (closing < 0 || closing >= authorityEnd) return -1;
+            searchFrom = closing;
+        }
+        int colon = url.indexOf(':', searchFrom);
+        return colon >= 0 && colon < authorityEnd ? colon : -1;
+    }
+
+    private static boolean appendPort(StringBuilder canonical, String url, int start, int end, int schemeLength) {
+        if (start == end) return true;
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9' || port > 65535) return false;
+            port = port * 10 + (c - '0');
+        }
+        if (port > 65535) return false;
+        if (port != defaultPort(canonical, schemeLength)) {
+            canonical.append(':').append(port);
+        }
+        return true;
+    }
+
+    private static int defaultPort(CharSequence canonical, int schemeLength) {
+        if (schemeLength == 4 && startsWith(canonical, "http")) return 80;
+        if (schemeLength == 5 && startsWith(canonical, "https")) return 443;
+        return -1;
+    }
+
+    private static void appendPath(StringBuilder canonical, String url, int start, int end) {
+        int pathStart = canonical.length();
+        if (hasDotSegment(url, start, end)) {
+            appendResolvedPath(canonical, url, start, end);
+        } else {
+            canonical.append(url, start, end);
+        }
+        if (canonical.length() > pathStart && canonical.charAt(canonical.length() - 1) == '/') {
+            canonical.setLength(canonical.length() - 1);
+        }
+    }
+
+    private static boolean hasDotSegment(String url, int start, int end) {
+        for (int i = url.indexOf("/.", start); i >= 0 && i < end; i = url.indexOf("/.", i + 1)) {
+            int afterDot = i + 2;
+            if (afterDot == end || url.charAt(afterDot) == '/') return true;
+            if (url.charAt(afterDot) == '.' && (afterDot + 1 == end || url.charAt(afterDot + 1) == '/')) return true;
+        }
+        return false;
+    }
+
+    /*
+        RFC 3986 remove_dot_segments for absolute paths: segments are copied to the output and
+        ".." truncates it back to the previous slash.
+     */
+    private static void appendResolvedPath(StringBuilder canonical, String url, int start, int end) {
+        int pathStart = canonical.length();
+        int segmentStart = start + 1;
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) segmentEnd = end;
+            int length = segmentEnd - segmentStart;
+            boolean last = segmentEnd == end;
+
+            if (length == 1 && url.charAt(segmentStart) == '.') {
+                if (last) canonical.append('/');
+            } else if (length == 2 && url.charAt(segmentStart) == '.' && url.charAt(segmentStart + 1) == '.') {
+                int previousSlash = canonical.lastIndexOf("/");
+                canonical.setLength(Math.max(pathStart, previousSlash));
+                if (last) canonical.append('/');
+            } else {
+                canonical.append('/').append(url, segmentStart, segmentEnd);
+            }
+            segmentStart = segmentEnd + 1;
+        }
+    }
+
+    private void appendQuery(StringBuilder canonical, String url, int start, int end) {
+        if (start >= end) return;
+        if (queryMode == QueryMode.KEEP) {
+            canonical.append('?').append(url, start, end);
+            return;
+        }
+
+        char separator = '?';
+        int parameterStart = start;
+        while (parameterStart < end) {
+            int parameterEnd = url.indexOf('&', parameterStart);
+            if (parameterEnd < 0 || parameterEnd > end) parameterEnd = end;
+            if (parameterEnd > parameterStart && !isTrackingParameter(url, parameterStart, parameterEnd)) {
+                canonical.append(separator).append(url, parameterStart, parameterEnd);
+                separator = '&';
+            }
+            parameterStart = parameterEnd + 1;
+        }
+    }
+
+    private static boolean isTrackingParameter(String url, int start, int end) {
+        int nameEnd = url.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end) nameEnd = end;
+        if (url.regionMatches(true, start, "utm_", 0, 4)) return true;
+        return TRACKING_PARAMETERS.contains(url.substring(start, nameEnd).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isIpLiteral(String url, int start, int end) {
+        if (url.charAt(start) == '[') return true;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') return false;
+        }
+        return true;
+    }
+
+    private static void appendLowerCase(StringBuilder target, String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            target.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+    }
+
+    private static int indexOfAny(String url, String characters, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (characters.indexOf(url.charAt(i)) >= 0) return i;
+        }
+        return end;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean startsWith(CharSequence text, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+package visited;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Blocked Bloom filter over 64-bit hashes.
+ * <p>
+ * All probes of one hash fall into the same 512-bit block, which is a single cache line, so a
+ * lookup costs one cache miss at most. Lookups are lock-free; a put that has bits to set holds
+ * the lock striped over its block, so of two concurrent puts of the same hash only one sees a
+ * bit change. Bits are never cleared.
+ */
+public class BloomFilter {
+    static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+    private static final int PROBES_PER_MIX = 7;
+    private static final int LOCK_STRIPES = 64;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final int blockMask;
+    private final int probeCount;
+    private final LongAdder insertions = new LongAdder();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param expectedInsertions number of distinct hashes the filter is sized for
+     * @param falsePositiveRate  target false-positive rate once {@code expectedInsertions} hashes were added
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be at least 1.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+        }
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long blocks = Math.max(1, (long) Math.ceil(expectedInsertions * bitsPerEntry / BLOCK_BITS));
+        int blockCount = (int) Math.min(1 << 26, Long.highestOneBit(blocks - 1 | 1) << 1);
+        this.words = new long[blockCount * WORDS_PER_BLOCK];
+        this.blockMask = blockCount - 1;
+        this.probeCount = (int) Math.max(1, Math.min(16, Math.round(bitsPerEntry * Math.log(2))));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return true if the hash may have been added before, false if it certainly has not
+     */
+    public boolean mightContain(long hash) {
+        int blockStart = blockStart(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < probeCount; i++) {
+            if (i > 0 && i % PROBES_PER_MIX == 0) probes = mix(probes);
+            int bit = (int) (probes >>> (9 * (i % PROBES_PER_MIX))) & (BLOCK_BITS - 1);
+            long word = (long) WORDS.getOpaque(words, blockStart + (bit >>> 6));
+            if ((word & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if this call set at least one bit, which means the hash had certainly not been
+     * added before; false if it may have been
+     */
+    public boolean put(long hash) {
+        if (mightContain(hash)) return false;
+        int blockStart = blockStart(hash);
+        boolean changed = false;
+        synchronized (locks[(blockStart / WORDS_PER_BLOCK) & (LOCK_STRIPES - 1)]) {
+            long probes = mix(hash);
+            for (int i = 0; i < probeCount; i++) {
+                if (i > 0 && i % PROBES_PER_MIX == 0) probes = mix(probes);
+                int bit = (int) (probes >>> (9 * (i % PROBES_PER_MIX))) & (BLOCK_BITS - 1);
+                long mask = 1L << bit;
+                long previous = (long) WORDS.getAndBitwiseOr(words, blockStart + (bit >>> 6), mask);
+                changed |= (previous & mask) == 0;
+            }
+        }
+        if (changed) insertions.increment();
+        return changed;
+    }
+
+    public long bitCount() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    public int probeCount() {
+        return probeCount;
+    }
+
+    /**
+     * @return the false-positive rate to expect for the number of hashes added so far
+     */
+    public double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) probeCount * insertions.sum() / bitCount());
+        return Math.pow(fill, probeCount);
+    }
+
+    private int blockStart(long hash) {
+        return ((int) hash & blockMask) * WORDS_PER_BLOCK;
+    }
+
+    private static long mix(long hash) {
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
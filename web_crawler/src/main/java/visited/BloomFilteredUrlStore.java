@@ -0,0 +1,69 @@
+package visited;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Exact {@link SeenUrlStore} with a {@link BloomFilter} in front.
+ * <p>
+ * The filter can only prove that a URL is new, so {@link #isClaimed(String)} answers most unseen
+ * URLs without touching the exact store, while every claim is still decided by the exact store.
+ * Because of that the filter's false positives can be counted: a URL the filter reported as
+ * possibly seen that the exact store then accepts as new.
+ */
+public class BloomFilteredUrlStore implements SeenUrlStore {
+    private final BloomFilter filter;
+    private final SeenUrlStore exactStore;
+    private final LongAdder newUrls = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public BloomFilteredUrlStore(BloomFilter filter, SeenUrlStore exactStore) {
+        this.filter = filter;
+        this.exactStore = exactStore;
+    }
+
+    @Override
+    public boolean claim(String normalizedUrl) {
+        boolean certainlyNew = filter.put(FingerprintUrlSet.fingerprint(normalizedUrl));
+        boolean claimed = exactStore.claim(normalizedUrl);
+        if (claimed) {
+            newUrls.increment();
+            if (!certainlyNew) falsePositives.increment();
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean isClaimed(String normalizedUrl) {
+        return filter.mightContain(FingerprintUrlSet.fingerprint(normalizedUrl)) && exactStore.isClaimed(normalizedUrl);
+    }
+
+    @Override
+    public long size() {
+        return exactStore.size();
+    }
+
+    @Override
+    public long preventedDuplicateCount() {
+        return exactStore.preventedDuplicateCount();
+    }
+
+    public long falsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * @return the share of new URLs the filter reported as possibly seen
+     */
+    @Override
+    public OptionalDouble falsePositiveRate() {
+        long claimed = newUrls.sum();
+        return claimed == 0 ? OptionalDouble.of(0) : OptionalDouble.of((double) falsePositives.sum() / claimed);
+    }
+}
@@ -0,0 +1,62 @@
+package visited;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Lossy {@link SeenUrlStore} that only consults a {@link BloomFilter}. A repeated URL is rejected
+ * with one cache-line read, but a false positive makes the crawler skip a URL it has never seen.
+ * The filter uses about 10 bits per expected URL at a 1% false-positive rate.
+ */
+public class BloomUrlSet implements SeenUrlStore {
+    private final BloomFilter filter;
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder preventedDuplicates = new LongAdder();
+
+    public BloomUrlSet(long expectedUrls, double falsePositiveRate) {
+        this.filter = new BloomFilter(expectedUrls, falsePositiveRate);
+    }
+
+    @Override
+    public boolean claim(String normalizedUrl) {
+        if (filter.put(FingerprintUrlSet.fingerprint(normalizedUrl))) {
+            claimed.increment();
+            return true;
+        }
+        preventedDuplicates.increment();
+        return false;
+    }
+
+    @Override
+    public boolean isClaimed(String normalizedUrl) {
+        return filter.mightContain(FingerprintUrlSet.fingerprint(normalizedUrl));
+    }
+
+    @Override
+    public long size() {
+        return claimed.sum();
+    }
+
+    /**
+     * Includes new URLs that were wrongly rejected as false positives.
+     */
+    @Override
+    public long preventedDuplicateCount() {
+        return preventedDuplicates.sum();
+    }
+
+    /**
+     * Without an exact store the real rate cannot be observed; this is the rate expected from
+     * the number of URLs added so far.
+     */
+    @Override
+    public OptionalDouble falsePositiveRate() {
+        return OptionalDouble.of(filter.expectedFalsePositiveRate());
+    }
+}
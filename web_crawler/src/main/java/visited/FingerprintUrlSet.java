@@ -0,0 +1,166 @@
+package visited;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Seen-URL store that only keeps a 64-bit fingerprint per URL in open-addressing {@code long[]}
+ * tables, about 11 to 21 bytes per URL depending on how recently a table has grown.
+ * <p>
+ * The fingerprint space is split into independently locked stripes, so workers claiming URLs of
+ * different stripes never contend. Two distinct URLs with the same fingerprint are treated as one.
+ * With 64-bit fingerprints, a new URL is mistaken for one of 100 million claimed URLs with a
+ * probability of about 5 in 10^12; the chance that any two of those 100 million collide is about
+ * 3 in 10^4.
+ */
+public class FingerprintUrlSet implements SeenUrlStore {
+    static final int STRIPE_COUNT = 64;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final LongAdder preventedDuplicates = new LongAdder();
+
+    public FingerprintUrlSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedUrls number of URLs to size the tables for up front; the tables grow beyond it
+     */
+    public FingerprintUrlSet(int expectedUrls) {
+        int stripeCapacity = tableSizeFor((long) Math.max(0, expectedUrls) / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    @Override
+    public boolean claim(String normalizedUrl) {
+        long fingerprint = fingerprint(normalizedUrl);
+        if (stripeOf(fingerprint).add(fingerprint)) return true;
+        preventedDuplicates.increment();
+        return false;
+    }
+
+    @Override
+    public boolean isClaimed(String normalizedUrl) {
+        long fingerprint = fingerprint(normalizedUrl);
+        return stripeOf(fingerprint).contains(fingerprint);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long preventedDuplicateCount() {
+        return preventedDuplicates.sum();
+    }
+
+    /**
+     * @return the bytes held by the fingerprint tables
+     */
+    public long tableBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.capacity() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Stripe stripeOf(long fingerprint) {
+        return stripes[(int) (fingerprint >>> 58)];
+    }
+
+    /*
+        Multiply-xorshift over four UTF-16 chars per round, which keeps the chain of dependent
+        multiplications short, with FNV-1a for the tail. The MurmurHash3 fmix64 step mixes the
+        result so that the low bits used for the table slot and the high bits used for the
+        stripe are both well spread.
+        Zero marks an empty slot and is never returned.
+     */
+    static long fingerprint(String url) {
+        int length = url.length();
+        long hash = 0xcbf29ce484222325L ^ length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long chars = url.charAt(i) | (long) url.charAt(i + 1) << 16
+                    | (long) url.charAt(i + 2) << 32 | (long) url.charAt(i + 3) << 48;
+            hash = (hash ^ chars) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 32;
+        }
+        for (; i < length; i++) {
+            hash = (hash ^ url.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int tableSizeFor(long entries) {
+        long minimum = Math.max(MIN_STRIPE_CAPACITY, entries * 4 / 3 + 1);
+        return (int) Math.min(1L << 30, Long.highestOneBit(minimum - 1) << 1);
+    }
+
+    private static final class Stripe {
+        private long[] table;
+        private int size = 0;
+
+        private Stripe(int capacity) {
+            table = new long[capacity];
+        }
+
+        synchronized boolean add(long fingerprint) {
+            int slot = slotOf(table, fingerprint);
+            if (table[slot] == fingerprint) return false;
+            table[slot] = fingerprint;
+            if (++size > table.length / 4 * 3) grow();
+            return true;
+        }
+
+        synchronized boolean contains(long fingerprint) {
+            return table[slotOf(table, fingerprint)] == fingerprint;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int capacity() {
+            return table.length;
+        }
+
+        private void grow() {
+            long[] grown = new long[table.length * 2];
+            for (long fingerprint : table) {
+                if (fingerprint != 0) grown[slotOf(grown, fingerprint)] = fingerprint;
+            }
+            table = grown;
+        }
+
+        /**
+         * @return the slot holding the fingerprint, or the empty slot where it belongs
+         */
+        private static int slotOf(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int slot = (int) fingerprint & mask;
+            while (table[slot] != 0 && table[slot] != fingerprint) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
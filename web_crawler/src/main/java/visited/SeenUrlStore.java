@@ -0,0 +1,50 @@
+package visited;
+
+import config.SeenUrlSettings;
+import dictionary.UrlDictionary;
+
+import java.util.OptionalDouble;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Remembers which normalized URLs have already been handed to a crawl worker.
+ * <p>
+ * {@link #claim(String)} checks and marks a URL in one atomic step, so two workers that
+ * discover the same link at the same time can never both fetch it.
+ */
+public interface SeenUrlStore {
+
+    /**
+     * @return true if the caller is the first to claim the URL and should crawl it
+     */
+    boolean claim(String normalizedUrl);
+
+    boolean isClaimed(String normalizedUrl);
+
+    long size();
+
+    long preventedDuplicateCount();
+
+    /**
+     * @return the share of new URLs wrongly treated as seen, for stores that can report it
+     */
+    default OptionalDouble falsePositiveRate() {
+        return OptionalDouble.empty();
+    }
+
+    static SeenUrlStore forSettings(SeenUrlSettings settings, UrlDictionary dictionary) {
+        return switch (settings.mode()) {
+            case EXACT -> new VisitedUrlSet(dictionary);
+            case FINGERPRINT -> new FingerprintUrlSet(settings.expectedUrls());
+            case BLOOM -> new BloomUrlSet(settings.expectedUrls(), settings.falsePositiveRate());
+            case TWO_TIER -> new BloomFilteredUrlStore(
+                    new BloomFilter(settings.expectedUrls(), settings.falsePositiveRate()),
+                    new VisitedUrlSet(dictionary));
+        };
+    }
+}
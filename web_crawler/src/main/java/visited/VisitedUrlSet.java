@@ -0,0 +1,69 @@
+package visited;
+
+import dictionary.UrlDictionary;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Participants:
+    - Philipp Arbeitstein [12205666]
+    - Philipp Kaiser [12203588]
+ */
+
+/**
+ * Exact {@link SeenUrlStore}. URLs are stored once in a {@link UrlDictionary}; the set itself is
+ * a bit per dictionary id.
+ */
+public class VisitedUrlSet implements SeenUrlStore {
+    private final UrlDictionary dictionary;
+    private final BitSet claimedIds = new BitSet();
+    private final LongAdder preventedDuplicates = new LongAdder();
+    private int claimedCount = 0;
+
+    public VisitedUrlSet() {
+        this(new UrlDictionary());
+    }
+
+    public VisitedUrlSet(UrlDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public boolean claim(String normalizedUrl) {
+        return claim(dictionary.intern(normalizedUrl));
+    }
+
+    public boolean claim(int urlId) {
+        synchronized (claimedIds) {
+            if (!claimedIds.get(urlId)) {
+                claimedIds.set(urlId);
+                claimedCount++;
+                return true;
+            }
+        }
+        preventedDuplicates.increment();
+        return false;
+    }
+
+    @Override
+    public boolean isClaimed(String normalizedUrl) {
+        int urlId = dictionary.idOf(normalizedUrl);
+        if (urlId == UrlDictionary.NOT_FOUND) return false;
+        synchronized (claimedIds) {
+            return claimedIds.get(urlId);
+        }
+    }
+
+    @Override
+    public long size() {
+        synchronized (claimedIds) {
+            return claimedCount;
+        }
+    }
+
+    @Override
+    public long preventedDuplicateCount() {
+        return preventedDuplicates.sum();
+    }
+}
@@ -0,0 +1,69 @@
+package cache;
+
+import exceptions.PageLoadException;
+import fetch.CacheControl;
+import fetch.HtmlDocument;
+import fetch.PageFetcher;
+import fetch.PageParser;
+import fetch.PageValidators;
+import fetch.RawPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPageLoaderTest {
+
+    @TempDir
+    private Path directory;
+
+    private final PageFetcher fetcher = mock(PageFetcher.class, CALLS_REAL_METHODS);
+    private final PageParser parser = mock(PageParser.class);
+    private final HtmlDocument document = mock(HtmlDocument.class);
+
+    @Test
+    void secondLoadIsServedFromTheCache() {
+        RawPage page = new RawPage("https://www.example.com", "<h1>Title</h1>".getBytes(StandardCharsets.UTF_8), null);
+        when(fetcher.fetch("https://www.example.com")).thenReturn(page);
+        when(parser.parse(any())).thenReturn(document);
+        PageCache cache = PageCache.open(directory, 1_000, Duration.ofHours(1));
+        CachingPageLoader loader = new CachingPageLoader(fetcher, parser, cache);
+
+        assertSame(document, loader.loadPage("https://www.example.com"));
+        assertSame(document, loader.loadPage("https://www.example.com"));
+
+        verify(fetcher, times(1)).fetch("https://www.example.com");
+        verify(parser, times(2)).parse(any());
+        assertEquals(1, cache.hitCount());
+        assertEquals(14, cache.bytesSaved());
+    }
+
+    @Test
+    void uncacheablePagesAreFetchedEveryTime() {
+        RawPage page = new RawPage("https://www.example.com", new byte[]{1}, null, PageValidators.NONE,
+                CacheControl.parse("no-store"));
+        when(fetcher.fetch("https://www.example.com")).thenReturn(page);
+        when(parser.parse(any())).thenReturn(document);
+        CachingPageLoader loader = new CachingPageLoader(fetcher, parser, PageCache.open(directory, 1_000, Duration.ofHours(1)));
+
+        loader.loadPage("https://www.example.com");
+        loader.loadPage("https://www.example.com");
+
+        verify(fetcher, times(2)).fetch("https://www.example.com");
+    }
+
+    @Test
+    void failedFetchIsNotCached() {
+        when(fetcher.fetch("https://fail.com")).thenThrow(new PageLoadException("fail", null));
+        PageCache cache = PageCache.open(directory, 1_000, Duration.ofHours(1));
+        CachingPageLoader loader = new CachingPageLoader(fetcher, parser, cache);
+
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://fail.com"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,183 @@
+package cache;
+
+import fetch.CacheControl;
+import fetch.PageValidators;
+import fetch.RawPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTest {
+
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+    @TempDir
+    private Path directory;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void storedPageIsServedWithCounters() {
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+
+        assertEquals(Optional.empty(), cache.get("https://www.example.com"));
+        cache.put("https://www.example.com", page("https://www.example.com/", "<h1>Title</h1>", CacheControl.NONE));
+        RawPage cached = cache.get("https://www.example.com").orElseThrow();
+
+        assertEquals("https://www.example.com/", cached.url());
+        assertEquals("<h1>Title</h1>", new String(cached.body(), StandardCharsets.UTF_8));
+        assertEquals("UTF-8", cached.charset());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(14, cache.bytesSaved());
+    }
+
+    @Test
+    void identicalBodiesShareOneFile() throws Exception {
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+
+        cache.put("https://www.example.com/a", page("https://www.example.com/a", "same", CacheControl.NONE));
+        cache.put("https://www.example.com/b", page("https://www.example.com/b", "same", CacheControl.NONE));
+
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.storedBytes());
+        assertEquals(1, bodyFileCount());
+    }
+
+    @Test
+    void maxAgeOverridesDefaultTimeToLive() {
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+        CacheControl tenSeconds = new CacheControl(false, false, Optional.of(Duration.ofSeconds(10)));
+
+        cache.put("https://www.example.com/short", page("https://www.example.com/short", "short", tenSeconds));
+        cache.put("https://www.example.com/long", page("https://www.example.com/long", "long", CacheControl.NONE));
+        clock.advance(Duration.ofSeconds(11));
+
+        assertEquals(Optional.empty(), cache.get("https://www.example.com/short"));
+        assertTrue(cache.get("https://www.example.com/long").isPresent());
+    }
+
+    @Test
+    void noStoreAndNoCacheResponsesAreNotKept() {
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+
+        cache.put("https://www.example.com/a", page("https://www.example.com/a", "a", CacheControl.parse("no-store")));
+        cache.put("https://www.example.com/b", page("https://www.example.com/b", "b", CacheControl.parse("no-cache")));
+        cache.put("https://www.example.com/c", page("https://www.example.com/c", "c", CacheControl.parse("max-age=0")));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedPagesAreEvictedBeyondTheSizeLimit() throws Exception {
+        PageCache cache = PageCache.open(directory, 10, ONE_HOUR, clock);
+        cache.put("https://www.example.com/a", page("https://www.example.com/a", "aaaa", CacheControl.NONE));
+        cache.put("https://www.example.com/b", page("https://www.example.com/b", "bbbb", CacheControl.NONE));
+        cache.get("https://www.example.com/a");
+
+        cache.put("https://www.example.com/c", page("https://www.example.com/c", "cccc", CacheControl.NONE));
+
+        assertTrue(cache.get("https://www.example.com/a").isPresent());
+        assertEquals(Optional.empty(), cache.get("https://www.example.com/b"));
+        assertTrue(cache.get("https://www.example.com/c").isPresent());
+        assertEquals(1, cache.evictionCount());
+        assertEquals(8, cache.storedBytes());
+        assertEquals(2, bodyFileCount());
+    }
+
+    @Test
+    void closedCacheIsReopenedWithItsPages() throws Exception {
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+        cache.put("https://www.example.com/a", page("https://www.example.com/a", "a", CacheControl.NONE));
+        cache.close();
+        Files.writeString(directory.resolve("orphan" + PageCache.BODY_SUFFIX), "orphan");
+
+        PageCache reopened = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+
+        assertEquals("a", new String(reopened.get("https://www.example.com/a").orElseThrow().body(), StandardCharsets.UTF_8));
+        assertEquals(1, bodyFileCount());
+    }
+
+    @Test
+    void unreadableIndexStartsEmpty() throws Exception {
+        Files.writeString(directory.resolve(PageCache.INDEX_FILE), "not an index");
+
+        PageCache cache = PageCache.open(directory, 1_000, ONE_HOUR, clock);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void concurrentWorkersShareTheCache() throws Exception {
+        PageCache cache = PageCache.open(directory, 200, ONE_HOUR, clock);
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int worker = 0; worker < 8; worker++) {
+            results.add(workers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    String url = "https://www.example.com/" + (i % 50);
+                    String body = "body-" + (i % 50);
+                    cache.get(url).ifPresent(page -> assertEquals(body, new String(page.body(), StandardCharsets.UTF_8)));
+                    cache.put(url, page(url, body, CacheControl.NONE));
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        workers.shutdown();
+
+        assertTrue(cache.storedBytes() <= 200);
+        assertEquals(cache.size(), bodyFileCount());
+    }
+
+    private static RawPage page(String url, String body, CacheControl cacheControl) {
+        return new RawPage(url, body.getBytes(StandardCharsets.UTF_8), "UTF-8", PageValidators.NONE, cacheControl);
+    }
+
+    private long bodyFileCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(PageCache.BODY_SUFFIX)).count();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.ofEpochMilli(1_000_000);
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package checkpoint;
+
+import exceptions.CheckpointException;
+import model.CrawlResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void latestIsEmptyWithoutCheckpoint() {
+        assertTrue(Checkpointer.latest(directory).isEmpty());
+    }
+
+    @Test
+    void checkpointReplacesThePreviousOne() throws Exception {
+        List<CrawlResult> pages = new CopyOnWriteArrayList<>();
+        Checkpointer checkpointer = new Checkpointer(directory, Duration.ofMinutes(1), new URL("https://www.example.com"),
+                () -> List.copyOf(pages));
+
+        pages.add(page("https://www.example.com"));
+        checkpointer.checkpoint();
+        pages.add(page("https://www.example.com/a"));
+        checkpointer.checkpoint();
+
+        assertEquals(2, Checkpointer.latest(directory).orElseThrow().pages().size());
+        assertFalse(Files.exists(directory.resolve(Checkpointer.CHECKPOINT_FILE + ".tmp")));
+    }
+
+    @Test
+    void checkpointsArePeriodicAndCloseWritesAFinalOne() throws Exception {
+        List<CrawlResult> pages = new CopyOnWriteArrayList<>(List.of(page("https://www.example.com")));
+        Checkpointer checkpointer = new Checkpointer(directory, Duration.ofMillis(20), new URL("https://www.example.com"),
+                () -> List.copyOf(pages));
+
+        checkpointer.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (Checkpointer.latest(directory).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Checkpointer.latest(directory).isPresent());
+
+        pages.add(page("https://www.example.com/a"));
+        checkpointer.close();
+        assertEquals(2, Checkpointer.latest(directory).orElseThrow().pages().size());
+    }
+
+    @Test
+    void failedFinalCheckpointDoesNotFailClose() throws Exception {
+        Path notADirectory = Files.writeString(directory.resolve("file"), "");
+        Checkpointer checkpointer = new Checkpointer(notADirectory, Duration.ofMinutes(1), new URL("https://www.example.com"),
+                () -> List.of(page("https://www.example.com")));
+
+        assertThrows(CheckpointException.class, checkpointer::checkpoint);
+        assertDoesNotThrow(checkpointer::close);
+    }
+
+    @Test
+    void latestFailsOnCorruptCheckpoint() throws Exception {
+        Files.writeString(directory.resolve(Checkpointer.CHECKPOINT_FILE), "corrupt");
+
+        assertThrows(CheckpointException.class, () -> Checkpointer.latest(directory));
+    }
+
+    private CrawlResult page(String url) {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = url;
+        page.headings = List.of();
+        page.childLinks = List.of();
+        return page;
+    }
+}
@@ -0,0 +1,61 @@
+package checkpoint;
+
+import model.CrawlResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void pagesSurviveTheRoundTrip() throws Exception {
+        URL rootUrl = new URL("https://www.example.com");
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = "https://www.example.com/straße";
+        page.currentDepth = 2;
+        page.headings = List.of("h1:Title", "h2:Über");
+        page.childLinks = List.of("https://www.example.com/a", "https://www.example.com/b");
+        page.parentUrls.add(rootUrl);
+        CrawlResult failed = new CrawlResult();
+        failed.pageUrl = "https://www.example.com/broken";
+        failed.isFetchFailed = true;
+        Path file = directory.resolve("checkpoint.bin");
+
+        new CrawlSnapshot(rootUrl, Instant.ofEpochMilli(1_000), List.of(page, failed)).writeTo(file);
+        CrawlSnapshot restored = CrawlSnapshot.readFrom(file);
+
+        assertEquals(rootUrl.toString(), restored.rootUrl().toString());
+        assertEquals(Instant.ofEpochMilli(1_000), restored.createdAt());
+        assertEquals(2, restored.pages().size());
+        CrawlResult restoredPage = restored.pages().get(0);
+        assertEquals(page.pageUrl, restoredPage.pageUrl);
+        assertEquals(2, restoredPage.currentDepth);
+        assertEquals(page.headings, restoredPage.headings);
+        assertEquals(page.childLinks, restoredPage.childLinks);
+        assertEquals(Set.of(rootUrl.toString()), Set.of(restoredPage.parentUrls.iterator().next().toString()));
+        CrawlResult restoredFailure = restored.pages().get(1);
+        assertTrue(restoredFailure.isFetchFailed);
+        assertNull(restoredFailure.headings);
+        assertNull(restoredFailure.childLinks);
+    }
+
+    @Test
+    void readRejectsOtherFiles() throws Exception {
+        Path file = directory.resolve("checkpoint.bin");
+        Files.writeString(file, "not a checkpoint");
+
+        assertThrows(IOException.class, () -> CrawlSnapshot.readFrom(file));
+    }
+}
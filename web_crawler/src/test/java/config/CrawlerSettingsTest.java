@@ -0,0 +1,262 @@
+package config;
+
+import exceptions.ConfigurationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlerSettingsTest {
+
+    @Test
+    void fromOptionsUsesDefaultsWithoutArguments() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of());
+
+        assertEquals(CrawlerSettings.defaults(), settings);
+    }
+
+    @Test
+    void fromOptionsParsesKnownOptions() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--threads=4", "--frontier-capacity=500"));
+
+        assertEquals(4, settings.threadPoolSize());
+        assertEquals(500, settings.frontierCapacity());
+    }
+
+    @Test
+    void fromOptionsParsesPolitenessOptions() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--max-per-host=1", "--host-delay-ms=500"));
+
+        assertEquals(1, settings.politeness().maxInFlightPerHost());
+        assertEquals(500, settings.politeness().minDelayBetweenRequests().toMillis());
+    }
+
+    @Test
+    void fromOptionsParsesReportMode() {
+        assertEquals(ReportMode.BUFFERED, CrawlerSettings.fromOptions(List.of()).reportMode());
+        assertEquals(ReportMode.STREAMING, CrawlerSettings.fromOptions(List.of("--report=streaming")).reportMode());
+    }
+
+    @Test
+    void fromOptionsParsesQueryMode() {
+        assertEquals(QueryMode.DROP, CrawlerSettings.fromOptions(List.of()).queryMode());
+        assertEquals(QueryMode.FILTER, CrawlerSettings.fromOptions(List.of("--query=filter")).queryMode());
+    }
+
+    @Test
+    void fromOptionsParsesSeenUrlSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--seen-store=fingerprint", "--expected-urls=5000000"));
+
+        assertEquals(SeenUrlMode.EXACT, CrawlerSettings.defaults().seenUrls().mode());
+        assertEquals(new SeenUrlSettings(SeenUrlMode.FINGERPRINT, 5_000_000, SeenUrlSettings.DEFAULT_FALSE_POSITIVE_RATE),
+                settings.seenUrls());
+    }
+
+    @Test
+    void fromOptionsParsesBloomFilterSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--seen-store=two-tier", "--bloom-fp-rate=0.001"));
+
+        assertEquals(SeenUrlMode.TWO_TIER, settings.seenUrls().mode());
+        assertEquals(0.001, settings.seenUrls().falsePositiveRate());
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--bloom-fp-rate=1")));
+    }
+
+    @Test
+    void fromOptionsRejectsNonPositiveExpectedUrls() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--expected-urls=0")));
+    }
+
+    @Test
+    void fromOptionsParsesSpillDirectory() {
+        assertEquals(Optional.empty(), CrawlerSettings.fromOptions(List.of()).spillDirectory());
+        assertEquals(Optional.of(Path.of("/tmp/frontier")),
+                CrawlerSettings.fromOptions(List.of("--spill-dir=/tmp/frontier")).spillDirectory());
+    }
+
+    @Test
+    void fromOptionsParsesCheckpointSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(
+                List.of("--checkpoint-dir=/tmp/crawl", "--checkpoint-interval-s=5", "--resume"));
+
+        assertFalse(CrawlerSettings.defaults().checkpoint().enabled());
+        assertEquals(new CheckpointSettings(Optional.of(Path.of("/tmp/crawl")), Duration.ofSeconds(5), true),
+                settings.checkpoint());
+    }
+
+    @Test
+    void fromOptionsRejectsResumeWithoutCheckpointDirectory() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--resume")));
+    }
+
+    @Test
+    void fromOptionsRejectsCheckpointsWithStreamingReport() {
+        assertThrows(ConfigurationException.class,
+                () -> CrawlerSettings.fromOptions(List.of("--checkpoint-dir=/tmp/crawl", "--report=streaming")));
+    }
+
+    @Test
+    void recrawlStoreDefaultsToHttpClientLoader() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--recrawl-store=/tmp/pages.bin"));
+
+        assertEquals(Optional.of(Path.of("/tmp/pages.bin")), settings.fetch().recrawlStore());
+        assertEquals(PageLoaderType.HTTP_CLIENT, settings.fetch().loaderType());
+        assertEquals(Optional.empty(), CrawlerSettings.defaults().fetch().recrawlStore());
+    }
+
+    @Test
+    void recrawlStoreRejectsJsoupLoaderAndPipelineExecutor() {
+        assertThrows(ConfigurationException.class,
+                () -> CrawlerSettings.fromOptions(List.of("--recrawl-store=/tmp/pages.bin", "--loader=jsoup")));
+        assertThrows(ConfigurationException.class,
+                () -> CrawlerSettings.fromOptions(List.of("--recrawl-store=/tmp/pages.bin", "--executor=pipeline")));
+    }
+
+    @Test
+    void fromOptionsParsesCacheSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(
+                List.of("--cache-dir=/tmp/cache", "--cache-max-mb=2", "--cache-ttl-s=30"));
+
+        assertFalse(CrawlerSettings.defaults().fetch().cache().enabled());
+        assertEquals(new CacheSettings(Optional.of(Path.of("/tmp/cache")), 2 * 1024 * 1024, Duration.ofSeconds(30)),
+                settings.fetch().cache());
+        assertEquals(PageLoaderType.JSOUP, settings.fetch().loaderType());
+    }
+
+    @Test
+    void cacheRejectsRecrawlStoreAndPipelineExecutor() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--cache-dir=/tmp/cache", "--recrawl-store=/tmp/pages.bin")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--cache-dir=/tmp/cache", "--executor=pipeline")));
+    }
+
+    @Test
+    void fromOptionsParsesLoggingSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--progress=sampled", "--progress-every=500",
+                "--progress-interval-s=5", "--event-log=crawl-events.jsonl", "--event-log-max-mb=8"));
+
+        assertEquals(LoggingSettings.defaults(), CrawlerSettings.defaults().logging());
+        assertEquals(new LoggingSettings(ProgressLogMode.SAMPLED, 500, Duration.ofSeconds(5),
+                Optional.of(Path.of("crawl-events.jsonl")), 8 * 1024 * 1024), settings.logging());
+        assertTrue(settings.toString().contains("every 500 pages or 5 s"));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--progress-every=0")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--progress-interval-s=0")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--progress=quiet")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--event-log-max-mb=0")));
+    }
+
+    @Test
+    void fromOptionsParsesMetricsSettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--metrics-interval-s=0", "--jmx"));
+
+        assertEquals(MetricsSettings.defaults(), CrawlerSettings.defaults().metrics());
+        assertEquals(new MetricsSettings(Duration.ZERO, true), settings.metrics());
+        assertFalse(settings.metrics().periodicSummary());
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--metrics-interval-s=-1")));
+    }
+
+    @Test
+    void fromOptionsParsesConcurrencySettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--concurrency=adaptive",
+                "--adaptive-max-in-flight=100", "--adaptive-max-per-host=8"));
+
+        assertEquals(ConcurrencySettings.fixed(), CrawlerSettings.defaults().concurrency());
+        assertEquals(new ConcurrencySettings(ConcurrencyMode.ADAPTIVE, 100, 8), settings.concurrency());
+        assertEquals(100, settings.threadPoolSize());
+        assertEquals(CrawlerSettings.DEFAULT_MAX_IN_FLIGHT_PER_HOST, settings.politeness().maxInFlightPerHost());
+        assertEquals(8, settings.frontierPoliteness().maxInFlightPerHost());
+        assertEquals(settings.politeness().minDelayBetweenRequests(), settings.frontierPoliteness().minDelayBetweenRequests());
+        CrawlerSettings fixed = CrawlerSettings.defaults();
+        assertSame(fixed.politeness(), fixed.frontierPoliteness());
+        assertTrue(settings.toString().contains("adaptive, up to 100 in flight, 8 per host"));
+    }
+
+    @Test
+    void adaptiveConcurrencyRejectsLimitsBelowTheStartingValuesAndPipelineExecutor() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--concurrency=adaptive", "--adaptive-max-in-flight=10")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--concurrency=adaptive", "--adaptive-max-per-host=2")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--concurrency=adaptive", "--executor=pipeline")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--adaptive-max-per-host=0")));
+    }
+
+    @Test
+    void fromOptionsParsesRetrySettings() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--max-attempts=5", "--retry-backoff-ms=200",
+                "--retry-max-backoff-ms=10000", "--breaker-failures=0", "--breaker-open-s=60"));
+
+        assertEquals(RetrySettings.defaults(), CrawlerSettings.defaults().retry());
+        assertEquals(new RetrySettings(5, Duration.ofMillis(200), Duration.ofSeconds(10), 0, Duration.ofSeconds(60)),
+                settings.retry());
+        assertTrue(settings.retry().retries());
+        assertFalse(settings.retry().circuitBreaker());
+        assertTrue(settings.toString().contains("5 attempts, 200 ms backoff up to 10000 ms"));
+        assertFalse(CrawlerSettings.fromOptions(List.of("--max-attempts=1")).retry().retries());
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--max-attempts=0")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(
+                List.of("--retry-backoff-ms=1000", "--retry-max-backoff-ms=500")));
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--breaker-failures=-1")));
+    }
+
+    @Test
+    void fromOptionsRejectsNegativeHostDelay() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--host-delay-ms=-1")));
+    }
+
+    @Test
+    void fromOptionsRejectsUnknownOption() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--colour=blue")));
+    }
+
+    @Test
+    void fromOptionsRejectsNonNumericValue() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--threads=many")));
+    }
+
+    @Test
+    void constructorRejectsNonPositiveCapacity() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.defaults().withFrontierCapacity(0));
+    }
+
+    @Test
+    void virtualExecutorDefaultsToManyWorkers() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--executor=virtual", "--max-in-flight=50"));
+
+        assertEquals(ExecutorMode.VIRTUAL, settings.executorMode());
+        assertEquals(CrawlerSettings.DEFAULT_VIRTUAL_WORKER_COUNT, settings.threadPoolSize());
+        assertEquals(50, settings.maxInFlightFetches());
+        assertEquals(50, settings.fetchPermits());
+        assertEquals(256, CrawlerSettings.fromOptions(List.of("--concurrency=adaptive")).fetchPermits());
+    }
+
+    @Test
+    void pipelineExecutorDefaultsToHttpClientLoader() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--executor=pipeline"));
+
+        assertEquals(PageLoaderType.HTTP_CLIENT, settings.fetch().loaderType());
+    }
+
+    @Test
+    void pipelineExecutorRejectsJsoupLoader() {
+        assertThrows(ConfigurationException.class,
+                () -> CrawlerSettings.fromOptions(List.of("--executor=pipeline", "--loader=jsoup")));
+    }
+
+    @Test
+    void pipelineExecutorAcceptsStreamingLoader() {
+        CrawlerSettings settings = CrawlerSettings.fromOptions(List.of("--executor=pipeline", "--loader=streaming"));
+
+        assertEquals(PageLoaderType.STREAMING, settings.fetch().loaderType());
+    }
+
+    @Test
+    void fromOptionsRejectsUnknownExecutorMode() {
+        assertThrows(ConfigurationException.class, () -> CrawlerSettings.fromOptions(List.of("--executor=green")));
+    }
+}
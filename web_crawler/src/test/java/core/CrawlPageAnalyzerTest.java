@@ -1,13 +1,18 @@
 package core;
 
 import exceptions.PageLoadException;
+import fetch.Heading;
 import fetch.HtmlDocument;
+import fetch.PageContent;
 import fetch.PageLoader;
+import metrics.CrawlMetrics;
 import model.CrawlResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.SocketTimeoutException;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,7 +25,7 @@ class CrawlPageAnalyzerTest {
 
     @BeforeEach
     void setUp() {
-        mockLoader = mock(PageLoader.class);
+        mockLoader = mock(PageLoader.class, CALLS_REAL_METHODS);
         mockDoc = mock(HtmlDocument.class);
         analyzer = new CrawlPageAnalyzer(mockLoader);
     }
@@ -28,13 +33,9 @@ class CrawlPageAnalyzerTest {
     @Test
     void processPage_successfulLoad_extractsData() {
         when(mockLoader.loadPage("https://test.com")).thenReturn(mockDoc);
-        when(mockDoc.select("h1")).thenReturn("Heading 1");
-        when(mockDoc.select("h2")).thenReturn("");
-        when(mockDoc.select("h3")).thenReturn("\nHeading 3\nAnother h3\n");
-        when(mockDoc.select("h4")).thenReturn("");
-        when(mockDoc.select("h5")).thenReturn("");
-        when(mockDoc.select("h6")).thenReturn("");
-        when(mockDoc.getLinks()).thenReturn(List.of(" https://a.com  ", "\nhttps://b.com\n"));
+        when(mockDoc.extractContent()).thenReturn(new PageContent(
+                List.of(new Heading(1, "Heading 1"), new Heading(3, "\nHeading 3\n"), new Heading(3, "Another h3")),
+                List.of(" https://a.com  ", "\nhttps://b.com\n")));
 
         CrawlResult result = analyzer.processPage("https://test.com", 1);
 
@@ -48,16 +49,49 @@ class CrawlPageAnalyzerTest {
         assertTrue(result.childLinks.contains("https://b.com"));
     }
 
+    @Test
+    void processPage_recordsFetchParseAndFailureMetrics() {
+        CrawlMetrics metrics = new CrawlMetrics();
+        CrawlPageAnalyzer measuredAnalyzer = new CrawlPageAnalyzer(mockLoader, metrics);
+        when(mockLoader.loadPage("https://test.com")).thenReturn(mockDoc);
+        when(mockDoc.extractContent()).thenReturn(new PageContent(List.of(), List.of()));
+        when(mockLoader.loadPage("https://fail.com")).thenThrow(new PageLoadException("fail", null));
+
+        measuredAnalyzer.processPage("https://test.com", 0);
+        measuredAnalyzer.processPage("https://fail.com", 0);
+
+        assertEquals(1, metrics.fetchLatency().count());
+        assertEquals(1, metrics.parseTime().count());
+        assertEquals(Map.of("PageLoadException", 1L), metrics.getFailuresByType());
+    }
+
+    @Test
+    void processPage_attachesTraceWithTimingsAndFailure() {
+        when(mockLoader.loadPage("https://test.com")).thenReturn(mockDoc);
+        when(mockDoc.extractContent()).thenReturn(new PageContent(List.of(), List.of()));
+        when(mockLoader.loadPage("https://fail.com")).thenThrow(new PageLoadException("fail", new SocketTimeoutException()));
+
+        CrawlResult loaded = analyzer.processPage("https://test.com", 0);
+        CrawlResult failed = analyzer.processPage("https://fail.com", 0);
+
+        verify(mockLoader).loadPage("https://test.com", loaded.trace.fetch());
+        assertTrue(loaded.trace.fetchNanos() >= 0);
+        assertTrue(loaded.trace.parseNanos() >= 0);
+        assertNull(loaded.trace.failure());
+        assertEquals("SocketTimeoutException", failed.trace.failure());
+    }
+
     @Test
     void processPage_fetchFails_setsFailureFlag() {
-        when(mockLoader.loadPage("https://fail.com"))
-                .thenThrow(new PageLoadException("fail", null));
+        PageLoadException error = new PageLoadException("fail", null);
+        when(mockLoader.loadPage("https://fail.com")).thenThrow(error);
 
         CrawlResult result = analyzer.processPage("https://fail.com", 2);
 
         assertEquals("https://fail.com", result.pageUrl);
         assertEquals(2, result.currentDepth);
         assertTrue(result.isFetchFailed);
+        assertSame(error, result.loadError);
         assertTrue(result.headings.isEmpty());
         assertTrue(result.childLinks.isEmpty());
     }
@@ -65,23 +99,32 @@ class CrawlPageAnalyzerTest {
 
     @Test
     void extractFormattedHeadings_multipleLevels() {
-        when(mockDoc.select("h1")).thenReturn("H1");
-        when(mockDoc.select("h2")).thenReturn("H2\nSubH2");
-        when(mockDoc.select("h3")).thenReturn("");
-        when(mockDoc.select("h4")).thenReturn("");
-        when(mockDoc.select("h5")).thenReturn("");
-        when(mockDoc.select("h6")).thenReturn("");
+        when(mockDoc.extractContent()).thenReturn(new PageContent(
+                List.of(new Heading(2, "H2"), new Heading(1, "H1"), new Heading(2, "SubH2"), new Heading(4, "  ")),
+                List.of()));
 
         List<String> headings = analyzer.extractFormattedHeadings(mockDoc);
 
-        assertTrue(headings.contains("h1:H1"));
-        assertTrue(headings.contains("h2:H2"));
-        assertTrue(headings.contains("h2:SubH2"));
+        assertEquals(List.of("h2:H2", "h1:H1", "h2:SubH2"), headings);
+    }
+
+    @Test
+    void analyzeDocument_traversesDocumentOnce() {
+        when(mockDoc.extractContent()).thenReturn(new PageContent(List.of(new Heading(1, "Title")), List.of("https://a.com")));
+
+        CrawlResult result = analyzer.analyzeDocument("https://test.com", 0, mockDoc);
+
+        assertEquals(List.of("h1:Title"), result.headings);
+        assertEquals(List.of("https://a.com"), result.childLinks);
+        verify(mockDoc, times(1)).extractContent();
+        verify(mockDoc, never()).select(anyString());
+        verify(mockDoc, never()).getLinks();
     }
 
     @Test
     void extractValidLinks_filtersAndFormats() {
-        when(mockDoc.getLinks()).thenReturn(List.of(" HTTP://A.COM ", "", "\n  ", "https://b.com"));
+        when(mockDoc.extractContent()).thenReturn(new PageContent(List.of(),
+                List.of(" HTTP://A.COM ", "", "\n  ", "https://b.com")));
 
         List<String> links = analyzer.extractValidLinks(mockDoc);
 
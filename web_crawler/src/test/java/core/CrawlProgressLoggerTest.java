@@ -0,0 +1,125 @@
+package core;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import config.LoggingSettings;
+import config.ProgressLogMode;
+import events.TraceEvent;
+import model.CrawlResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlProgressLoggerTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(CrawlProgressLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger summaries = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void everyPageModeLogsEachStartedPage() {
+        CrawlProgressLogger progress = new CrawlProgressLogger(LoggingSettings.defaults(), summaries::incrementAndGet, nanos::get);
+
+        progress.pageStarted("https://www.example.com/", 0);
+        progress.pageStarted("https://www.example.com/a", 1);
+        progress.close();
+
+        assertEquals(List.of("Crawling at https://www.example.com/ (depth 0)", "Crawling at https://www.example.com/a (depth 1)"),
+                messages());
+        assertEquals(0, summaries.get());
+    }
+
+    @Test
+    void sampledModeLogsOneSummaryPerPageCount() {
+        CrawlProgressLogger progress = new CrawlProgressLogger(sampled(Optional.empty()), summaries::incrementAndGet, nanos::get);
+        progress.start();
+
+        for (int i = 0; i < 25; i++) {
+            progress.pageStarted("https://www.example.com/" + i, 1);
+            nanos.addAndGet(Duration.ofMillis(10).toNanos());
+            progress.pageFinished(0, result("https://www.example.com/" + i, i == 3));
+        }
+
+        assertEquals(2, summaries.get());
+        assertEquals(List.of(), messages());
+    }
+
+    @Test
+    void sampledModeLogsOnceTheIntervalHasPassed() {
+        CrawlProgressLogger progress = new CrawlProgressLogger(sampled(Optional.empty()), summaries::incrementAndGet, nanos::get);
+        progress.start();
+
+        progress.pageFinished(0, result("https://www.example.com/a", false));
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        progress.pageFinished(0, result("https://www.example.com/b", false));
+        progress.pageFinished(0, result("https://www.example.com/c", false));
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        progress.pageFinished(0, result("https://www.example.com/d", false));
+        progress.close();
+
+        assertEquals(2, summaries.get());
+    }
+
+    @Test
+    void finishedPagesGoToTheEventLog() throws Exception {
+        Path file = directory.resolve("events.jsonl");
+        CrawlProgressLogger progress = new CrawlProgressLogger(sampled(Optional.of(file)), summaries::incrementAndGet, nanos::get);
+        progress.start();
+
+        progress.pageFinished(0, result("https://www.example.com/a", false));
+        progress.pageFinished(0, result("https://www.example.com/b", true));
+        progress.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        TraceEvent failed = TraceEvent.parse(lines.get(1));
+        assertEquals("https://www.example.com/b", failed.url());
+        assertTrue(failed.failed());
+        assertEquals(2, failed.linkCount());
+        assertEquals(2, progress.finishedPages());
+    }
+
+    private static LoggingSettings sampled(Optional<Path> eventLog) {
+        return new LoggingSettings(ProgressLogMode.SAMPLED, 10, Duration.ofSeconds(1), eventLog, 1024 * 1024);
+    }
+
+    private static CrawlResult result(String url, boolean failed) {
+        CrawlResult result = new CrawlResult();
+        result.pageUrl = url;
+        result.currentDepth = 1;
+        result.isFetchFailed = failed;
+        result.childLinks = List.of("https://www.example.com/x", "https://www.example.com/y");
+        return result;
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
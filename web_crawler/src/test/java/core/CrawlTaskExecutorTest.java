@@ -1,8 +1,10 @@
 package core;
 
+import config.ExecutorMode;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +39,27 @@ class CrawlTaskExecutorTest {
         assertDoesNotThrow(() -> executor.waitForAllTasksToFinish());
     }
 
+    @Test
+    void reportsQueuedAndActiveTasks() throws Exception {
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executor.submitTask(() -> {
+                running.countDown();
+                release.await();
+                return null;
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertEquals(2, executor.activeTaskCount());
+        assertEquals(1, executor.queuedTaskCount());
+        release.countDown();
+        executor.waitForAllTasksToFinish();
+        assertEquals(0, executor.activeTaskCount());
+        assertEquals(0, executor.queuedTaskCount());
+    }
+
     @Test
     void handlesExecutionExceptionWithoutCrash() {
         executor.submitTask(() -> {
@@ -59,6 +82,21 @@ class CrawlTaskExecutorTest {
         assertTrue(Thread.interrupted());
     }
 
+    @Test
+    void virtualThreadExecutorRunsTasksOnVirtualThreads() {
+        CrawlTaskExecutor virtualExecutor = CrawlTaskExecutor.forMode(ExecutorMode.VIRTUAL, 1);
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean();
+
+        virtualExecutor.submitTask(() -> {
+            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+            return null;
+        });
+        virtualExecutor.waitForAllTasksToFinish();
+        virtualExecutor.shutdown();
+
+        assertTrue(ranOnVirtualThread.get());
+    }
+
     @Test
     void shutdownCompletesIfExecutorTerminatesNormally() {
         executor.submitTask(() -> {
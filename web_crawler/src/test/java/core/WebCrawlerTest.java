@@ -1,15 +1,47 @@
 package core;
 
+import checkpoint.Checkpointer;
+import checkpoint.CrawlSnapshot;
+import config.CheckpointSettings;
 import config.CrawlConfiguration;
+import config.CrawlerSettings;
+import config.ExecutorMode;
+import config.FetchSettings;
+import config.LoggingSettings;
+import config.PageLoaderType;
+import config.ProgressLogMode;
+import config.RetrySettings;
+import config.SeenUrlMode;
+import config.SeenUrlSettings;
+import dictionary.UrlIdList;
+import exceptions.PageLoadException;
+import fetch.AsyncPageFetcher;
+import fetch.HtmlDocument;
+import fetch.PageContent;
+import fetch.PageLoader;
+import fetch.RawPage;
+import frontier.PolitenessPolicy;
 import model.CrawlResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pipeline.CrawlPipeline;
 import util.WebCrawlerUtils;
 
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,23 +54,26 @@ class WebCrawlerTest {
     private CrawlPageAnalyzer analyzer;
     private CrawlConfiguration config;
     private URL rootUrl;
+    private URL wwwRoot;
+    private CrawlConfiguration wwwConfig;
     private final CrawlResult mockedResult = new CrawlResult();
 
-
     @BeforeEach
     void setUp() throws Exception {
         analyzer = mock(CrawlPageAnalyzer.class);
         rootUrl = new URL("https://example.com");
         config = new CrawlConfiguration(rootUrl, Optional.of(2), Set.of("https://example.com"));
         crawler = new WebCrawler(config, analyzer, 2);
+        wwwRoot = new URL("https://www.example.com");
+        wwwConfig = new CrawlConfiguration(wwwRoot, Optional.of(2), Set.of("https://www.example.com"));
     }
 
     @Test
-    void crawlRecursivelyStoresResults() {
+    void crawlPageStoresResults() {
         try (MockedStatic<WebCrawlerUtils> utils = mockWebCrawlerUtils()) {
             mockAnalyzerReturnsResult();
 
-            crawler.crawlRecursively("https://example.com", 0, rootUrl);
+            crawler.crawlPage("https://example.com", 0, rootUrl);
 
             assertEquals(1, mockedResult.parentUrls.size());
             assertEquals("https://example.com", mockedResult.pageUrl);
@@ -67,16 +102,22 @@ class WebCrawlerTest {
 
     @Test
     void doesNotCrawlInvalidUrl() {
-        boolean result = crawler.canCrawl("", 0, rootUrl);
+        boolean result = crawler.isValidUrlForCrawl("", 0);
         assertFalse(result);
     }
 
     @Test
-    void skipsAlreadyVisitedUrl() {
-        String url = "https://example.com/page";
-        WebCrawlerUtils.normalizeUrl(url).ifPresent(normalized -> crawler.markPageAsVisited(normalized));
-        boolean result = crawler.canCrawl(url, 0, rootUrl);
-        assertFalse(result);
+    void repeatedChildLinkIsAttributedToExistingPage() throws Exception {
+        WebCrawler wwwCrawler = new WebCrawler(wwwConfig, analyzer, 2);
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = "https://www.example.com/page";
+        when(analyzer.processPage(anyString(), anyInt())).thenReturn(page);
+
+        wwwCrawler.submitChildLinks(List.of("https://www.example.com/page"), 1, wwwRoot);
+        wwwCrawler.processAndStorePage("https://www.example.com/page", 1, new URL("https://www.example.com/other"));
+        wwwCrawler.submitChildLinks(List.of("https://www.example.com/page/"), 1, wwwRoot);
+
+        assertTrue(page.parentUrls.contains(wwwRoot));
     }
 
     @Test
@@ -90,12 +131,6 @@ class WebCrawlerTest {
         assertTrue(true);
     }
 
-    @Test
-    void validUrlIsMarkedAsVisited() {
-        crawler.markUrlAsVisited("https://example.com/page");
-        assertTrue(true);
-    }
-
     @Test
     void addStartUrlToAlreadyVisitedPage() throws Exception {
         CrawlResult result = new CrawlResult();
@@ -149,4 +184,244 @@ class WebCrawlerTest {
         crawler.submitChildLinks(result.childLinks, 1, rootUrl);
         assertTrue(true);
     }
-}
\ No newline at end of file
+
+    @Test
+    void crawlVisitsEveryReachablePageOnce() throws Exception {
+        WebCrawler graphCrawler = new WebCrawler(wwwConfig, analyzer, 3);
+        stubEveryPageLinkingTo("https://www.example.com/a", "https://www.example.com/b", "https://www.example.com");
+
+        List<CrawlResult> results = graphCrawler.crawl();
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).childLinks instanceof UrlIdList);
+        assertEquals(List.of("https://www.example.com/a", "https://www.example.com/b", "https://www.example.com"),
+                results.get(0).childLinks);
+        verify(analyzer, times(1)).processPage("https://www.example.com/a", 1);
+        verify(analyzer, times(1)).processPage("https://www.example.com/b", 1);
+    }
+
+    @Test
+    void crawlWithEverySeenUrlStoreVisitsEveryReachablePageOnce() throws Exception {
+        stubEveryPageLinkingTo("https://www.example.com/a", "https://www.example.com/b", "https://www.example.com");
+
+        for (SeenUrlMode mode : SeenUrlMode.values()) {
+            CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(3)
+                    .withSeenUrls(new SeenUrlSettings(mode, 1_000, 0.01));
+            clearInvocations(analyzer);
+
+            List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+            assertEquals(3, results.size(), mode.name());
+            verify(analyzer, times(1)).processPage("https://www.example.com/a", 1);
+            verify(analyzer, times(1)).processPage("https://www.example.com/b", 1);
+        }
+    }
+
+    @Test
+    void crawlWithSpillingFrontierVisitsEveryReachablePageOnce(@TempDir Path spillDirectory) throws Exception {
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(3).withFrontierCapacity(1)
+                .withSpillDirectory(Optional.of(spillDirectory));
+        stubEveryPageLinkingTo("https://www.example.com/a", "https://www.example.com/b",
+                "https://www.example.com/c", "https://www.example.com");
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(4, results.size());
+        verify(analyzer, times(1)).processPage("https://www.example.com/c", 1);
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sampledCrawlWritesEveryPageToTheEventLog(@TempDir Path logDirectory) throws Exception {
+        Path eventLog = logDirectory.resolve("events.jsonl");
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(3).withLogging(
+                new LoggingSettings(ProgressLogMode.SAMPLED, 2, Duration.ofSeconds(1), Optional.of(eventLog), 1024 * 1024));
+        stubEveryPageLinkingTo("https://www.example.com/a", "https://www.example.com/b", "https://www.example.com");
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(3, results.size());
+        List<String> events = Files.readAllLines(eventLog);
+        assertEquals(3, events.size());
+        assertTrue(events.stream().anyMatch(event -> event.contains("\"url\":\"https://www.example.com/a\",\"depth\":1")));
+    }
+
+    @Test
+    void resumeOnlyCrawlsPagesMissingFromTheCheckpoint(@TempDir Path checkpointDirectory) throws Exception {
+        CrawlResult root = page("https://www.example.com", 0,
+                List.of("https://www.example.com/a", "https://www.example.com/b", "https://other.com"));
+        CrawlResult done = page("https://www.example.com/a", 1, List.of());
+        for (CrawlResult page : List.of(root, done)) {
+            page.headings = List.of();
+            page.parentUrls.add(wwwRoot);
+        }
+        new CrawlSnapshot(wwwRoot, Instant.now(), List.of(root, done))
+                .writeTo(checkpointDirectory.resolve("checkpoint.bin"));
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(2)
+                .withCheckpoint(new CheckpointSettings(Optional.of(checkpointDirectory), Duration.ofMinutes(1), true));
+        stubEveryPageLinkingTo("https://www.example.com/a");
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(3, results.size());
+        verify(analyzer, times(1)).processPage("https://www.example.com/b", 1);
+        verifyNoMoreInteractions(analyzer);
+        assertEquals(3, Checkpointer.latest(checkpointDirectory).orElseThrow().pages().size());
+    }
+
+    @Test
+    void resumeWithoutCheckpointStartsFromTheRoot(@TempDir Path checkpointDirectory) throws Exception {
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(2)
+                .withCheckpoint(new CheckpointSettings(Optional.of(checkpointDirectory), Duration.ofMinutes(1), true));
+        stubSite(Map.of("https://www.example.com", List.of()));
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(1, results.size());
+        verify(analyzer).processPage("https://www.example.com", 0);
+        assertTrue(Checkpointer.latest(checkpointDirectory).isPresent());
+    }
+
+    @Test
+    void workersBeyondTheFetchLimitDoNotTakeEntries() throws Exception {
+        CrawlerSettings settings = CrawlerSettings.defaults().withExecutorMode(ExecutorMode.VIRTUAL)
+                .withThreadPoolSize(50).withMaxInFlightFetches(2).withPoliteness(PolitenessPolicy.unrestricted());
+        AtomicInteger crawling = new AtomicInteger();
+        AtomicInteger mostCrawling = new AtomicInteger();
+        when(analyzer.processPage(anyString(), anyInt())).thenAnswer(invocation -> {
+            mostCrawling.accumulateAndGet(crawling.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            crawling.decrementAndGet();
+            String url = invocation.getArgument(0);
+            return page(url, invocation.getArgument(1), url.equals("https://www.example.com")
+                    ? Stream.iterate(1, i -> i + 1).limit(20).map(i -> "https://www.example.com/" + i).toList()
+                    : List.of());
+        });
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(21, results.size());
+        assertEquals(2, mostCrawling.get());
+    }
+
+    @Test
+    void crawlHandsPagesToListenerInsteadOfKeepingThem() throws Exception {
+        List<CrawlResult> streamed = new CopyOnWriteArrayList<>();
+        WebCrawler streamingCrawler = new WebCrawler(wwwConfig, analyzer, CrawlerSettings.defaults().withThreadPoolSize(3),
+                null, streamed::add);
+        stubEveryPageLinkingTo("https://www.example.com/a", "https://www.example.com/b");
+
+        List<CrawlResult> results = streamingCrawler.crawl();
+
+        assertTrue(results.isEmpty());
+        assertEquals(3, streamed.size());
+        assertTrue(streamed.stream().allMatch(page -> page.parentUrls.contains(wwwRoot)));
+    }
+
+    @Test
+    void transientFailuresAreRetriedAfterABackoff() throws Exception {
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(3).withRetry(
+                new RetrySettings(3, Duration.ofMillis(10), Duration.ofMillis(50), 5, Duration.ofSeconds(30)));
+        stubSite(Map.of("https://www.example.com", List.of("https://www.example.com/flaky", "https://www.example.com/missing")));
+        AtomicInteger attempts = new AtomicInteger();
+        when(analyzer.processPage(eq("https://www.example.com/flaky"), anyInt())).thenAnswer(invocation ->
+                attempts.incrementAndGet() < 3
+                        ? failedPage(invocation.getArgument(0), new PageLoadException("Failed to load page", new SocketTimeoutException()))
+                        : page(invocation.getArgument(0), invocation.getArgument(1), List.of()));
+        when(analyzer.processPage(eq("https://www.example.com/missing"), anyInt())).thenAnswer(invocation ->
+                failedPage(invocation.getArgument(0), new PageLoadException("Failed to load page", null, 404)));
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(3, results.size());
+        verify(analyzer, times(3)).processPage("https://www.example.com/flaky", 1);
+        verify(analyzer, times(1)).processPage("https://www.example.com/missing", 1);
+        assertFalse(results.stream().filter(page -> page.pageUrl.endsWith("/flaky")).findFirst().orElseThrow().isFetchFailed);
+        assertTrue(results.stream().filter(page -> page.pageUrl.endsWith("/missing")).findFirst().orElseThrow().isFetchFailed);
+        assertTrue(results.stream().allMatch(page -> page.loadError == null));
+    }
+
+    @Test
+    void pagesThatKeepFailingAreStoredAsFailedAfterTheLastAttempt() throws Exception {
+        CrawlerSettings settings = CrawlerSettings.defaults().withThreadPoolSize(2).withRetry(
+                new RetrySettings(2, Duration.ofMillis(10), Duration.ofMillis(10), 5, Duration.ofSeconds(30)));
+        when(analyzer.processPage(anyString(), anyInt())).thenAnswer(invocation -> failedPage(invocation.getArgument(0),
+                new PageLoadException("Failed to load page", null, 503)));
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, analyzer, settings).crawl();
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).isFetchFailed);
+        verify(analyzer, times(2)).processPage("https://www.example.com", 0);
+    }
+
+    /**
+     * Serves every page with the links listed for it, pages that are not listed without links
+     */
+    private void stubSite(Map<String, List<String>> linksByUrl) {
+        when(analyzer.processPage(anyString(), anyInt())).thenAnswer(invocation -> page(invocation.getArgument(0),
+                invocation.getArgument(1), linksByUrl.getOrDefault(invocation.<String>getArgument(0), List.of())));
+    }
+
+    private void stubEveryPageLinkingTo(String... links) {
+        when(analyzer.processPage(anyString(), anyInt())).thenAnswer(invocation -> page(invocation.getArgument(0),
+                invocation.getArgument(1), List.of(links)));
+    }
+
+    private static CrawlResult page(String url, int depth, List<String> links) {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = url;
+        page.currentDepth = depth;
+        page.childLinks = links;
+        return page;
+    }
+
+    private static CrawlResult failedPage(String url, PageLoadException error) {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = url;
+        page.isFetchFailed = true;
+        page.loadError = error;
+        return page;
+    }
+
+    @Test
+    void pipelinedCrawlVisitsEveryReachablePage() throws Exception {
+        HtmlDocument document = mock(HtmlDocument.class);
+        when(document.extractContent()).thenReturn(new PageContent(
+                List.of(), List.of("https://www.example.com/a", "https://www.example.com/b")));
+        CrawlPageAnalyzer realAnalyzer = new CrawlPageAnalyzer(mock(PageLoader.class));
+        AsyncPageFetcher fetcher = url -> CompletableFuture.completedFuture(new RawPage(url, new byte[0], null));
+        CrawlPipeline pipeline = new CrawlPipeline(fetcher, page -> document, realAnalyzer, 4, 2, 1);
+        CrawlerSettings settings = CrawlerSettings.defaults()
+                .withFetch(FetchSettings.defaults().withLoaderType(PageLoaderType.HTTP_CLIENT))
+                .withExecutorMode(ExecutorMode.PIPELINE);
+
+        List<CrawlResult> results = new WebCrawler(wwwConfig, realAnalyzer, settings, pipeline).crawl();
+
+        assertEquals(List.of("https://www.example.com", "https://www.example.com/a", "https://www.example.com/b"),
+                results.stream().map(result -> result.pageUrl).toList());
+    }
+
+    @Test
+    void pipelinedCrawlDoesNotBlockOnAFullFrontier() throws Exception {
+        AtomicInteger nextPage = new AtomicInteger();
+        HtmlDocument document = mock(HtmlDocument.class);
+        when(document.extractContent()).thenAnswer(invocation -> new PageContent(List.of(),
+                Stream.generate(() -> "https://www.example.com/" + nextPage.incrementAndGet()).limit(50).toList()));
+        CrawlPageAnalyzer realAnalyzer = new CrawlPageAnalyzer(mock(PageLoader.class));
+        AsyncPageFetcher fetcher = url -> CompletableFuture.completedFuture(new RawPage(url, new byte[0], null));
+        CrawlPipeline pipeline = new CrawlPipeline(fetcher, page -> document, realAnalyzer, 4, 2, 1);
+        CrawlerSettings settings = CrawlerSettings.defaults()
+                .withFetch(FetchSettings.defaults().withLoaderType(PageLoaderType.HTTP_CLIENT))
+                .withExecutorMode(ExecutorMode.PIPELINE)
+                .withFrontierCapacity(20)
+                .withPoliteness(PolitenessPolicy.unrestricted());
+
+        List<CrawlResult> results = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> new WebCrawler(wwwConfig, realAnalyzer, settings, pipeline).crawl());
+
+        assertEquals(1 + 50 + 50 * 50, results.size());
+    }
+}
@@ -0,0 +1,101 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlDictionaryTest {
+
+    private final UrlDictionary dictionary = new UrlDictionary();
+
+    @Test
+    void internReturnsSameIdForSameUrl() {
+        int id = dictionary.intern("https://www.example.com/page");
+
+        assertEquals(id, dictionary.intern("https://www.example.com/page"));
+        assertEquals(id, dictionary.idOf("https://www.example.com/page"));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void internAssignsDenseIdsAndDecodesUrls() {
+        int first = dictionary.intern("https://www.example.com");
+        int second = dictionary.intern("https://www.example.com/a?q=1");
+        int third = dictionary.intern("http://www.other.org:8080/ümlaut/path");
+
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(2, third);
+        assertEquals("https://www.example.com", dictionary.url(first));
+        assertEquals("https://www.example.com/a?q=1", dictionary.url(second));
+        assertEquals("http://www.other.org:8080/ümlaut/path", dictionary.url(third));
+    }
+
+    @Test
+    void hostPrefixesAreShared() {
+        dictionary.intern("https://www.example.com/a");
+        dictionary.intern("https://www.example.com/b");
+        dictionary.intern("https://www.other.com/a");
+
+        assertEquals(2, dictionary.prefixCount());
+        assertEquals(6, dictionary.storedBytes());
+    }
+
+    @Test
+    void idOfDistinguishesSimilarUrls() {
+        dictionary.intern("https://www.example.com/page");
+
+        assertEquals(UrlDictionary.NOT_FOUND, dictionary.idOf("https://www.example.com/pag"));
+        assertEquals(UrlDictionary.NOT_FOUND, dictionary.idOf("https://www.example.com/page2"));
+        assertEquals(UrlDictionary.NOT_FOUND, dictionary.idOf("https://www.example.org/page"));
+        assertEquals(UrlDictionary.NOT_FOUND, dictionary.idOf("https://www.example.com/päge"));
+    }
+
+    @Test
+    void internSurvivesGrowthAndChunkBoundaries() {
+        String longPath = "/" + "x".repeat(UrlDictionary.CHUNK_SIZE / 3);
+        for (int i = 0; i < 5_000; i++) {
+            dictionary.intern("https://www.example.com/page/" + i);
+        }
+        int longId = dictionary.intern("https://www.example.com" + longPath);
+        for (int i = 0; i < 5; i++) {
+            dictionary.intern("https://www.example.com" + longPath + i);
+        }
+
+        assertEquals(5_006, dictionary.size());
+        assertEquals(4_321, dictionary.idOf("https://www.example.com/page/4321"));
+        assertEquals("https://www.example.com" + longPath, dictionary.url(longId));
+        assertEquals("https://www.example.com" + longPath + 4, dictionary.url(dictionary.idOf("https://www.example.com" + longPath + 4)));
+    }
+
+    @Test
+    void concurrentInternsAgreeOnIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> mismatches = ConcurrentHashMap.newKeySet();
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    String url = "https://www.example.com/" + i;
+                    int id = dictionary.intern(url);
+                    if (!dictionary.url(id).equals(url)) mismatches.add(url);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(mismatches.isEmpty());
+        assertEquals(2_000, dictionary.size());
+    }
+
+    @Test
+    void urlRejectsUnknownId() {
+        assertThrows(IllegalArgumentException.class, () -> dictionary.url(0));
+    }
+}
@@ -0,0 +1,23 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlIdListTest {
+
+    @Test
+    void listDecodesUrlsFromIds() {
+        UrlDictionary dictionary = new UrlDictionary();
+        int a = dictionary.intern("https://www.example.com/a");
+        int b = dictionary.intern("https://www.example.com/b");
+
+        UrlIdList list = new UrlIdList(dictionary, new int[]{b, a, b});
+
+        assertEquals(List.of("https://www.example.com/b", "https://www.example.com/a", "https://www.example.com/b"), list);
+        assertEquals(a, list.idAt(1));
+        assertThrows(UnsupportedOperationException.class, () -> list.add("https://www.example.com/c"));
+    }
+}
@@ -0,0 +1,39 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlIdSetTest {
+
+    private final UrlDictionary dictionary = new UrlDictionary();
+
+    @Test
+    void addIgnoresDuplicates() throws Exception {
+        UrlIdSet set = new UrlIdSet(dictionary);
+
+        assertTrue(set.add(new URL("https://www.example.com")));
+        assertFalse(set.add(new URL("https://www.example.com")));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void containsComparesByUrlString() throws Exception {
+        UrlIdSet set = UrlIdSet.copyOf(dictionary, List.of(new URL("https://www.example.com"), new URL("https://www.other.com")));
+
+        assertTrue(set.contains(new URL("https://www.other.com")));
+        assertFalse(set.contains(new URL("https://www.unknown.com")));
+        assertFalse(set.contains("https://www.other.com"));
+    }
+
+    @Test
+    void iterationReturnsEqualUrls() throws Exception {
+        UrlIdSet set = UrlIdSet.copyOf(dictionary, List.of(new URL("https://www.example.com"), new URL("https://www.other.com")));
+
+        assertEquals(Set.of(new URL("https://www.example.com"), new URL("https://www.other.com")), Set.copyOf(set));
+    }
+}
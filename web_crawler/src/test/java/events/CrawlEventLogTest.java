@@ -0,0 +1,171 @@
+package events;
+
+import model.CrawlResult;
+import model.PageTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlEventLogTest {
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesOneJsonLinePerPage() throws Exception {
+        Path file = directory.resolve("events/crawl.jsonl");
+        PageTrace trace = new PageTrace();
+        trace.queued(5_000);
+        trace.fetch().firstByteReceived(2_000_000);
+        trace.fetch().downloaded(1_000_000, 4_096);
+        trace.fetched(3_500_000);
+        trace.parsed(700_000);
+
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, MAX_FILE_BYTES)) {
+            eventLog.pageCrawled(3, traced(result("https://www.example.com/", 0, false), trace));
+            eventLog.pageCrawled(4, result("https://www.example.com/\"quoted\"", 1, true));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\{\"ts\":\\d+,\"event\":\"page\",\"urlId\":3,\"url\":\"https://www.example.com/\",\"depth\":0,"
+                + "\"queueUs\":5,\"ttfbUs\":2000,\"downloadUs\":1000,\"bytes\":4096,\"fetchUs\":3500,\"parseUs\":700,"
+                + "\"links\":2,\"outcome\":\"ok\"}"), lines.get(0));
+        assertTrue(lines.get(1).endsWith("\"url\":\"https://www.example.com/\\\"quoted\\\"\",\"depth\":1,\"queueUs\":-1,"
+                + "\"ttfbUs\":-1,\"downloadUs\":-1,\"bytes\":-1,\"fetchUs\":-1,\"parseUs\":-1,\"links\":2,\"outcome\":\"failed\"}"),
+                lines.get(1));
+    }
+
+    @Test
+    void failedPagesCarryTheErrorType() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+        PageTrace trace = new PageTrace();
+        trace.failed(SocketTimeoutException.class.getSimpleName());
+
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, MAX_FILE_BYTES)) {
+            eventLog.pageCrawled(1, traced(result("https://www.example.com/", 0, true), trace));
+        }
+
+        assertEquals("SocketTimeoutException", TraceEvent.parse(Files.readAllLines(file).get(0)).outcome());
+    }
+
+    @Test
+    void rollsOverOnceAFileIsFull() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, 1_000)) {
+            for (int i = 0; i < 100; i++) {
+                eventLog.pageCrawled(i, result("https://www.example.com/" + i, 1, false));
+            }
+        }
+
+        List<Path> files = CrawlEventLog.files(file);
+        assertEquals(CrawlEventLog.MAX_ROLLED_FILES + 1, files.size());
+        assertEquals(CrawlEventLog.rolledFile(file, CrawlEventLog.MAX_ROLLED_FILES), files.get(0));
+        assertEquals(file, files.get(files.size() - 1));
+        for (Path rolled : files) {
+            assertTrue(Files.size(rolled) <= 1_000, rolled.toString());
+        }
+        List<String> newest = Files.readAllLines(file);
+        assertEquals(99, TraceEvent.parse(newest.get(newest.size() - 1)).urlId());
+    }
+
+    @Test
+    void openingReplacesTheFilesOfAnEarlierCrawl() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+        Files.writeString(file, "old\n");
+        Files.writeString(CrawlEventLog.rolledFile(file, 1), "old\n");
+
+        CrawlEventLog.open(file, MAX_FILE_BYTES).close();
+
+        assertEquals(List.of(file), CrawlEventLog.files(file));
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    void workersWaitForTheWriterInsteadOfDroppingEvents() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, MAX_FILE_BYTES * 16, 16)) {
+            for (int worker = 0; worker < 4; worker++) {
+                int offset = worker * 2_000;
+                workers.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        eventLog.pageCrawled(offset + i, result("https://www.example.com/" + (offset + i), 1, false));
+                    }
+                });
+            }
+            workers.shutdown();
+            assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        try (var lines = Files.lines(file)) {
+            assertEquals(8_000, lines.map(line -> TraceEvent.parse(line).urlId()).distinct().count());
+        }
+    }
+
+    @Test
+    void pagesWithoutTraceHaveUnknownTimings() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, MAX_FILE_BYTES)) {
+            eventLog.pageCrawled(1, result("https://www.example.com/", 0, false));
+        }
+
+        TraceEvent event = TraceEvent.parse(Files.readAllLines(file).get(0));
+        assertEquals(-1, event.fetchMicros());
+        assertEquals(-1, event.queueMicros());
+        assertEquals("ok", event.outcome());
+    }
+
+    @Test
+    void eventsAfterCloseAreIgnored() throws Exception {
+        Path file = directory.resolve("crawl.jsonl");
+        CrawlEventLog eventLog = CrawlEventLog.open(file, MAX_FILE_BYTES);
+        eventLog.close();
+
+        eventLog.pageCrawled(1, result("https://www.example.com/", 0, false));
+
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    void controlCharactersAreEscaped() {
+        StringBuilder json = new StringBuilder();
+
+        CrawlEventLog.appendJsonString(json, "a\\b\nc\u0001");
+
+        assertEquals("\"a\\\\b\\nc\\u0001\"", json.toString());
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CrawlEventLog.open(directory.resolve("crawl.jsonl"), MAX_FILE_BYTES, 100));
+    }
+
+    private static CrawlResult traced(CrawlResult result, PageTrace trace) {
+        result.trace = trace;
+        return result;
+    }
+
+    private static CrawlResult result(String url, int depth, boolean failed) {
+        CrawlResult result = new CrawlResult();
+        result.pageUrl = url;
+        result.currentDepth = depth;
+        result.isFetchFailed = failed;
+        result.childLinks = List.of("https://www.example.com/a", "https://www.example.com/b");
+        return result;
+    }
+}
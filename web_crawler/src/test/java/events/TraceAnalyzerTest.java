@@ -0,0 +1,82 @@
+package events;
+
+import exceptions.EventLogException;
+import model.CrawlResult;
+import model.PageTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceAnalyzerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void percentilesAreComputedPerHostAndDepth() {
+        TraceAnalyzer analyzer = new TraceAnalyzer(3);
+        for (int i = 1; i <= 100; i++) {
+            analyzer.add(event("https://a.example.com/" + i, 1, i * 1_000L));
+        }
+        analyzer.add(event("https://b.example.com/", 0, 50_000));
+
+        assertArrayEquals(new long[]{50_000, 90_000, 99_000, 100_000}, analyzer.fetchPercentilesOfHost("a.example.com"));
+        assertArrayEquals(new long[]{50_000, 50_000, 50_000, 50_000}, analyzer.fetchPercentilesOfDepth(0));
+        assertEquals(0, analyzer.fetchPercentilesOfHost("c.example.com").length);
+        assertEquals(101, analyzer.eventCount());
+    }
+
+    @Test
+    void slowestPagesComeFirst() {
+        TraceAnalyzer analyzer = new TraceAnalyzer(2);
+        analyzer.add(event("https://www.example.com/fast", 1, 1_000));
+        analyzer.add(event("https://www.example.com/slowest", 1, 90_000));
+        analyzer.add(event("https://www.example.com/slow", 1, 40_000));
+
+        assertEquals(List.of("https://www.example.com/slowest", "https://www.example.com/slow"),
+                analyzer.slowestPages().stream().map(TraceEvent::url).toList());
+    }
+
+    @Test
+    void readsRolledFilesAndPrintsTheReport() {
+        Path file = directory.resolve("events.jsonl");
+        try (CrawlEventLog eventLog = CrawlEventLog.open(file, 2_000)) {
+            for (int i = 0; i < 40; i++) {
+                CrawlResult result = new CrawlResult();
+                result.pageUrl = "https://www.example.com/" + i;
+                result.currentDepth = i % 2;
+                result.isFetchFailed = i == 7;
+                result.trace = new PageTrace();
+                result.trace.fetched(i * 1_000_000L);
+                eventLog.pageCrawled(i, result);
+            }
+        }
+        TraceAnalyzer analyzer = new TraceAnalyzer(5);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        analyzer.read(file);
+        analyzer.print(new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        assertTrue(CrawlEventLog.files(file).size() > 1);
+        assertEquals(40, analyzer.eventCount());
+        String report = output.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("40 page events"), report);
+        assertTrue(report.matches("(?s).*www\\.example\\.com\\s+40\\s+1\\s.*"), report);
+        assertTrue(report.contains("https://www.example.com/39"), report);
+    }
+
+    @Test
+    void readingAMissingLogFails() {
+        assertThrows(EventLogException.class, () -> new TraceAnalyzer(5).read(directory.resolve("missing.jsonl")));
+    }
+
+    private static TraceEvent event(String url, int depth, long fetchMicros) {
+        return new TraceEvent(0, 0, url, depth, 10, -1, -1, -1, fetchMicros, 100, 0, "ok");
+    }
+}
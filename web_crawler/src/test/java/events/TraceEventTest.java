@@ -0,0 +1,37 @@
+package events;
+
+import exceptions.EventLogException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceEventTest {
+
+    @Test
+    void parsesALineOfTheEventLog() {
+        TraceEvent event = TraceEvent.parse("{\"ts\":1700000000000,\"event\":\"page\",\"urlId\":7,"
+                + "\"url\":\"https://www.example.com:8080/a\\\"b?x=1\",\"depth\":2,\"queueUs\":15,\"ttfbUs\":1200,"
+                + "\"downloadUs\":300,\"bytes\":5120,\"fetchUs\":1600,\"parseUs\":250,\"links\":4,\"outcome\":\"ok\"}");
+
+        assertEquals(new TraceEvent(1_700_000_000_000L, 7, "https://www.example.com:8080/a\"b?x=1", 2, 15, 1_200, 300,
+                5_120, 1_600, 250, 4, "ok"), event);
+        assertEquals("www.example.com", event.host());
+        assertEquals(1_850, event.totalMicros());
+        assertFalse(event.failed());
+    }
+
+    @Test
+    void unknownDurationsDoNotCountTowardsTheTotal() {
+        TraceEvent event = new TraceEvent(0, 1, "https://www.example.com/", 0, -1, -1, -1, -1, 900, -1, 0,
+                "SocketTimeoutException");
+
+        assertEquals(900, event.totalMicros());
+        assertTrue(event.failed());
+    }
+
+    @Test
+    void rejectsLinesThatAreNotPageEvents() {
+        assertThrows(EventLogException.class, () -> TraceEvent.parse("not json"));
+        assertThrows(EventLogException.class, () -> TraceEvent.parse("{\"ts\":1}"));
+    }
+}
@@ -13,5 +13,13 @@ class PageLoadExceptionTest {
 
         assertEquals("failed", exception.getMessage());
         assertEquals(cause, exception.getCause());
+        assertTrue(exception.statusCode().isEmpty());
+    }
+
+    @Test
+    void constructorStoresStatusCode() {
+        PageLoadException exception = new PageLoadException("failed", null, 503);
+
+        assertEquals(503, exception.statusCode().getAsInt());
     }
 }
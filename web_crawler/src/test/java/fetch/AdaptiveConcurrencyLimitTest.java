@@ -0,0 +1,176 @@
+package fetch;
+
+import fetch.AdaptiveConcurrencyLimit.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long LATENCY = 50_000_000;
+
+    @Test
+    void growsByAboutOnePerRoundWhileLatencyStaysFlat() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+
+        keepBusy(limit, 5, LATENCY);
+
+        assertEquals(5, limit.limit());
+        assertEquals(0, limit.inFlight());
+
+        keepBusy(limit, 100, LATENCY);
+
+        assertEquals(15, limit.limit());
+        assertEquals(0, limit.decreases());
+    }
+
+    @Test
+    void neverGrowsBeyondItsMaximum() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 3);
+
+        keepBusy(limit, 100, LATENCY);
+
+        assertEquals(3, limit.limit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyUnused() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.release(limit.acquire(), LATENCY, Outcome.SUCCESS);
+        }
+
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void overloadHalvesTheLimitOncePerRound() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 100);
+
+        completeRound(limit, Outcome.OVERLOAD, 0);
+
+        assertEquals(8, limit.limit());
+        assertEquals(1, limit.decreases());
+
+        completeRound(limit, Outcome.OVERLOAD, 0);
+
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void neverDropsBelowOne() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10);
+
+        for (int i = 0; i < 5; i++) {
+            limit.release(limit.acquire(), 0, Outcome.OVERLOAD);
+        }
+
+        assertEquals(1, limit.limit());
+    }
+
+    @Test
+    void risingLatencyLowersTheLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 100);
+        keepBusy(limit, 10, LATENCY);
+        int grown = limit.limit();
+
+        keepBusy(limit, 50, LATENCY * 10);
+
+        assertTrue(limit.limit() < grown, "limit " + limit.limit());
+        assertTrue(limit.decreases() > 0);
+    }
+
+    @Test
+    void overloadOnlyLimitKeepsGrowingAcrossHostsOfDifferentSpeeds() throws Exception {
+        AdaptiveConcurrencyLimit perHost = new AdaptiveConcurrencyLimit(20, 256);
+        AdaptiveConcurrencyLimit global = AdaptiveConcurrencyLimit.overloadOnly(20, 256);
+
+        keepBusy(perHost, 4_000, LATENCY / 5, LATENCY * 6 / 5);
+        keepBusy(global, 4_000, LATENCY / 5, LATENCY * 6 / 5);
+
+        assertTrue(perHost.decreases() > 0);
+        assertEquals(0, global.decreases());
+        assertTrue(global.limit() > 20, "limit " + global.limit());
+    }
+
+    @Test
+    void overloadOnlyLimitIsStillHalvedOnOverload() throws Exception {
+        AdaptiveConcurrencyLimit limit = AdaptiveConcurrencyLimit.overloadOnly(16, 100);
+
+        completeRound(limit, Outcome.OVERLOAD, 0);
+
+        assertEquals(8, limit.limit());
+    }
+
+    @Test
+    void ignoredOutcomesLeaveTheLimitAlone() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+
+        completeRound(limit, Outcome.IGNORED, 0);
+
+        assertEquals(4, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void acquireWaitsForAReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1);
+        long ticket = limit.acquire();
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThrows(Exception.class, () -> waiting.get(50, TimeUnit.MILLISECONDS));
+        limit.release(ticket, LATENCY, Outcome.SUCCESS);
+        assertEquals(1, waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void initialLimitMustBeWithinTheMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(11, 10));
+    }
+
+    /**
+     * Keeps as many requests in flight as the limit allows until the given number has completed,
+     * taking turns with the given latencies
+     */
+    private static void keepBusy(AdaptiveConcurrencyLimit limit, int requests, long... latenciesNanos)
+            throws InterruptedException {
+        Deque<Long> tickets = new ArrayDeque<>();
+        for (int completed = 0; completed < requests; completed++) {
+            while (tickets.size() < limit.limit()) {
+                tickets.add(limit.acquire());
+            }
+            limit.release(tickets.poll(), latenciesNanos[completed % latenciesNanos.length], Outcome.SUCCESS);
+        }
+        while (!tickets.isEmpty()) {
+            limit.release(tickets.poll(), 0, Outcome.IGNORED);
+        }
+    }
+
+    /**
+     * Starts as many requests as the limit allows, then completes all of them
+     */
+    private static void completeRound(AdaptiveConcurrencyLimit limit, Outcome outcome, long latencyNanos)
+            throws InterruptedException {
+        int permits = limit.limit();
+        long[] tickets = new long[permits];
+        for (int i = 0; i < permits; i++) {
+            tickets[i] = limit.acquire();
+        }
+        for (long ticket : tickets) {
+            limit.release(ticket, latencyNanos, outcome);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package fetch;
+
+import exceptions.PageLoadException;
+import fetch.AdaptiveConcurrencyLimit.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdaptiveConcurrencyPageLoaderTest {
+    private static final long TIME_TO_FIRST_BYTE = 20_000_000;
+
+    @Test
+    void successfulLoadsRaiseTheLimitsOfHostAndCrawl() {
+        AdaptiveConcurrencyPageLoader loader = new AdaptiveConcurrencyPageLoader(new RespondingLoader(null), 1, 10, 1, 10);
+
+        for (int i = 0; i < 5; i++) {
+            loader.loadPage("https://fast.example.com/" + i);
+        }
+
+        assertTrue(loader.hostLimit("https://fast.example.com/").limit() > 1);
+        assertTrue(loader.globalLimit().limit() > 1);
+        assertEquals(0, loader.globalLimit().inFlight());
+    }
+
+    @Test
+    void overloadedHostsLowerOnlyTheirOwnLimit() {
+        PageLoadException overloaded = new PageLoadException("Failed to load page", null, 503);
+        AdaptiveConcurrencyPageLoader loader = new AdaptiveConcurrencyPageLoader(new RespondingLoader(overloaded), 20, 100, 8, 32);
+
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://fragile.example.com/"));
+
+        assertEquals(4, loader.hostLimit("https://fragile.example.com/a").limit());
+        assertEquals(8, loader.hostLimit("https://other.example.com/").limit());
+        assertEquals(10, loader.globalLimit().limit());
+        assertEquals(0, loader.hostLimit("https://fragile.example.com/").inFlight());
+    }
+
+    @Test
+    void loadsWithoutTimeToFirstByteDoNotChangeTheLimits() {
+        PageLoader cached = mock(PageLoader.class, CALLS_REAL_METHODS);
+        when(cached.loadPage(anyString())).thenReturn(mock(HtmlDocument.class));
+        AdaptiveConcurrencyPageLoader loader = new AdaptiveConcurrencyPageLoader(cached, 1, 10, 1, 10);
+
+        for (int i = 0; i < 5; i++) {
+            loader.loadPage("https://cached.example.com/" + i);
+        }
+
+        assertEquals(1, loader.globalLimit().limit());
+    }
+
+    @Test
+    void timeoutsTooManyRequestsAndServerErrorsSignalOverload() {
+        assertEquals(Outcome.OVERLOAD, AdaptiveConcurrencyPageLoader.outcomeOf(new PageLoadException("", null, 429)));
+        assertEquals(Outcome.OVERLOAD, AdaptiveConcurrencyPageLoader.outcomeOf(new PageLoadException("", null, 502)));
+        assertEquals(Outcome.OVERLOAD, AdaptiveConcurrencyPageLoader.outcomeOf(
+                new PageLoadException("", new SocketTimeoutException("Read timed out"))));
+        assertEquals(Outcome.OVERLOAD, AdaptiveConcurrencyPageLoader.outcomeOf(
+                new PageLoadException("", new RuntimeException(new HttpTimeoutException("request timed out")))));
+        assertEquals(Outcome.IGNORED, AdaptiveConcurrencyPageLoader.outcomeOf(new PageLoadException("", null, 404)));
+        assertEquals(Outcome.IGNORED, AdaptiveConcurrencyPageLoader.outcomeOf(new PageLoadException("", null)));
+    }
+
+    @Test
+    void concurrentLoadsPerHostNeverExceedTheHostLimit() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        PageLoader slowLoader = url -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            return null;
+        };
+        AdaptiveConcurrencyPageLoader loader = new AdaptiveConcurrencyPageLoader(slowLoader, 10, 10, 3, 3);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < 30; i++) {
+            executor.submit(() -> loader.loadPage("https://example.com"));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(peak.get() <= 3);
+    }
+
+    @Test
+    void initialHostLimitMustBeWithinItsMaximum() {
+        PageLoader delegate = mock(PageLoader.class);
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyPageLoader(delegate, 1, 10, 5, 4));
+    }
+
+    /**
+     * Answers every load after a fixed time to first byte, or fails with the given error
+     */
+    private record RespondingLoader(PageLoadException error) implements PageLoader {
+        @Override
+        public HtmlDocument loadPage(String url) {
+            return loadPage(url, new FetchTrace());
+        }
+
+        @Override
+        public HtmlDocument loadPage(String url, FetchTrace trace) {
+            if (error != null) throw error;
+            trace.firstByteReceived(TIME_TO_FIRST_BYTE);
+            return mock(HtmlDocument.class);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheControlTest {
+
+    @Test
+    void parseReadsDirectives() {
+        assertEquals(new CacheControl(false, false, Optional.of(Duration.ofSeconds(600))),
+                CacheControl.parse("public, Max-Age=600"));
+        assertEquals(new CacheControl(true, true, Optional.empty()), CacheControl.parse("no-cache, no-store"));
+    }
+
+    @Test
+    void parseWithoutHeaderIsNone() {
+        assertEquals(CacheControl.NONE, CacheControl.parse(null));
+        assertEquals(CacheControl.NONE, CacheControl.parse(" "));
+    }
+
+    @Test
+    void invalidMaxAgeMeansStale() {
+        assertEquals(Optional.of(Duration.ZERO), CacheControl.parse("max-age=soon").maxAge());
+        assertEquals(Optional.of(Duration.ZERO), CacheControl.parse("max-age=-5").maxAge());
+    }
+}
@@ -0,0 +1,64 @@
+package fetch;
+
+import exceptions.PageLoadException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedPageLoaderTest {
+
+    @Test
+    void loadPageDelegatesToWrappedLoader() {
+        PageLoader delegate = mock(PageLoader.class, CALLS_REAL_METHODS);
+        HtmlDocument document = mock(HtmlDocument.class);
+        when(delegate.loadPage("https://example.com")).thenReturn(document);
+
+        ConcurrencyLimitedPageLoader loader = new ConcurrencyLimitedPageLoader(delegate, 2);
+
+        assertSame(document, loader.loadPage("https://example.com"));
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    void loadPageReleasesPermitWhenDelegateFails() {
+        PageLoader delegate = mock(PageLoader.class, CALLS_REAL_METHODS);
+        when(delegate.loadPage(anyString())).thenThrow(new PageLoadException("fail", null));
+
+        ConcurrencyLimitedPageLoader loader = new ConcurrencyLimitedPageLoader(delegate, 1);
+
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://fail.com"));
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    void concurrentLoadsNeverExceedLimit() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        PageLoader slowLoader = url -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            return null;
+        };
+        ConcurrencyLimitedPageLoader loader = new ConcurrencyLimitedPageLoader(slowLoader, 3);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < 30; i++) {
+            executor.submit(() -> loader.loadPage("https://example.com"));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(peak.get() <= 3);
+    }
+}
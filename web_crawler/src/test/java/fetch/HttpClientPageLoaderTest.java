@@ -0,0 +1,188 @@
+package fetch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.PageLoadException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientPageLoaderTest {
+
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+    private static final String PAGE = "<html><body><h1>Title</h1><a href=\"/next\">next</a></body></html>";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final HttpClientPageLoader loader = new HttpClientPageLoader(Duration.ofSeconds(2), Duration.ofSeconds(2));
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/plain", exchange -> respond(exchange, 200, "text/html; charset=UTF-8", PAGE.getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/gzip", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            respond(exchange, 200, "text/html", gzip(PAGE));
+        });
+        server.createContext("/validated", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            boolean notModified = "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))
+                    && LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+            respond(exchange, notModified ? 304 : 200, "text/html", notModified ? new byte[0] : PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "text/html", new byte[0]));
+        server.createContext("/image", exchange -> respond(exchange, 200, "image/png", new byte[]{1, 2, 3}));
+        server.createContext("/text", exchange -> respond(exchange, 200, "text/plain", PAGE.getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/xhtml", exchange -> respond(exchange, 200, "application/xhtml+xml; charset=UTF-8",
+                PAGE.getBytes(StandardCharsets.UTF_8)));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void loadPageParsesHeadingsAndAbsoluteLinks() {
+        HtmlDocument document = loader.loadPage(baseUrl + "/plain");
+
+        assertEquals("Title", document.select("h1"));
+        assertEquals(List.of(baseUrl + "/next"), document.getLinks());
+    }
+
+    @Test
+    void downloadedBytesAreReportedBeforeDecoding() throws Exception {
+        AtomicLong downloaded = new AtomicLong();
+        HttpClientPageLoader countingLoader = new HttpClientPageLoader(Duration.ofSeconds(2), Duration.ofSeconds(2), downloaded::addAndGet);
+
+        countingLoader.loadPage(baseUrl + "/gzip");
+        countingLoader.fetchAsync(baseUrl + "/gzip").get(2, TimeUnit.SECONDS);
+
+        assertEquals(2L * gzip(PAGE).length, downloaded.get());
+    }
+
+    @Test
+    void everyFetchPathFillsTheTrace() throws Exception {
+        FetchTrace loaded = new FetchTrace();
+        FetchTrace fetched = new FetchTrace();
+        FetchTrace fetchedAsync = new FetchTrace();
+
+        loader.loadPage(baseUrl + "/gzip", loaded);
+        loader.fetch(baseUrl + "/gzip", fetched);
+        loader.fetchAsync(baseUrl + "/gzip", fetchedAsync).get(2, TimeUnit.SECONDS);
+
+        for (FetchTrace trace : List.of(loaded, fetched, fetchedAsync)) {
+            assertTrue(trace.timeToFirstByteNanos() > 0);
+            assertTrue(trace.downloadNanos() >= 0);
+            assertEquals(gzip(PAGE).length, trace.bodyBytes());
+        }
+    }
+
+    @Test
+    void loadPageDecodesGzipBody() {
+        HtmlDocument document = loader.loadPage(baseUrl + "/gzip");
+
+        assertEquals("Title", document.select("h1"));
+    }
+
+    @Test
+    void loadPageThrowsOnErrorStatus() {
+        PageLoadException error = assertThrows(PageLoadException.class, () -> loader.loadPage(baseUrl + "/missing"));
+
+        assertEquals(404, error.statusCode().orElseThrow());
+    }
+
+    @Test
+    void loadPageThrowsOnNonHtmlContent() {
+        PageLoadException error = assertThrows(PageLoadException.class, () -> loader.loadPage(baseUrl + "/image"));
+
+        assertTrue(error.statusCode().isEmpty());
+    }
+
+    @Test
+    void loadPageThrowsOnPlainText() {
+        assertThrows(PageLoadException.class, () -> loader.loadPage(baseUrl + "/text"));
+    }
+
+    @Test
+    void loadPageAcceptsXhtml() {
+        assertEquals("Title", loader.loadPage(baseUrl + "/xhtml").select("h1"));
+    }
+
+    @Test
+    void loadPageThrowsWhenHostIsUnreachable() {
+        server.stop(0);
+        assertThrows(PageLoadException.class, () -> loader.loadPage(baseUrl + "/plain"));
+    }
+
+    @Test
+    void fetchAsyncThenParseMatchesBlockingLoad() throws Exception {
+        RawPage page = loader.fetchAsync(baseUrl + "/gzip").get(2, TimeUnit.SECONDS);
+        HtmlDocument document = loader.parse(page);
+
+        assertEquals("Title", document.select("h1"));
+        assertEquals(List.of(baseUrl + "/next"), document.getLinks());
+    }
+
+    @Test
+    void fetchAsyncCompletesExceptionallyOnErrorStatus() {
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> loader.fetchAsync(baseUrl + "/missing").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(PageLoadException.class, error.getCause());
+    }
+
+    @Test
+    void fetchIfModifiedReturnsPageWithItsValidators() {
+        RawPage page = loader.fetchIfModified(baseUrl + "/validated", PageValidators.NONE).orElseThrow();
+
+        assertEquals(new PageValidators("\"v1\"", LAST_MODIFIED), page.validators());
+        assertEquals(PAGE, new String(page.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void fetchIfModifiedIsEmptyWhenServerAnswersNotModified() {
+        Optional<RawPage> page = loader.fetchIfModified(baseUrl + "/validated", new PageValidators("\"v1\"", LAST_MODIFIED));
+
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void extractCharsetReadsContentTypeParameter() {
+        assertEquals(Optional.of("ISO-8859-1"), HttpClientPageLoader.extractCharset("text/html; charset=\"ISO-8859-1\""));
+        assertEquals(Optional.empty(), HttpClientPageLoader.extractCharset("text/html"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,5 +1,6 @@
 package fetch;
 
+import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -40,4 +41,17 @@ class JsoupHtmlDocumentTest {
 
         assertEquals("Headline", result);
     }
+
+    @Test
+    void extractContentReturnsHeadingsAndLinksInDocumentOrder() {
+        Document document = Jsoup.parse(
+                "<h2>Second</h2><p><a href=\"/a\">a</a></p><h1>First <b>bold</b></h1><h2>Third</h2><a>no href</a><a href=\"b\">b</a>",
+                "https://example.com/dir/");
+
+        PageContent content = new JsoupHtmlDocument(document).extractContent();
+
+        assertEquals(List.of(new Heading(2, "Second"), new Heading(1, "First bold"), new Heading(2, "Third")),
+                content.headings());
+        assertEquals(List.of("https://example.com/a", "https://example.com/dir/b"), content.links());
+    }
 }
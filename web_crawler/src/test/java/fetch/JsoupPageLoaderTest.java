@@ -2,12 +2,17 @@ package fetch;
 
 import exceptions.PageLoadException;
 import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
 import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +29,16 @@ class JsoupPageLoaderTest {
         }
     }
 
+    @Test
+    void loadPageReportsDownloadedBytes() throws Exception {
+        AtomicLong downloaded = new AtomicLong();
+        JsoupPageLoader countingLoader = new JsoupPageLoader(downloaded::addAndGet);
+        try (MockedStatic<Jsoup> ignored = mockJsoup("https://example.com", false)) {
+            countingLoader.loadPage("https://example.com");
+        }
+        assertEquals(13, downloaded.get());
+    }
+
     @Test
     void loadPageThrowsPageLoadExceptionOnError() throws Exception {
         try (MockedStatic<Jsoup> ignored = mockJsoup("https://fail.com", true)) {
@@ -31,21 +46,59 @@ class JsoupPageLoaderTest {
         }
     }
 
+    @Test
+    void loadPageKeepsTheErrorStatus() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.userAgent(anyString())).thenReturn(connection);
+        when(connection.execute()).thenThrow(new HttpStatusException("Too Many Requests", 429, "https://busy.com"));
+        try (MockedStatic<Jsoup> jsoup = mockStatic(Jsoup.class, CALLS_REAL_METHODS)) {
+            jsoup.when(() -> Jsoup.connect("https://busy.com")).thenReturn(connection);
+
+            PageLoadException error = assertThrows(PageLoadException.class, () -> loader.loadPage("https://busy.com"));
+
+            assertEquals(429, error.statusCode().orElseThrow());
+        }
+    }
+
+    @Test
+    void fetchReturnsBodyAndCacheHeaders() throws Exception {
+        Connection connection = mock(Connection.class);
+        Connection.Response response = mock(Connection.Response.class);
+        when(connection.userAgent(anyString())).thenReturn(connection);
+        when(connection.execute()).thenReturn(response);
+        when(response.url()).thenReturn(new URL("https://example.com/"));
+        when(response.bodyAsBytes()).thenReturn("<h1>Title</h1>".getBytes(StandardCharsets.UTF_8));
+        when(response.charset()).thenReturn("UTF-8");
+        when(response.header("Cache-Control")).thenReturn("max-age=60");
+        try (MockedStatic<Jsoup> jsoup = mockStatic(Jsoup.class, CALLS_REAL_METHODS)) {
+            jsoup.when(() -> Jsoup.connect("https://example.com")).thenReturn(connection);
+
+            RawPage page = loader.fetch("https://example.com");
+
+            assertEquals("https://example.com/", page.url());
+            assertEquals(Optional.of(Duration.ofSeconds(60)), page.cacheControl().maxAge());
+            assertEquals("Title", loader.parse(page).select("h1"));
+        }
+    }
+
     private MockedStatic<Jsoup> mockJsoup(String url, boolean throwIOException) throws IOException {
-        Connection mockConn = setupMockConnection(throwIOException);
-        MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class);
+        Connection mockConn = setupMockConnection(url, throwIOException);
+        MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class, CALLS_REAL_METHODS);
         jsoupMock.when(() -> Jsoup.connect(url)).thenReturn(mockConn);
         return jsoupMock;
     }
 
-    private Connection setupMockConnection(boolean throwIOException) throws IOException {
+    private Connection setupMockConnection(String url, boolean throwIOException) throws IOException {
         Connection mockConn = mock(Connection.class);
         when(mockConn.userAgent(anyString())).thenReturn(mockConn);
 
         if (throwIOException) {
-            when(mockConn.get()).thenThrow(new IOException("fail"));
+            when(mockConn.execute()).thenThrow(new IOException("fail"));
         } else {
-            when(mockConn.get()).thenReturn(mock(Document.class));
+            Connection.Response response = mock(Connection.Response.class);
+            when(response.url()).thenReturn(new URL(url));
+            when(response.bodyAsBytes()).thenReturn("<html></html>".getBytes(StandardCharsets.UTF_8));
+            when(mockConn.execute()).thenReturn(response);
         }
 
         return mockConn;
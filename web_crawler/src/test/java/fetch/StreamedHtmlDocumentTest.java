@@ -0,0 +1,30 @@
+package fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamedHtmlDocumentTest {
+
+    private final StreamedHtmlDocument document = new StreamedHtmlDocument(new PageContent(
+            List.of(new Heading(1, "Title"), new Heading(2, "First"), new Heading(2, "Second")),
+            List.of("https://example.com/a")));
+
+    @Test
+    void selectJoinsHeadingsOfRequestedLevel() {
+        assertEquals("First Second", document.select("h2"));
+        assertEquals("", document.select("h3"));
+    }
+
+    @Test
+    void selectReturnsEmptyTextForOtherQueries() {
+        assertEquals("", document.select("p"));
+    }
+
+    @Test
+    void getLinksReturnsExtractedLinks() {
+        assertEquals(List.of("https://example.com/a"), document.getLinks());
+    }
+}
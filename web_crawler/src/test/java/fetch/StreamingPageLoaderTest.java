@@ -0,0 +1,66 @@
+package fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPageLoaderTest {
+
+    private final StreamingPageLoader loader = new StreamingPageLoader(Duration.ofSeconds(2), Duration.ofSeconds(2));
+
+    @Test
+    void parseExtractsHeadingsAndAbsoluteLinks() throws IOException {
+        HtmlDocument document = parse("<html><body><h2>Second</h2><p><a href=\"/a\">a</a></p>"
+                + "<h1>First <a href=\"b\">linked</a></h1><a>no href</a></body></html>");
+
+        PageContent content = document.extractContent();
+
+        assertEquals(List.of(new Heading(2, "Second"), new Heading(1, "First linked")), content.headings());
+        assertEquals(List.of("https://example.com/a", "https://example.com/dir/b"), content.links());
+    }
+
+    @Test
+    void parseHonoursBaseElement() throws IOException {
+        HtmlDocument document = parse("<html><head><base href=\"https://other.com/\"></head>"
+                + "<body><a href=\"page\">page</a></body></html>");
+
+        assertEquals(List.of("https://other.com/page"), document.getLinks());
+    }
+
+    @Test
+    void parseHandlesDocumentsLargerThanAnyBuffer() throws IOException {
+        int sections = 20_000;
+        List<InputStream> parts = IntStream.range(0, sections)
+                .mapToObj(i -> (InputStream) new ByteArrayInputStream(("<div><h3>Section " + i + "</h3><p>text "
+                        + "<a href=\"/s/" + i + "\">link</a></p></div>").getBytes(StandardCharsets.UTF_8)))
+                .toList();
+
+        HtmlDocument document = loader.parse(new SequenceInputStream(Collections.enumeration(parts)),
+                "UTF-8", "https://example.com/");
+
+        assertEquals(sections, document.extractContent().headings().size());
+        assertEquals("https://example.com/s/" + (sections - 1), document.getLinks().get(sections - 1));
+    }
+
+    @Test
+    void charsetOrDefaultFallsBackToUtf8() {
+        assertEquals(StandardCharsets.UTF_8, StreamingPageLoader.charsetOrDefault(null));
+        assertEquals(StandardCharsets.UTF_8, StreamingPageLoader.charsetOrDefault("no-such-charset"));
+        assertEquals(StandardCharsets.ISO_8859_1, StreamingPageLoader.charsetOrDefault("ISO-8859-1"));
+    }
+
+    private HtmlDocument parse(String html) throws IOException {
+        return loader.parse(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), null,
+                "https://example.com/dir/");
+    }
+}
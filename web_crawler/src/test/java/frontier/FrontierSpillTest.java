@@ -0,0 +1,112 @@
+package frontier;
+
+import exceptions.FrontierSpillException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontierSpillTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void entriesAreReadBackInWriteOrderAcrossSegments() {
+        FrontierSpill spill = new FrontierSpill(directory, 3);
+        for (int i = 0; i < 10; i++) {
+            spill.append(new FrontierEntry("https://example.com/" + i, "https://www.example.com/" + i, i % 3));
+        }
+
+        List<FrontierEntry> first = spill.read(4);
+        List<FrontierEntry> rest = spill.read(100);
+
+        assertEquals(4, first.size());
+        assertEquals(new FrontierEntry("https://example.com/0", "https://www.example.com/0", 0), first.get(0));
+        assertEquals(6, rest.size());
+        assertEquals(new FrontierEntry("https://example.com/9", "https://www.example.com/9", 0), rest.get(5));
+        assertTrue(spill.isEmpty());
+    }
+
+    @Test
+    void enqueueTimeSurvivesTheSpill() {
+        FrontierSpill spill = new FrontierSpill(directory, 100);
+        FrontierEntry entry = new FrontierEntry("https://www.example.com/a", "https://www.example.com/a", 1, 12_345);
+        spill.append(entry);
+
+        FrontierEntry read = spill.read(1).get(0);
+
+        assertEquals(12_345, read.enqueuedAtNanos());
+        assertEquals(entry, new FrontierEntry("https://www.example.com/a", "https://www.example.com/a", 1));
+        assertEquals(entry.hashCode(), new FrontierEntry("https://www.example.com/a", "https://www.example.com/a", 1).hashCode());
+    }
+
+    @Test
+    void segmentBeingWrittenIsSealedWhenItIsTheOnlyOne() {
+        FrontierSpill spill = new FrontierSpill(directory, 100);
+        spill.append(new FrontierEntry("https://www.example.com/a", "https://www.example.com/a", 1));
+
+        assertEquals("https://www.example.com/a", spill.read(10).get(0).url());
+
+        spill.append(new FrontierEntry("https://www.example.com/b", "https://www.example.com/b", 1));
+        assertEquals("https://www.example.com/b", spill.read(10).get(0).url());
+    }
+
+    @Test
+    void readSegmentsAreDeleted() throws Exception {
+        FrontierSpill spill = new FrontierSpill(directory, 2);
+        for (int i = 0; i < 4; i++) {
+            spill.append(new FrontierEntry("https://www.example.com/" + i, "https://www.example.com/" + i, 1));
+        }
+        assertEquals(2, fileCount());
+
+        spill.read(2);
+
+        assertEquals(1, fileCount());
+        assertEquals(2, spill.size());
+    }
+
+    @Test
+    void nonAsciiUrlsSurviveTheRoundTrip() {
+        FrontierSpill spill = new FrontierSpill(directory);
+        spill.append(new FrontierEntry("https://www.example.com/straße", "https://www.example.com/straße", 2));
+
+        assertEquals("https://www.example.com/straße", spill.read(1).get(0).normalizedUrl());
+    }
+
+    @Test
+    void closeDeletesAllSegments() throws Exception {
+        FrontierSpill spill = new FrontierSpill(directory, 2);
+        for (int i = 0; i < 5; i++) {
+            spill.append(new FrontierEntry("https://www.example.com/" + i, "https://www.example.com/" + i, 1));
+        }
+        spill.read(1);
+
+        spill.close();
+
+        assertEquals(0, fileCount());
+        assertTrue(spill.isEmpty());
+    }
+
+    private long fileCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void failureToOpenASegmentNamesTheDirectory() throws Exception {
+        Path notADirectory = Files.createFile(directory.resolve("file"));
+        FrontierSpill spill = new FrontierSpill(notADirectory, 100);
+
+        FrontierSpillException error = assertThrows(FrontierSpillException.class,
+                () -> spill.append(new FrontierEntry("https://www.example.com/a", "https://www.example.com/a", 0)));
+
+        assertTrue(error.getMessage().endsWith(notADirectory.toString()), error.getMessage());
+    }
+}
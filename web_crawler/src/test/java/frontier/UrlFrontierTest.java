@@ -0,0 +1,221 @@
+package frontier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import visited.VisitedUrlSet;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlFrontierTest {
+
+    private final UrlFrontier frontier = new UrlFrontier(10);
+
+    @Test
+    void enqueueRejectsDuplicateUrls() {
+        assertTrue(frontier.enqueue(entry("https://www.example.com/a", 1)));
+        assertFalse(frontier.enqueue(entry("https://www.example.com/a", 2)));
+
+        assertEquals(1, frontier.size());
+        assertEquals(1, frontier.uniqueUrlCount());
+    }
+
+    @Test
+    void takeReturnsShallowestEntryFirst() {
+        frontier.enqueue(entry("https://www.example.com/deep", 2));
+        frontier.enqueue(entry("https://www.example.com/first", 1));
+        frontier.enqueue(entry("https://www.example.com/second", 1));
+
+        assertEquals("https://www.example.com/first", frontier.take().orElseThrow().url());
+        assertEquals("https://www.example.com/second", frontier.take().orElseThrow().url());
+        assertEquals("https://www.example.com/deep", frontier.take().orElseThrow().url());
+    }
+
+    @Test
+    void takeReturnsEmptyWhenNothingIsPendingOrInFlight() {
+        assertTrue(frontier.take().isEmpty());
+    }
+
+    @Test
+    void takeWaitsForInFlightWorkToFinish() throws Exception {
+        frontier.enqueue(entry("https://www.example.com", 0));
+        FrontierEntry root = frontier.take().orElseThrow();
+
+        Thread producer = new Thread(() -> {
+            frontier.enqueue(entry("https://www.example.com/child", 1));
+            frontier.complete(root);
+        });
+        producer.start();
+
+        Optional<FrontierEntry> child = frontier.take();
+        producer.join();
+
+        assertEquals("https://www.example.com/child", child.orElseThrow().url());
+    }
+
+    @Test
+    void lastRunningWorkerMayExceedCapacity() {
+        UrlFrontier bounded = new UrlFrontier(1);
+        bounded.enqueue(entry("https://www.example.com", 0));
+        FrontierEntry root = bounded.take().orElseThrow();
+
+        assertTrue(bounded.enqueue(entry("https://www.example.com/a", 1)));
+        assertTrue(bounded.enqueue(entry("https://www.example.com/b", 1)));
+        bounded.complete(root);
+
+        assertEquals(2, bounded.size());
+    }
+
+    @Test
+    void producersThatMustNotWaitOvershootTheCapacity() {
+        UrlFrontier bounded = new UrlFrontier(1);
+        bounded.enqueueAll(List.of(entry("https://www.example.com/a", 1), entry("https://www.example.com/b", 1)));
+        bounded.take().orElseThrow();
+        bounded.take().orElseThrow();
+
+        bounded.enqueueAll(List.of(entry("https://www.example.com/c", 2), entry("https://www.example.com/d", 2)), false);
+
+        assertEquals(2, bounded.size());
+    }
+
+    @Test
+    void hostsAreServedRoundRobin() {
+        frontier.enqueue(entry("https://www.a.com/1", 1));
+        frontier.enqueue(entry("https://www.a.com/2", 1));
+        frontier.enqueue(entry("https://www.b.com/1", 1));
+
+        assertEquals("www.a.com", frontier.take().orElseThrow().host());
+        assertEquals("www.b.com", frontier.take().orElseThrow().host());
+        assertEquals("www.a.com", frontier.take().orElseThrow().host());
+    }
+
+    @Test
+    void busyHostIsSkippedInFavourOfOtherHosts() {
+        UrlFrontier polite = new UrlFrontier(10, new VisitedUrlSet(), new PolitenessPolicy(1, Duration.ZERO));
+        polite.enqueue(entry("https://www.a.com/1", 1));
+        polite.enqueue(entry("https://www.a.com/2", 1));
+        polite.enqueue(entry("https://www.b.com/1", 1));
+
+        FrontierEntry first = polite.take().orElseThrow();
+        FrontierEntry second = polite.take().orElseThrow();
+        polite.complete(first);
+        FrontierEntry third = polite.take().orElseThrow();
+
+        assertEquals("https://www.a.com/1", first.url());
+        assertEquals("https://www.b.com/1", second.url());
+        assertEquals("https://www.a.com/2", third.url());
+    }
+
+    @Test
+    void requestsToSameHostAreSpacedByMinimumDelay() {
+        UrlFrontier polite = new UrlFrontier(10, new VisitedUrlSet(), new PolitenessPolicy(10, Duration.ofMillis(50)));
+        polite.enqueue(entry("https://www.a.com/1", 1));
+        polite.enqueue(entry("https://www.a.com/2", 1));
+
+        polite.take().orElseThrow();
+        long start = System.nanoTime();
+        polite.take().orElseThrow();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 40, "waited only " + waitedMillis + " ms");
+    }
+
+    @Test
+    void entriesBeyondCapacityAreSpilledInsteadOfBlocking(@TempDir Path spillDirectory) throws Exception {
+        UrlFrontier spilling = new UrlFrontier(2, new VisitedUrlSet(), PolitenessPolicy.unrestricted(),
+                Optional.of(spillDirectory));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(spilling.enqueue(entry("https://www.example.com/" + i, 1)));
+        }
+
+        assertEquals(5, spilling.size());
+        assertEquals(3, spilling.spilledSize());
+        for (int i = 0; i < 5; i++) {
+            FrontierEntry taken = spilling.take().orElseThrow();
+            assertEquals("https://www.example.com/" + i, taken.url());
+            spilling.complete(taken);
+        }
+        assertTrue(spilling.take().isEmpty());
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void laterEntriesQueueBehindSpilledOnes(@TempDir Path spillDirectory) {
+        UrlFrontier spilling = new UrlFrontier(2, new VisitedUrlSet(), PolitenessPolicy.unrestricted(),
+                Optional.of(spillDirectory));
+        spilling.enqueue(entry("https://www.example.com/a", 1));
+        spilling.enqueue(entry("https://www.example.com/b", 1));
+        spilling.enqueue(entry("https://www.example.com/c", 1));
+        FrontierEntry first = spilling.take().orElseThrow();
+
+        spilling.enqueue(entry("https://www.example.com/d", 1));
+
+        assertEquals(2, spilling.spilledSize());
+        assertEquals("https://www.example.com/a", first.url());
+    }
+
+    @Test
+    void closeDeletesEntriesThatWereNeverTaken(@TempDir Path spillDirectory) throws Exception {
+        UrlFrontier spilling = new UrlFrontier(1, new VisitedUrlSet(), PolitenessPolicy.unrestricted(),
+                Optional.of(spillDirectory));
+        spilling.enqueue(entry("https://www.example.com/a", 1));
+        spilling.enqueue(entry("https://www.example.com/b", 1));
+
+        spilling.close();
+
+        assertEquals(0, spilling.spilledSize());
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void delayedEntryIsTakenOnceItsDelayHasRunOut() {
+        frontier.enqueue(entry("https://www.example.com", 0));
+        FrontierEntry root = frontier.take().orElseThrow();
+
+        frontier.enqueueDelayed(root, TimeUnit.MILLISECONDS.toNanos(50));
+        frontier.complete(root);
+        assertEquals(1, frontier.size());
+        long start = System.nanoTime();
+        FrontierEntry retried = frontier.take().orElseThrow();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertSame(root, retried);
+        assertTrue(waitedMillis >= 40, "waited only " + waitedMillis + " ms");
+        frontier.complete(retried);
+        assertTrue(frontier.take().isEmpty());
+    }
+
+    @Test
+    void readyEntriesAreNotHeldUpByDelayedOnes() {
+        frontier.enqueue(entry("https://www.a.com/1", 1));
+        FrontierEntry failed = frontier.take().orElseThrow();
+        frontier.enqueueDelayed(failed, TimeUnit.SECONDS.toNanos(10));
+        frontier.complete(failed);
+
+        frontier.enqueue(entry("https://www.b.com/1", 1));
+
+        assertEquals("https://www.b.com/1", frontier.take().orElseThrow().url());
+        assertEquals(1, frontier.size());
+    }
+
+    @Test
+    void hostIsExtractedFromNormalizedUrl() {
+        assertEquals("www.example.com", entry("https://www.example.com/path?q=1", 0).host());
+        assertEquals("www.example.com", entry("https://www.example.com", 0).host());
+    }
+
+    private FrontierEntry entry(String url, int depth) {
+        return new FrontierEntry(url, url, depth);
+    }
+}
@@ -0,0 +1,72 @@
+package metrics;
+
+import config.MetricsSettings;
+import exceptions.PageLoadException;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlMetricsTest {
+
+    @Test
+    void recordedValuesAreReported() {
+        CrawlMetrics metrics = new CrawlMetrics();
+        metrics.recordFetch("https://www.example.com/a", 2_000_000);
+        metrics.recordFetch("https://slow.example.com/", 40_000_000);
+        metrics.recordParse(500_000);
+        metrics.recordDownloadedBytes(1_024);
+        metrics.recordDownloadedBytes(512);
+        metrics.recordPage();
+
+        assertEquals(1, metrics.getPagesCrawled());
+        assertEquals(1_536, metrics.getBytesDownloaded());
+        assertEquals(2.0, metrics.getFetchLatencyP50Millis(), 0.1);
+        assertEquals(40.0, metrics.getFetchLatencyP99Millis(), 1.5);
+        assertEquals(0.5, metrics.getParseTimeP50Millis(), 0.02);
+        assertEquals(2, metrics.getFetchLatencyP99MillisByHost().size());
+        assertEquals(40.0, metrics.getFetchLatencyP99MillisByHost().get("slow.example.com"), 1.5);
+    }
+
+    @Test
+    void failuresAreCountedByCause() {
+        CrawlMetrics metrics = new CrawlMetrics();
+
+        metrics.recordFailure(new PageLoadException("timeout", new SocketTimeoutException()));
+        metrics.recordFailure(new PageLoadException("timeout", new SocketTimeoutException()));
+        metrics.recordFailure(new PageLoadException("HTTP 404", null));
+
+        assertEquals(Map.of("SocketTimeoutException", 2L, "PageLoadException", 1L), metrics.getFailuresByType());
+    }
+
+    @Test
+    void gaugesAreReadFromTheCrawl() {
+        CrawlMetrics metrics = new CrawlMetrics(new MetricsSettings(Duration.ZERO, false));
+
+        metrics.start(new CrawlGauges(() -> 7, () -> 42, () -> 1, () -> 3));
+
+        assertEquals(7, metrics.getFrontierSize());
+        assertEquals(42, metrics.getVisitedUrlCount());
+        assertEquals(1, metrics.getExecutorQueueDepth());
+        assertEquals(3, metrics.getActiveWorkers());
+        metrics.stop();
+    }
+
+    @Test
+    void jmxRegistrationLastsForTheCrawl() throws Exception {
+        CrawlMetrics metrics = new CrawlMetrics(new MetricsSettings(Duration.ofSeconds(1), true));
+        ObjectName name = new ObjectName(CrawlMetrics.OBJECT_NAME);
+        metrics.recordPage();
+
+        metrics.start(CrawlGauges.NONE);
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "PagesCrawled"));
+        metrics.stop();
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostLatenciesTest {
+
+    @Test
+    void urlsOfOneHostShareAHistogram() {
+        HostLatencies latencies = new HostLatencies(8);
+
+        LatencyHistogram first = latencies.forUrl("https://www.example.com/a?page=1");
+        LatencyHistogram second = latencies.forUrl("https://www.example.com:443/b");
+        LatencyHistogram other = latencies.forUrl("https://other.example.com");
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(2, latencies.hostCount());
+    }
+
+    @Test
+    void hostsBeyondTheLimitShareOneHistogram() {
+        HostLatencies latencies = new HostLatencies(2);
+        latencies.forUrl("https://a.com").record(1);
+        latencies.forUrl("https://b.com").record(1);
+
+        LatencyHistogram third = latencies.forUrl("https://c.com");
+        third.record(5);
+
+        assertSame(third, latencies.forUrl("https://d.com"));
+        Map<String, LatencyHistogram> byHost = latencies.byHost();
+        assertEquals(3, byHost.size());
+        assertTrue(byHost.containsKey("a.com"));
+        assertEquals(1, byHost.get(HostLatencies.OTHER_HOSTS).count());
+    }
+}
@@ -0,0 +1,83 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10, histogram.count());
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(10, histogram.valueAtPercentile(100));
+        assertEquals(5.5, histogram.mean());
+    }
+
+    @Test
+    void largeValuesStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(50_000, histogram.valueAtPercentile(50), 50_000 / LatencyHistogram.SUB_BUCKET_COUNT);
+        assertEquals(99_000, histogram.valueAtPercentile(99), 99_000 / LatencyHistogram.SUB_BUCKET_COUNT);
+        assertEquals(100_000, histogram.valueAtPercentile(100));
+        assertEquals(100_000, histogram.max());
+    }
+
+    @Test
+    void bucketBoundsContainTheirValues() {
+        for (long value : new long[]{0, 31, 32, 33, 63, 64, 1_000, 123_456_789, LatencyHistogram.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.highestValueIn(index) >= value, "upper bound of " + value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueIn(index - 1) < value, "lower bound of " + value);
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.valueAtPercentile(99));
+        assertEquals(0, histogram.mean());
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        for (int worker = 0; worker < 4; worker++) {
+            workers.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, histogram.count());
+        assertEquals(9_999, histogram.max());
+    }
+}
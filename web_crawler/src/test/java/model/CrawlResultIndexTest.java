@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlResultIndexTest {
+
+    private final CrawlResultIndex index = new CrawlResultIndex();
+
+    @Test
+    void addParentUrlUpdatesRecordedResult() throws Exception {
+        CrawlResult result = result("https://www.example.com/page", 1);
+        index.record("https://www.example.com/page", result);
+
+        assertTrue(index.addParentUrl("https://www.example.com/page", new URL("https://www.example.com")));
+        assertTrue(result.parentUrls.contains(new URL("https://www.example.com")));
+    }
+
+    @Test
+    void addParentUrlIgnoresUnknownPage() throws Exception {
+        assertFalse(index.addParentUrl("https://www.example.com/missing", new URL("https://www.example.com")));
+    }
+
+    @Test
+    void orderedByDepthSortsShallowPagesFirst() {
+        index.record("https://www.example.com/b", result("https://www.example.com/b", 2));
+        index.record("https://www.example.com", result("https://www.example.com", 0));
+        index.record("https://www.example.com/a", result("https://www.example.com/a", 1));
+
+        List<CrawlResult> ordered = index.orderedByDepth();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(0, 1, 2), ordered.stream().map(result -> result.currentDepth).toList());
+    }
+
+    private CrawlResult result(String url, int depth) {
+        CrawlResult result = new CrawlResult();
+        result.pageUrl = url;
+        result.currentDepth = depth;
+        return result;
+    }
+}
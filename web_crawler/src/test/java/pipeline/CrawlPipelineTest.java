@@ -0,0 +1,92 @@
+package pipeline;
+
+import core.CrawlPageAnalyzer;
+import exceptions.PageLoadException;
+import fetch.AsyncPageFetcher;
+import fetch.Heading;
+import fetch.HtmlDocument;
+import fetch.PageContent;
+import fetch.PageLoader;
+import fetch.PageParser;
+import fetch.RawPage;
+import model.CrawlResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CrawlPipelineTest {
+
+    private final HtmlDocument document = mock(HtmlDocument.class);
+    private final PageParser parser = page -> document;
+    private final CrawlPageAnalyzer analyzer = new CrawlPageAnalyzer(mock(PageLoader.class));
+    private CrawlPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void successfulPageFlowsThroughAllStages() throws Exception {
+        when(document.extractContent()).thenReturn(new PageContent(
+                List.of(new Heading(1, "Title")), List.of("https://example.com/next")));
+        AsyncPageFetcher fetcher = url -> CompletableFuture.completedFuture(new RawPage(url, new byte[0], null));
+        pipeline = new CrawlPipeline(fetcher, parser, analyzer, 4, 2, 1);
+        AtomicReference<CrawlResult> handled = new AtomicReference<>();
+
+        pipeline.submit("https://example.com", 1, handled::set).get(5, TimeUnit.SECONDS);
+
+        assertFalse(handled.get().isFetchFailed);
+        assertEquals(List.of("h1:Title"), handled.get().headings);
+        assertEquals(List.of("https://example.com/next"), handled.get().childLinks);
+        assertTrue(handled.get().trace.fetchNanos() >= 0);
+        assertTrue(handled.get().trace.parseNanos() >= 0);
+        assertEquals(1, awaitCompleted("parse", 1));
+        assertEquals(1, awaitCompleted("extract", 1));
+    }
+
+    @Test
+    void failedFetchStillProducesResult() throws Exception {
+        AsyncPageFetcher fetcher = url -> CompletableFuture.failedFuture(new PageLoadException("unreachable", null));
+        pipeline = new CrawlPipeline(fetcher, parser, analyzer, 4, 2, 1);
+        AtomicReference<CrawlResult> handled = new AtomicReference<>();
+
+        pipeline.submit("https://fail.com", 2, handled::set).get(5, TimeUnit.SECONDS);
+
+        assertTrue(handled.get().isFetchFailed);
+        assertEquals(2, handled.get().currentDepth);
+        assertEquals("PageLoadException", handled.get().trace.failure());
+        assertEquals(0, stats("parse").completedCount());
+        assertEquals(1, awaitCompleted("fetch", 1));
+    }
+
+    @Test
+    void stageStatsAreReportedForEveryStage() {
+        pipeline = new CrawlPipeline(url -> new CompletableFuture<>(), parser, analyzer, 1, 1, 1);
+
+        assertEquals(List.of("fetch", "parse", "extract"),
+                pipeline.stageStats().stream().map(StageStats::stageName).toList());
+    }
+
+    private long awaitCompleted(String stageName, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (stats(stageName).completedCount() < expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        return stats(stageName).completedCount();
+    }
+
+    private StageStats stats(String stageName) {
+        return pipeline.stageStats().stream()
+                .filter(stats -> stats.stageName().equals(stageName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
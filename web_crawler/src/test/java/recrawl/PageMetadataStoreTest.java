@@ -0,0 +1,60 @@
+package recrawl;
+
+import exceptions.PageMetadataException;
+import fetch.Heading;
+import fetch.PageContent;
+import fetch.PageValidators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageMetadataStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void openStartsEmptyWithoutFile() {
+        PageMetadataStore store = PageMetadataStore.open(directory.resolve("pages.bin"));
+
+        assertEquals(0, store.size());
+        assertEquals(Optional.empty(), store.get("https://www.example.com"));
+    }
+
+    @Test
+    void savedMetadataIsReadBack() throws Exception {
+        Path file = directory.resolve("pages.bin");
+        PageMetadata page = new PageMetadata(new PageValidators("\"abc\"", "Wed, 21 Oct 2015 07:28:00 GMT"), 42L,
+                Instant.ofEpochMilli(1_000),
+                new PageContent(List.of(new Heading(1, "Straße"), new Heading(3, "Details")),
+                        List.of("https://www.example.com/a")));
+        PageMetadata withoutValidators = new PageMetadata(PageValidators.NONE, -7L, Instant.ofEpochMilli(2_000),
+                new PageContent(List.of(), List.of()));
+        PageMetadataStore store = PageMetadataStore.open(file);
+        store.put("https://www.example.com", page);
+        store.put("https://www.example.com/b", withoutValidators);
+
+        store.save();
+        PageMetadataStore reopened = PageMetadataStore.open(file);
+
+        assertEquals(2, reopened.size());
+        assertEquals(Optional.of(page), reopened.get("https://www.example.com"));
+        assertEquals(Optional.of(withoutValidators), reopened.get("https://www.example.com/b"));
+        assertFalse(Files.exists(directory.resolve("pages.bin.tmp")));
+    }
+
+    @Test
+    void openRejectsOtherFiles() throws Exception {
+        Path file = directory.resolve("pages.bin");
+        Files.writeString(file, "not a store");
+
+        assertThrows(PageMetadataException.class, () -> PageMetadataStore.open(file));
+    }
+}
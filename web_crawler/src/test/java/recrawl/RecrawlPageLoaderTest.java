@@ -0,0 +1,129 @@
+package recrawl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fetch.HtmlDocument;
+import fetch.HttpClientPageLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecrawlPageLoaderTest {
+
+    private static final String PAGE = "<html><body><h1>Title</h1><a href=\"/next\">next</a></body></html>";
+    private static final Instant NOW = Instant.ofEpochMilli(5_000);
+
+    @TempDir
+    private Path directory;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger version = new AtomicInteger(1);
+    private final HttpClientPageLoader httpLoader = new HttpClientPageLoader(Duration.ofSeconds(2), Duration.ofSeconds(2));
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/etag", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            boolean notModified = "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            respond(exchange, notModified ? 304 : 200, notModified ? "" : PAGE);
+        });
+        server.createContext("/plain", exchange -> respond(exchange, 200, PAGE));
+        server.createContext("/changing", exchange ->
+                respond(exchange, 200, "<html><body><h1>Version " + version.get() + "</h1></body></html>"));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void notModifiedPageReusesStoredContent() {
+        PageMetadataStore store = PageMetadataStore.open(directory.resolve("pages.bin"));
+        RecrawlPageLoader loader = new RecrawlPageLoader(httpLoader, store, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        HtmlDocument first = loader.loadPage(baseUrl + "/etag");
+        HtmlDocument second = loader.loadPage(baseUrl + "/etag");
+
+        assertEquals(first.extractContent(), second.extractContent());
+        assertEquals(List.of(baseUrl + "/next"), second.getLinks());
+        assertEquals(1, loader.changedCount());
+        assertEquals(1, loader.notModifiedCount());
+        assertEquals(NOW, store.get(baseUrl + "/etag").orElseThrow().lastCrawled());
+    }
+
+    @Test
+    void unchangedBodyWithoutValidatorsIsNotParsedAgain() {
+        RecrawlPageLoader loader = new RecrawlPageLoader(httpLoader, PageMetadataStore.open(directory.resolve("pages.bin")));
+
+        loader.loadPage(baseUrl + "/plain");
+        HtmlDocument second = loader.loadPage(baseUrl + "/plain");
+
+        assertEquals("Title", second.select("h1"));
+        assertEquals(1, loader.changedCount());
+        assertEquals(1, loader.unchangedCount());
+    }
+
+    @Test
+    void changedBodyIsParsedAgain() {
+        RecrawlPageLoader loader = new RecrawlPageLoader(httpLoader, PageMetadataStore.open(directory.resolve("pages.bin")));
+
+        loader.loadPage(baseUrl + "/changing");
+        version.set(2);
+        HtmlDocument second = loader.loadPage(baseUrl + "/changing");
+
+        assertEquals("Version 2", second.select("h1"));
+        assertEquals(2, loader.changedCount());
+    }
+
+    @Test
+    void savedMetadataIsUsedByTheNextCrawl() {
+        Path file = directory.resolve("pages.bin");
+        RecrawlPageLoader firstCrawl = new RecrawlPageLoader(httpLoader, PageMetadataStore.open(file));
+        firstCrawl.loadPage(baseUrl + "/etag");
+        firstCrawl.saveMetadata();
+
+        RecrawlPageLoader secondCrawl = new RecrawlPageLoader(httpLoader, PageMetadataStore.open(file));
+        HtmlDocument document = secondCrawl.loadPage(baseUrl + "/etag");
+
+        assertEquals("Title", document.select("h1"));
+        assertEquals(1, secondCrawl.notModifiedCount());
+        assertEquals(0, secondCrawl.changedCount());
+    }
+
+    @Test
+    void contentHashDependsOnEveryByte() {
+        assertEquals(RecrawlPageLoader.contentHash(PAGE.getBytes(StandardCharsets.UTF_8)),
+                RecrawlPageLoader.contentHash(PAGE.getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(RecrawlPageLoader.contentHash(PAGE.getBytes(StandardCharsets.UTF_8)),
+                RecrawlPageLoader.contentHash((PAGE + " ").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
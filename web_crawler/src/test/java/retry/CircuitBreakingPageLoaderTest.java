@@ -0,0 +1,117 @@
+package retry;
+
+import exceptions.CircuitOpenException;
+import exceptions.PageLoadException;
+import fetch.HtmlDocument;
+import fetch.PageLoader;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CircuitBreakingPageLoaderTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong now = new AtomicLong();
+    private final PageLoader delegate = mock(PageLoader.class, CALLS_REAL_METHODS);
+    private final CircuitBreakingPageLoader loader = new CircuitBreakingPageLoader(delegate, 3, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void opensAfterRepeatedTransientFailuresAndFailsFast() {
+        timesOut("https://dead.example.com/");
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(PageLoadException.class, () -> loader.loadPage("https://dead.example.com/"));
+        }
+        assertTrue(loader.isOpen("https://dead.example.com/"));
+        assertThrows(CircuitOpenException.class, () -> loader.loadPage("https://dead.example.com/next"));
+
+        verify(delegate, times(3)).loadPage(startsWith("https://dead.example.com/"));
+        assertEquals(1, loader.openedCount());
+        assertEquals(1, loader.failedFastCount());
+        assertEquals(TIMEOUT_NANOS, loader.savedNanos());
+    }
+
+    @Test
+    void otherHostsAreNotAffected() {
+        timesOut("https://dead.example.com/");
+        HtmlDocument document = mock(HtmlDocument.class);
+        when(delegate.loadPage("https://alive.example.com/")).thenReturn(document);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(PageLoadException.class, () -> loader.loadPage("https://dead.example.com/"));
+        }
+
+        assertSame(document, loader.loadPage("https://alive.example.com/"));
+        assertFalse(loader.isOpen("https://alive.example.com/"));
+    }
+
+    @Test
+    void permanentFailuresShowTheHostIsAnswering() {
+        when(delegate.loadPage("https://www.example.com/missing"))
+                .thenThrow(new PageLoadException("Failed to load page", null, 404));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(PageLoadException.class, () -> loader.loadPage("https://www.example.com/missing"));
+        }
+
+        assertFalse(loader.isOpen("https://www.example.com/"));
+        assertEquals(0, loader.openedCount());
+    }
+
+    @Test
+    void oneProbeIsLetThroughOnceTheOpenDurationHasPassed() {
+        timesOut("https://flaky.example.com/");
+        for (int i = 0; i < 3; i++) {
+            assertThrows(PageLoadException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        assertThrows(CircuitOpenException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        assertEquals(2, loader.openedCount());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        HtmlDocument document = mock(HtmlDocument.class);
+        doReturn(document).when(delegate).loadPage("https://flaky.example.com/");
+
+        assertSame(document, loader.loadPage("https://flaky.example.com/"));
+        assertFalse(loader.isOpen("https://flaky.example.com/"));
+    }
+
+    @Test
+    void unexpectedExceptionsNeitherResetTheCountNorCloseTheCircuit() {
+        timesOut("https://flaky.example.com/");
+        doThrow(new IllegalStateException("parser bug")).when(delegate).loadPage("https://flaky.example.com/broken");
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(PageLoadException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        }
+        assertThrows(IllegalStateException.class, () -> loader.loadPage("https://flaky.example.com/broken"));
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        assertTrue(loader.isOpen("https://flaky.example.com/"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThrows(IllegalStateException.class, () -> loader.loadPage("https://flaky.example.com/broken"));
+        assertTrue(loader.isOpen("https://flaky.example.com/"));
+        assertThrows(PageLoadException.class, () -> loader.loadPage("https://flaky.example.com/"));
+        assertEquals(2, loader.openedCount());
+    }
+
+    @Test
+    void thresholdMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreakingPageLoader(delegate, 0, Duration.ofSeconds(1)));
+    }
+
+    private void timesOut(String urlPrefix) {
+        when(delegate.loadPage(startsWith(urlPrefix))).thenAnswer(invocation -> {
+            now.addAndGet(TIMEOUT_NANOS);
+            throw new PageLoadException("Failed to load page", new SocketTimeoutException("Read timed out"));
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package retry;
+
+import exceptions.CircuitOpenException;
+import exceptions.PageLoadException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailureClassifierTest {
+
+    @Test
+    void networkErrorsAreTransient() {
+        assertTrue(FailureClassifier.isTransient(loadError(new SocketTimeoutException("Read timed out"))));
+        assertTrue(FailureClassifier.isTransient(loadError(new HttpTimeoutException("request timed out"))));
+        assertTrue(FailureClassifier.isTransient(loadError(new ConnectException("Connection refused"))));
+        assertTrue(FailureClassifier.isTransient(loadError(new IOException("Connection reset"))));
+    }
+
+    @Test
+    void overloadAndGatewayStatusesAreTransient() {
+        for (int status : new int[]{408, 429, 500, 502, 503, 504}) {
+            assertTrue(FailureClassifier.isTransient(new PageLoadException("", null, status)), "HTTP " + status);
+        }
+    }
+
+    @Test
+    void otherStatusesArePermanent() {
+        for (int status : new int[]{400, 401, 403, 404, 410, 501}) {
+            assertFalse(FailureClassifier.isTransient(new PageLoadException("", null, status)), "HTTP " + status);
+        }
+    }
+
+    @Test
+    void unreachableOrUnusablePagesArePermanent() {
+        assertFalse(FailureClassifier.isTransient(loadError(new UnknownHostException("nowhere.example.com"))));
+        assertFalse(FailureClassifier.isTransient(loadError(
+                new UnsupportedMimeTypeException("Unhandled content type", "image/png", "https://www.example.com/a.png"))));
+        assertFalse(FailureClassifier.isTransient(loadError(new InterruptedException())));
+        assertFalse(FailureClassifier.isTransient(new PageLoadException("not an HTML document", null)));
+        assertFalse(FailureClassifier.isTransient(new IllegalStateException("bug")));
+    }
+
+    @Test
+    void loadsSkippedByAnOpenCircuitAreTransient() {
+        assertTrue(FailureClassifier.isTransient(new CircuitOpenException("Circuit open", null)));
+    }
+
+    private static PageLoadException loadError(Throwable cause) {
+        return new PageLoadException("Failed to load page", cause);
+    }
+}
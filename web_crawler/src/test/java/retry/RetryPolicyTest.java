@@ -0,0 +1,68 @@
+package retry;
+
+import exceptions.PageLoadException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+    private static final PageLoadException UNAVAILABLE = new PageLoadException("Failed to load page", null, 503);
+    private static final PageLoadException NOT_FOUND = new PageLoadException("Failed to load page", null, 404);
+
+    @Test
+    void backoffDoublesUpToTheMaximumWithinItsJitter() {
+        RetryPolicy lowest = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1), () -> 0.0);
+        RetryPolicy highest = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1), () -> 1.0);
+
+        assertEquals(millis(50), lowest.backoffNanos(1));
+        assertEquals(millis(100), highest.backoffNanos(1));
+        assertEquals(millis(200), highest.backoffNanos(2));
+        assertEquals(millis(400), highest.backoffNanos(3));
+        assertEquals(millis(1_000), highest.backoffNanos(5));
+        assertEquals(millis(500), lowest.backoffNanos(50));
+    }
+
+    @Test
+    void transientFailuresAreRetriedUntilTheLastAttempt() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(1), () -> 1.0);
+
+        assertEquals(OptionalLong.of(millis(100)), policy.retryDelayNanos("https://www.example.com/", UNAVAILABLE));
+        assertEquals(OptionalLong.of(millis(200)), policy.retryDelayNanos("https://www.example.com/", UNAVAILABLE));
+        assertTrue(policy.retryDelayNanos("https://www.example.com/", UNAVAILABLE).isEmpty());
+
+        assertEquals(2, policy.retryCount());
+        assertEquals(1, policy.gaveUpCount());
+        assertEquals(millis(300), policy.backoffNanos());
+    }
+
+    @Test
+    void permanentFailuresAreNotRetried() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        assertTrue(policy.retryDelayNanos("https://www.example.com/", NOT_FOUND).isEmpty());
+
+        assertEquals(0, policy.retryCount());
+        assertEquals(0, policy.gaveUpCount());
+    }
+
+    @Test
+    void successAfterARetryCountsAsRecovered() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(1));
+        policy.retryDelayNanos("https://www.example.com/a", UNAVAILABLE);
+
+        policy.succeeded("https://www.example.com/a");
+        policy.succeeded("https://www.example.com/b");
+
+        assertEquals(1, policy.recoveredCount());
+        assertEquals(OptionalLong.empty(), new RetryPolicy(1, Duration.ofMillis(100), Duration.ofSeconds(1))
+                .retryDelayNanos("https://www.example.com/a", UNAVAILABLE));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
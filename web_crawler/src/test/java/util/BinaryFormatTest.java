@@ -0,0 +1,66 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatTest {
+    private static final int MAGIC = 0x57435445;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void stringsAndNullSurviveARoundTrip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            BinaryFormat.writeString(output, "https://www.example.com/ü");
+            BinaryFormat.writeString(output, null);
+            BinaryFormat.writeString(output, "");
+        }
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals("https://www.example.com/ü", BinaryFormat.readString(input));
+        assertNull(BinaryFormat.readString(input));
+        assertEquals("", BinaryFormat.readString(input));
+    }
+
+    @Test
+    void corruptLengthsAreRejectedInsteadOfAllocated() throws Exception {
+        for (int length : new int[]{-2, BinaryFormat.MAX_STRING_BYTES + 1}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new DataOutputStream(bytes).writeInt(length);
+
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertThrows(IOException.class, () -> BinaryFormat.readString(input), "length " + length);
+        }
+    }
+
+    @Test
+    void deflatedFilesCarryTheirHeader() throws Exception {
+        Path file = directory.resolve("test.bin");
+        try (DataOutputStream output = BinaryFormat.openDeflated(file)) {
+            BinaryFormat.writeHeader(output, MAGIC, 2);
+            BinaryFormat.writeString(output, "value");
+        }
+
+        try (DataInputStream input = BinaryFormat.openInflated(file)) {
+            BinaryFormat.readHeader(input, MAGIC, 2, "test file");
+            assertEquals("value", BinaryFormat.readString(input));
+        }
+        try (DataInputStream input = BinaryFormat.openInflated(file)) {
+            IOException error = assertThrows(IOException.class, () -> BinaryFormat.readHeader(input, MAGIC, 3, "test file"));
+            assertEquals("Not a test file of version 3", error.getMessage());
+        }
+        assertTrue(Files.size(file) > 0);
+    }
+}
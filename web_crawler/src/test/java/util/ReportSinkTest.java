@@ -0,0 +1,61 @@
+package util;
+
+import exceptions.ReportFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportSinkTest {
+
+    @Test
+    void writeLineCountsLinesAndBytes() throws Exception {
+        File tempFile = File.createTempFile("report", ".md");
+        try (ReportSink sink = ReportSink.open(tempFile.getAbsolutePath())) {
+            sink.writeLine("line 1");
+            sink.writeLine("größe");
+            sink.flush();
+
+            assertEquals(2, sink.linesWritten());
+            assertEquals(Files.size(tempFile.toPath()), sink.bytesWritten());
+            assertEquals(new ReportStats(2, sink.bytesWritten()), sink.stats());
+        }
+
+        assertEquals(List.of("line 1", "größe"), Files.readAllLines(tempFile.toPath(), StandardCharsets.UTF_8));
+        tempFile.delete();
+    }
+
+    @Test
+    void openReplacesExistingContent() throws Exception {
+        File tempFile = File.createTempFile("report", ".md");
+        Files.writeString(tempFile.toPath(), "old content\n");
+
+        try (ReportSink sink = ReportSink.open(tempFile.getAbsolutePath())) {
+            sink.writeLine("new");
+        }
+
+        assertEquals(List.of("new"), Files.readAllLines(tempFile.toPath()));
+        tempFile.delete();
+    }
+
+    @Test
+    void outputIsBufferedUntilFlushed() throws Exception {
+        File tempFile = File.createTempFile("report", ".md");
+        try (ReportSink sink = ReportSink.open(tempFile.getAbsolutePath())) {
+            sink.writeLine("buffered");
+
+            assertEquals(0, Files.size(tempFile.toPath()));
+        }
+        assertTrue(Files.size(tempFile.toPath()) > 0);
+        tempFile.delete();
+    }
+
+    @Test
+    void openThrowsForInvalidPath() {
+        assertThrows(ReportFileException.class, () -> ReportSink.open("/invalid/path/report.md"));
+    }
+}
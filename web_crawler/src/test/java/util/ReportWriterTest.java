@@ -8,6 +8,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,6 +60,39 @@ class ReportWriterTest {
         }
     }
 
+    @Test
+    void writeReportReturnsWrittenLinesAndBytes() throws Exception {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = "https://example.com";
+        page.currentDepth = 0;
+        page.headings = List.of("h1:Title", "invalid");
+
+        ReportStats stats = writer.writeReport(List.of(page), new URL("https://example.com"));
+
+        assertEquals(5, stats.lines());
+        assertEquals(tempFile.length(), stats.bytes());
+    }
+
+    @Test
+    void writeReportReplacesPreviousReport() throws Exception {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = "https://example.com";
+
+        writer.writeReport(List.of(page), new URL("https://example.com"));
+        ReportStats stats = writer.writeReport(List.of(page), new URL("https://example.com"));
+
+        assertEquals(stats.bytes(), tempFile.length());
+    }
+
+    @Test
+    void creatingWriterLeavesExistingReportUntouched() throws Exception {
+        Files.writeString(tempFile.toPath(), "previous report");
+
+        new ReportWriter(tempFile.getAbsolutePath());
+
+        assertEquals("previous report", Files.readString(tempFile.toPath()));
+    }
+
     @Test
     void writeReportHandlesBrokenPage() throws Exception {
         CrawlResult page = new CrawlResult();
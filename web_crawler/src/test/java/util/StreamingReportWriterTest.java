@@ -0,0 +1,107 @@
+package util;
+
+import model.CrawlResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingReportWriterTest {
+
+    @TempDir
+    Path directory;
+
+    Path reportFile;
+    StreamingReportWriter writer;
+
+    @BeforeEach
+    void setup() throws Exception {
+        reportFile = directory.resolve("report.md");
+        writer = new StreamingReportWriter(reportFile.toString(), new URL("https://example.com"));
+    }
+
+    @Test
+    void finishWritesHeaderAndPagesOrderedByDepth() throws Exception {
+        writer.accept(page("https://example.com/deep", 2));
+        writer.accept(page("https://example.com", 0));
+        writer.accept(page("https://example.com/a", 1));
+
+        writer.finish();
+
+        List<String> lines = Files.readAllLines(reportFile);
+        assertTrue(lines.get(0).contains("Crawled Website Report"));
+        assertTrue(lines.get(1).contains("Results for: https://example.com"));
+        List<String> links = lines.stream().filter(line -> line.contains("link to")).toList();
+        assertEquals(3, links.size());
+        assertTrue(links.get(0).contains("https://example.com "));
+        assertTrue(links.get(1).contains("https://example.com/a "));
+        assertTrue(links.get(2).contains("https://example.com/deep "));
+    }
+
+    @Test
+    void finishReturnsStatsOfMergedReport() throws Exception {
+        writer.accept(page("https://example.com", 0));
+        writer.accept(page("https://example.com/a", 1));
+
+        ReportStats stats = writer.finish();
+
+        assertEquals(Files.readAllLines(reportFile).size(), stats.lines());
+        assertEquals(Files.size(reportFile), stats.bytes());
+    }
+
+    @Test
+    void finishRemovesSegmentFiles() throws Exception {
+        writer.accept(page("https://example.com", 0));
+        writer.accept(page("https://example.com/a", 1));
+
+        writer.finish();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(reportFile), files.toList());
+        }
+    }
+
+    @Test
+    void acceptRejectsPagesAfterFinish() {
+        writer.finish();
+
+        assertThrows(IllegalStateException.class, () -> writer.accept(page("https://example.com", 0)));
+    }
+
+    @Test
+    void acceptIsSafeForConcurrentWorkers() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 400).forEach(i -> workers.submit(() -> writer.accept(page("https://example.com/" + i, i % 4))));
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+
+        writer.finish();
+
+        List<String> lines = Files.readAllLines(reportFile);
+        assertEquals(400, lines.stream().filter(line -> line.contains("link to")).count());
+        List<Integer> depths = lines.stream()
+                .filter(line -> line.startsWith("<br>depth:"))
+                .map(line -> Integer.parseInt(line.substring("<br>depth:".length())))
+                .toList();
+        assertEquals(depths.stream().sorted().toList(), depths);
+    }
+
+    private static CrawlResult page(String url, int depth) {
+        CrawlResult page = new CrawlResult();
+        page.pageUrl = url;
+        page.currentDepth = depth;
+        page.headings = List.of("h1:Title of " + url);
+        return page;
+    }
+}
@@ -0,0 +1,86 @@
+package util;
+
+import config.QueryMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = UrlCanonicalizer.DEFAULT;
+
+    @Test
+    void canonicalizeLowerCasesSchemeAndHostButNotPath() {
+        assertEquals(Optional.of("https://www.example.com/Docs/Page"), canonicalizer.canonicalize("HTTPS://Example.COM/Docs/Page"));
+    }
+
+    @Test
+    void canonicalizeRemovesDefaultPortsOnly() {
+        assertEquals(Optional.of("http://www.example.com/a"), canonicalizer.canonicalize("http://example.com:80/a"));
+        assertEquals(Optional.of("https://www.example.com/a"), canonicalizer.canonicalize("https://example.com:443/a"));
+        assertEquals(Optional.of("https://www.example.com:8443/a"), canonicalizer.canonicalize("https://example.com:8443/a"));
+        assertEquals(Optional.of("http://www.example.com:443"), canonicalizer.canonicalize("http://example.com:443/"));
+    }
+
+    @Test
+    void canonicalizeResolvesDotSegments() {
+        assertEquals(Optional.of("https://www.example.com/a/c"), canonicalizer.canonicalize("https://example.com/a/./b/../c"));
+        assertEquals(Optional.of("https://www.example.com/c"), canonicalizer.canonicalize("https://example.com/../../c"));
+        assertEquals(Optional.of("https://www.example.com/a"), canonicalizer.canonicalize("https://example.com/a/b/.."));
+        assertEquals(Optional.of("https://www.example.com/a/.hidden/..b"), canonicalizer.canonicalize("https://example.com/a/.hidden/..b"));
+    }
+
+    @Test
+    void canonicalizeStripsFragmentUserInfoAndTrailingSlash() {
+        assertEquals(Optional.of("https://www.example.com/page"), canonicalizer.canonicalize("https://user:pw@example.com/page/#top"));
+        assertEquals(Optional.of("https://www.example.com"), canonicalizer.canonicalize("  https://example.com/  "));
+    }
+
+    @Test
+    void canonicalizeDropsQueryByDefault() {
+        assertEquals(Optional.of("https://www.example.com/search"), canonicalizer.canonicalize("https://example.com/search?q=java#results"));
+    }
+
+    @Test
+    void canonicalizeKeepsQueryWhenConfigured() {
+        UrlCanonicalizer keeping = UrlCanonicalizer.forMode(QueryMode.KEEP);
+
+        assertEquals(Optional.of("https://www.example.com/search?q=java&utm_source=x"),
+                keeping.canonicalize("https://example.com/search/?q=java&utm_source=x#results"));
+    }
+
+    @Test
+    void canonicalizeFiltersTrackingParameters() {
+        UrlCanonicalizer filtering = UrlCanonicalizer.forMode(QueryMode.FILTER);
+
+        assertEquals(Optional.of("https://www.example.com/search?q=java&page=2"),
+                filtering.canonicalize("https://example.com/search?utm_source=x&q=java&JSESSIONID=abc&page=2&fbclid=1"));
+        assertEquals(Optional.of("https://www.example.com/search"),
+                filtering.canonicalize("https://example.com/search?utm_medium=mail"));
+    }
+
+    @Test
+    void canonicalizeLeavesIpLiteralsWithoutWwwPrefix() {
+        assertEquals(Optional.of("http://127.0.0.1:8080/a"), canonicalizer.canonicalize("http://127.0.0.1:8080/a"));
+        assertEquals(Optional.of("http://[::1]:8080"), canonicalizer.canonicalize("http://[::1]:8080/"));
+    }
+
+    @Test
+    void canonicalizeRejectsMalformedUrls() {
+        assertTrue(canonicalizer.canonicalize("not-a-valid-url").isEmpty());
+        assertTrue(canonicalizer.canonicalize("mailto:someone@example.com").isEmpty());
+        assertTrue(canonicalizer.canonicalize("https:///path").isEmpty());
+        assertTrue(canonicalizer.canonicalize("https://example.com:port/").isEmpty());
+        assertTrue(canonicalizer.canonicalize("https://example.com:99999/").isEmpty());
+        assertTrue(canonicalizer.canonicalize("").isEmpty());
+    }
+
+    @Test
+    void hostExtractsLowerCasedHostWithoutPortOrUserInfo() {
+        assertEquals(Optional.of("www.example.com"), UrlCanonicalizer.host("https://user@WWW.Example.com:8080/path?q"));
+        assertEquals(Optional.of("example.com"), UrlCanonicalizer.host("https://example.com"));
+        assertTrue(UrlCanonicalizer.host("://invalid-url").isEmpty());
+    }
+}
@@ -46,6 +46,11 @@ class WebCrawlerUtilsTest {
         boolean allowed = WebCrawlerUtils.isDomainAllowed("://invalid-url", Set.of("any.com"));
         assertFalse(allowed);
     }
+    @Test
+    void isDomainAllowedIgnoresPortAndCase() {
+        assertTrue(WebCrawlerUtils.isDomainAllowed("https://WWW.example.com:8443/page", Set.of("www.example.com")));
+    }
+
     @Test
     void normalizeUrlKeepsHostWithWww() {
         Optional<String> normalized = WebCrawlerUtils.normalizeUrl("https://www.example.com/page/");
@@ -0,0 +1,61 @@
+package visited;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void addedHashesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.put(FingerprintUrlSet.fingerprint("https://www.example.com/" + i));
+        }
+
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(FingerprintUrlSet.fingerprint("https://www.example.com/" + i)));
+        }
+    }
+
+    @Test
+    void putReportsWhetherTheHashWasCertainlyNew() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        long hash = FingerprintUrlSet.fingerprint("https://www.example.com");
+
+        assertFalse(filter.mightContain(hash));
+        assertTrue(filter.put(hash));
+        assertFalse(filter.put(hash));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(FingerprintUrlSet.fingerprint("https://www.example.com/seen/" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(FingerprintUrlSet.fingerprint("https://www.example.com/unseen/" + i))) falsePositives++;
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void sizingFollowsTargetRate() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        assertTrue(filter.bitCount() >= 9_585_059L);
+        assertEquals(7, filter.probeCount());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,44 @@
+package visited;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BloomFilteredUrlStoreTest {
+
+    @Test
+    void exactStoreDecidesEveryClaim() {
+        BloomFilteredUrlStore seenUrls = new BloomFilteredUrlStore(new BloomFilter(1_000, 0.01), new VisitedUrlSet());
+
+        assertTrue(seenUrls.claim("https://www.example.com"));
+        assertFalse(seenUrls.claim("https://www.example.com"));
+
+        assertEquals(1, seenUrls.size());
+        assertEquals(1, seenUrls.preventedDuplicateCount());
+        assertEquals(0, seenUrls.falsePositiveRate().orElseThrow());
+    }
+
+    @Test
+    void unseenUrlIsAnsweredByTheFilter() {
+        SeenUrlStore exactStore = mock(SeenUrlStore.class);
+        BloomFilteredUrlStore seenUrls = new BloomFilteredUrlStore(new BloomFilter(1_000, 0.01), exactStore);
+
+        assertFalse(seenUrls.isClaimed("https://www.example.com"));
+        verifyNoInteractions(exactStore);
+    }
+
+    @Test
+    void countsNewUrlsTheFilterReportedAsSeen() {
+        BloomFilter saturated = new BloomFilter(1, 0.5);
+        for (int i = 0; i < 10_000; i++) {
+            saturated.put(FingerprintUrlSet.fingerprint("https://www.example.com/filler/" + i));
+        }
+        BloomFilteredUrlStore seenUrls = new BloomFilteredUrlStore(saturated, new VisitedUrlSet());
+
+        assertTrue(seenUrls.claim("https://www.example.com/new"));
+
+        assertEquals(1, seenUrls.falsePositiveCount());
+        assertEquals(1.0, seenUrls.falsePositiveRate().orElseThrow());
+    }
+}
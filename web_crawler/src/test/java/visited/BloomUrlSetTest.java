@@ -0,0 +1,61 @@
+package visited;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomUrlSetTest {
+
+    private final BloomUrlSet seenUrls = new BloomUrlSet(1_000, 0.01);
+
+    @Test
+    void repeatedClaimIsRejected() {
+        assertTrue(seenUrls.claim("https://www.example.com"));
+        assertFalse(seenUrls.claim("https://www.example.com"));
+
+        assertTrue(seenUrls.isClaimed("https://www.example.com"));
+        assertEquals(1, seenUrls.size());
+        assertEquals(1, seenUrls.preventedDuplicateCount());
+    }
+
+    @Test
+    void reportsExpectedFalsePositiveRate() {
+        assertEquals(0, seenUrls.falsePositiveRate().orElseThrow());
+
+        for (int i = 0; i < 1_000; i++) {
+            seenUrls.claim("https://www.example.com/" + i);
+        }
+
+        double rate = seenUrls.falsePositiveRate().orElseThrow();
+        assertTrue(rate > 0 && rate <= 0.01, "rate: " + rate);
+    }
+
+    @Test
+    void concurrentClaimsHaveExactlyOneWinner() throws InterruptedException {
+        int threads = 16;
+        for (int round = 0; round < 200; round++) {
+            String url = "https://www.example.com/contended/" + round;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger winners = new AtomicInteger();
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (seenUrls.claim(url)) winners.incrementAndGet();
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(1, winners.get(), url);
+        }
+    }
+}
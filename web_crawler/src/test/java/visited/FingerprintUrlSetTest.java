@@ -0,0 +1,77 @@
+package visited;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintUrlSetTest {
+
+    private final FingerprintUrlSet seenUrls = new FingerprintUrlSet();
+
+    @Test
+    void firstClaimSucceedsAndRepeatsArePrevented() {
+        assertTrue(seenUrls.claim("https://www.example.com"));
+        assertFalse(seenUrls.claim("https://www.example.com"));
+
+        assertTrue(seenUrls.isClaimed("https://www.example.com"));
+        assertFalse(seenUrls.isClaimed("https://www.example.com/other"));
+        assertEquals(1, seenUrls.size());
+        assertEquals(1, seenUrls.preventedDuplicateCount());
+    }
+
+    @Test
+    void tablesGrowWithoutLosingUrls() {
+        long initialBytes = seenUrls.tableBytes();
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(seenUrls.claim("https://www.example.com/page/" + i));
+        }
+
+        assertEquals(50_000, seenUrls.size());
+        assertTrue(seenUrls.tableBytes() > initialBytes);
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(seenUrls.isClaimed("https://www.example.com/page/" + i));
+        }
+        assertFalse(seenUrls.isClaimed("https://www.example.com/page/50000"));
+    }
+
+    @Test
+    void expectedUrlsPresizesTables() {
+        FingerprintUrlSet presized = new FingerprintUrlSet(1_000_000);
+
+        assertTrue(presized.tableBytes() >= 1_000_000L * Long.BYTES);
+    }
+
+    @Test
+    void fingerprintIsNeverZero() {
+        assertNotEquals(0, FingerprintUrlSet.fingerprint(""));
+        assertNotEquals(FingerprintUrlSet.fingerprint("https://www.example.com/a"),
+                FingerprintUrlSet.fingerprint("https://www.example.com/b"));
+    }
+
+    @Test
+    void concurrentClaimsHaveExactlyOneWinner() throws InterruptedException {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (seenUrls.claim("https://www.example.com/contended")) winners.incrementAndGet();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.get());
+        assertEquals(threads - 1, seenUrls.preventedDuplicateCount());
+    }
+}
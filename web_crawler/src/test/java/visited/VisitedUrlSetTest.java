@@ -0,0 +1,68 @@
+package visited;
+
+import dictionary.UrlDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitedUrlSetTest {
+
+    private final VisitedUrlSet visitedUrls = new VisitedUrlSet();
+
+    @Test
+    void firstClaimSucceeds() {
+        assertTrue(visitedUrls.claim("https://www.example.com"));
+        assertTrue(visitedUrls.isClaimed("https://www.example.com"));
+        assertEquals(1, visitedUrls.size());
+    }
+
+    @Test
+    void repeatedClaimIsCountedAsPreventedDuplicate() {
+        visitedUrls.claim("https://www.example.com");
+
+        assertFalse(visitedUrls.claim("https://www.example.com"));
+        assertFalse(visitedUrls.claim("https://www.example.com"));
+        assertEquals(2, visitedUrls.preventedDuplicateCount());
+    }
+
+    @Test
+    void claimByIdSharesStateWithClaimByUrl() {
+        UrlDictionary dictionary = new UrlDictionary();
+        VisitedUrlSet shared = new VisitedUrlSet(dictionary);
+
+        assertTrue(shared.claim(dictionary.intern("https://www.example.com/a")));
+        assertFalse(shared.claim("https://www.example.com/a"));
+        assertFalse(shared.isClaimed("https://www.example.com/b"));
+        assertEquals(1, shared.size());
+    }
+
+    @Test
+    void concurrentClaimsHaveExactlyOneWinner() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (visitedUrls.claim("https://www.example.com/shared")) {
+                    winners.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.get());
+        assertEquals(threads - 1, visitedUrls.preventedDuplicateCount());
+    }
+}